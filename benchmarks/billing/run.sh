@@ -0,0 +1,70 @@
+#!/usr/bin/env bash
+# Drives the subscription flow against an application running with the stripe-sim profile:
+# every worker signs up a fresh tenant and subscribes it, then the script waits for the
+# simulator's webhooks to activate the subscriptions. Fails if any step fails or the p95
+# subscribe latency exceeds THRESHOLD_MS.
+set -euo pipefail
+cd "$(dirname "$0")"
+
+BASE_URL=${BASE_URL:-http://localhost:8085/saas}
+TENANTS=${TENANTS:-200}
+CONCURRENCY=${CONCURRENCY:-16}
+PLAN_ID=${PLAN_ID:-price_pro}
+THRESHOLD_MS=${THRESHOLD_MS:-500}
+ACTIVATION_TIMEOUT=${ACTIVATION_TIMEOUT:-60}
+RUN_ID=${RUN_ID:-$(date +%s)}
+
+results=$(mktemp)
+trap 'rm -f "${results}"' EXIT
+
+subscribe() {
+  local n=$1
+  local email="billing-${RUN_ID}-${n}@bench.example"
+  local token
+  token=$(curl -sf -X POST "${BASE_URL}/api/v1/auth/signup" -H 'Content-Type: application/json' \
+    -d "{\"email\":\"${email}\",\"password\":\"bench-password\",\"firstName\":\"Bench\",\"lastName\":\"${n}\",\"tenantName\":\"bench-${RUN_ID}-${n}\"}" \
+    | sed -n 's/.*"accessToken":"\([^"]*\)".*/\1/p') || { echo "signup_failed 0"; return; }
+
+  curl -s -o /dev/null -w '%{http_code} %{time_total}\n' -X POST "${BASE_URL}/api/v1/subscriptions/create" \
+    -H "Authorization: Bearer ${token}" -H 'Content-Type: application/json' \
+    -d "{\"planId\":\"${PLAN_ID}\"}"
+}
+export -f subscribe
+export BASE_URL PLAN_ID RUN_ID
+
+echo "Subscribing ${TENANTS} tenants with ${CONCURRENCY} workers..."
+started=$(date +%s.%N)
+seq 1 "${TENANTS}" | xargs -P "${CONCURRENCY}" -I{} bash -c 'subscribe {}' >"${results}"
+elapsed=$(awk -v s="${started}" -v e="$(date +%s.%N)" 'BEGIN { printf "%.1f", e - s }')
+
+ok=$(awk '$1 == 200' "${results}" | wc -l)
+failed=$((TENANTS - ok))
+p95=$(awk '$1 == 200 { print $2 * 1000 }' "${results}" | sort -n \
+  | awk '{ v[NR] = $1 } END { if (NR == 0) print 0; else printf "%.0f", v[int(NR * 0.95 + 0.5) > 0 ? int(NR * 0.95 + 0.5) : 1] }')
+echo "${ok} subscribed, ${failed} failed in ${elapsed}s; p95 subscribe latency ${p95} ms"
+
+status=0
+if (( failed > 0 )); then
+  echo "FAIL: ${failed} signups or subscriptions failed"
+  awk '$1 != 200 { print "  " $0 }' "${results}" | sort | uniq -c | head
+  status=1
+fi
+if (( p95 > THRESHOLD_MS )); then
+  echo "FAIL: p95 ${p95} ms exceeds ${THRESHOLD_MS} ms"
+  status=1
+fi
+
+# Activation arrives through signed webhooks and the inbox, so it is checked in the database
+if command -v psql >/dev/null && [[ -n "${PGDATABASE:-}" ]]; then
+  export PGOPTIONS="-c search_path=${SCHEMA:-saas_starter}"
+  deadline=$((SECONDS + ACTIVATION_TIMEOUT))
+  while :; do
+    active=$(psql -Atc "SELECT count(*) FROM tenants WHERE name LIKE 'bench-${RUN_ID}-%' AND subscription_status = 'active'")
+    (( active >= ok || SECONDS >= deadline )) && break
+    sleep 1
+  done
+  echo "${active}/${ok} subscriptions activated by webhook"
+  (( active >= ok )) || { echo "FAIL: webhooks did not activate every subscription"; status=1; }
+fi
+
+exit ${status}
@@ -0,0 +1,131 @@
+#!/usr/bin/env python3
+"""Compares a JMH JSON result file with a stored baseline and flags regressions.
+
+A benchmark regresses when its score moves in the bad direction by more than the
+threshold and the two error intervals do not overlap. Allocation per operation
+(gc.alloc.rate.norm, present when the gc profiler ran) is compared the same way.
+Exits with 1 if anything regressed.
+
+    compare_jmh.py results.json baseline.json [--threshold 10] [--save-baseline]
+"""
+import argparse
+import json
+import shutil
+import sys
+from pathlib import Path
+
+# Modes where a higher score is better; all others (avgt, sample, ss) measure time
+HIGHER_IS_BETTER = {"thrpt"}
+ALLOC_METRICS = ("gc.alloc.rate.norm", "·gc.alloc.rate.norm")
+# Allocation differences below this many bytes per operation are noise
+ALLOC_SLACK_BYTES = 16
+
+
+def load(path):
+    with open(path, encoding="utf-8") as f:
+        return {key(run): run for run in json.load(f)}
+
+
+def key(run):
+    params = run.get("params") or {}
+    suffix = ",".join(f"{name}={params[name]}" for name in sorted(params))
+    return f"{run['benchmark']}[{suffix}]" if suffix else run["benchmark"]
+
+
+def alloc(run):
+    secondary = run.get("secondaryMetrics") or {}
+    for name in ALLOC_METRICS:
+        if name in secondary:
+            return secondary[name]
+    return None
+
+
+def error(metric):
+    value = metric.get("scoreError")
+    return value if isinstance(value, (int, float)) else 0.0
+
+
+def change(baseline, current):
+    return (current - baseline) / baseline * 100 if baseline else 0.0
+
+
+def compare(baseline, current, threshold):
+    regressions = []
+    rows = []
+    for name in sorted(current):
+        run = current[name]
+        base = baseline.get(name)
+        metric = run["primaryMetric"]
+        if base is None:
+            rows.append((name, "-", fmt(metric), "new", ""))
+            continue
+
+        base_metric = base["primaryMetric"]
+        delta = change(base_metric["score"], metric["score"])
+        worse = -delta if run["mode"] in HIGHER_IS_BETTER else delta
+        separated = abs(metric["score"] - base_metric["score"]) > error(metric) + error(base_metric)
+        flag = "REGRESSION" if worse > threshold and separated else ""
+        if flag:
+            regressions.append(name)
+        rows.append((name, fmt(base_metric), fmt(metric), f"{delta:+.1f}%", flag))
+
+        base_alloc, current_alloc = alloc(base), alloc(run)
+        if base_alloc and current_alloc:
+            growth = current_alloc["score"] - base_alloc["score"]
+            alloc_delta = change(base_alloc["score"], current_alloc["score"])
+            alloc_flag = ""
+            if growth > ALLOC_SLACK_BYTES and (base_alloc["score"] == 0 or alloc_delta > threshold):
+                alloc_flag = "REGRESSION"
+                regressions.append(f"{name} (allocation)")
+            rows.append(("  allocation", fmt(base_alloc), fmt(current_alloc),
+                         f"{alloc_delta:+.1f}%" if base_alloc["score"] else "", alloc_flag))
+
+    for name in sorted(set(baseline) - set(current)):
+        rows.append((name, fmt(baseline[name]["primaryMetric"]), "-", "missing", ""))
+    return rows, regressions
+
+
+def fmt(metric):
+    return f"{metric['score']:.3f} ± {error(metric):.3f} {metric.get('scoreUnit', '')}".rstrip()
+
+
+def print_table(rows):
+    headers = ("benchmark", "baseline", "current", "change", "")
+    widths = [max(len(str(row[i])) for row in rows + [headers]) for i in range(len(headers))]
+    for row in [headers] + rows:
+        print("  ".join(str(cell).ljust(width) for cell, width in zip(row, widths)).rstrip())
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__, formatter_class=argparse.RawDescriptionHelpFormatter)
+    parser.add_argument("results", type=Path, help="JMH result file written with -rf json")
+    parser.add_argument("baseline", type=Path, help="stored baseline to compare against")
+    parser.add_argument("--threshold", type=float, default=10.0,
+                        help="percentage a score may worsen before it counts as a regression (default 10)")
+    parser.add_argument("--save-baseline", action="store_true",
+                        help="replace the baseline with the results instead of comparing")
+    args = parser.parse_args()
+
+    if not args.results.exists():
+        sys.exit(f"No results at {args.results}; run ./gradlew jmh first")
+    if args.save_baseline:
+        args.baseline.parent.mkdir(parents=True, exist_ok=True)
+        shutil.copyfile(args.results, args.baseline)
+        print(f"Saved {len(load(args.baseline))} benchmarks as the baseline in {args.baseline}")
+        return 0
+    if not args.baseline.exists():
+        sys.exit(f"No baseline at {args.baseline}; record one with --save-baseline")
+
+    rows, regressions = compare(load(args.baseline), load(args.results), args.threshold)
+    print_table(rows)
+    if regressions:
+        print(f"\n{len(regressions)} regression(s) beyond {args.threshold:g}%:")
+        for name in regressions:
+            print(f"  {name}")
+        return 1
+    print(f"\nNo regressions beyond {args.threshold:g}%")
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
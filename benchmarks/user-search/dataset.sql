@@ -0,0 +1,46 @@
+-- Generates :users users in tenant 'bench-search' and as many in 'bench-noise', so the
+-- plans have to rely on tenant scoping. Every 50th user is soft-deleted.
+-- Run against a schema already migrated by Flyway:
+--   psql -v ON_ERROR_STOP=1 -v users=300000 -f dataset.sql
+\if :{?users}
+\else
+  \set users 300000
+\endif
+
+INSERT INTO tenants (tenant_id, name, schema_name, active, subscription_status)
+VALUES ('bench-search', 'User Search Benchmark', 'public', true, 'active'),
+       ('bench-noise', 'User Search Benchmark (noise)', 'public', true, 'active')
+ON CONFLICT (tenant_id) DO NOTHING;
+
+WITH first_names AS (
+    SELECT ARRAY['James','Mary','Robert','Patricia','John','Jennifer','Michael','Linda','David','Elizabeth',
+                 'William','Barbara','Richard','Susan','Joseph','Jessica','Thomas','Sarah','Charles','Karen',
+                 'Christopher','Lisa','Daniel','Nancy','Matthew','Betty','Anthony','Margaret','Mark','Sandra',
+                 'Donald','Ashley','Steven','Kimberly','Paul','Emily','Andrew','Donna','Joshua','Michelle',
+                 'Kenneth','Carol','Kevin','Amanda','Brian','Dorothy','George','Melissa','Timothy','Deborah',
+                 'Ronald','Stephanie','Edward','Rebecca','Jason','Sharon','Jeffrey','Laura','Ryan','Cynthia'] AS names
+), last_names AS (
+    SELECT ARRAY['Smith','Johnson','Williams','Brown','Jones','Garcia','Miller','Davis','Rodriguez','Martinez',
+                 'Hernandez','Lopez','Gonzalez','Wilson','Anderson','Thomas','Taylor','Moore','Jackson','Martin',
+                 'Lee','Perez','Thompson','White','Harris','Sanchez','Clark','Ramirez','Lewis','Robinson',
+                 'Walker','Young','Allen','King','Wright','Scott','Torres','Nguyen','Hill','Flores',
+                 'Green','Adams','Nelson','Baker','Hall','Rivera','Campbell','Mitchell','Carter','Roberts',
+                 'Gomez','Phillips','Evans','Turner','Diaz','Parker','Cruz','Edwards','Collins','Reyes'] AS names
+)
+INSERT INTO users (email, password, first_name, last_name, tenant_id, active, email_verified, deleted)
+SELECT lower(f.names[1 + g % 60] || '.' || l.names[1 + (g / 60) % 60] || '.' || g || '@' || t.tenant_id || '.example.com'),
+       NULL,
+       f.names[1 + g % 60],
+       l.names[1 + (g / 60) % 60],
+       t.id,
+       true,
+       true,
+       g % 50 = 0
+  FROM tenants t
+ CROSS JOIN generate_series(1, :users) AS g
+ CROSS JOIN first_names f
+ CROSS JOIN last_names l
+ WHERE t.tenant_id IN ('bench-search', 'bench-noise')
+ON CONFLICT (email) DO NOTHING;
+
+VACUUM ANALYZE users;
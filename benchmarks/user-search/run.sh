@@ -0,0 +1,41 @@
+#!/usr/bin/env bash
+# Loads the search dataset and fails if average search latency exceeds THRESHOLD_MS.
+# Connection settings come from the usual libpq variables (PGHOST, PGDATABASE, PGUSER, ...).
+set -euo pipefail
+cd "$(dirname "$0")"
+
+USERS=${USERS:-300000}
+SCHEMA=${SCHEMA:-saas_starter}
+DURATION=${DURATION:-30}
+CLIENTS=${CLIENTS:-4}
+THRESHOLD_MS=${THRESHOLD_MS:-10}
+
+# Same search_path the application uses for the schema
+export PGOPTIONS="-c search_path=${SCHEMA}"
+
+if [[ "${SKIP_DATASET:-false}" != "true" ]]; then
+  echo "Generating ${USERS} users per benchmark tenant in schema ${SCHEMA}..."
+  psql -q -v ON_ERROR_STOP=1 -v users="${USERS}" -f dataset.sql
+fi
+
+TENANT_ID=$(psql -Atc "SELECT id FROM tenants WHERE tenant_id = 'bench-search'")
+LIVE_USERS=$(psql -Atc "SELECT count(*) FROM users WHERE tenant_id = ${TENANT_ID} AND deleted = false")
+echo "Tenant ${TENANT_ID} has ${LIVE_USERS} live users"
+
+status=0
+for script in search-prefix.sql search-trigram.sql; do
+  # Prepared mode matches the JDBC driver, including generic plans after warm-up
+  output=$(pgbench -n -M prepared -c "${CLIENTS}" -j "${CLIENTS}" -T "${DURATION}" \
+    -D tenant_id="${TENANT_ID}" -f "${script}")
+  echo "${output}"
+
+  latency=$(awk '/^latency average/ {print $4}' <<<"${output}")
+  if awk -v l="${latency}" -v t="${THRESHOLD_MS}" 'BEGIN { exit !(l < t) }'; then
+    echo "PASS ${script}: ${latency} ms average (threshold ${THRESHOLD_MS} ms)"
+  else
+    echo "FAIL ${script}: ${latency} ms average (threshold ${THRESHOLD_MS} ms)"
+    status=1
+  fi
+done
+
+exit ${status}
@@ -0,0 +1,21 @@
+-- pgbench script: 1-2 character type-ahead (UserRepository.searchByPrefix).
+-- Keep the search statement identical to the repository query.
+\set i random(1, 10)
+SELECT q AS lower, left(q, -1) || chr(ascii(right(q, 1)) + 1) AS upper
+  FROM (SELECT (ARRAY['j', 'ma', 'a', 't', 'ro', 's', 'w', 'li', 'ke', 'd'])[:i] AS q) terms \gset
+WITH matches AS (
+(SELECT u.id FROM users u
+  WHERE u.tenant_id = :tenant_id AND u.deleted = false
+    AND lower(u.email) COLLATE "C" >= :lower AND lower(u.email) COLLATE "C" < :upper
+  ORDER BY lower(u.email) COLLATE "C" LIMIT 10)
+UNION
+(SELECT u.id FROM users u
+  WHERE u.tenant_id = :tenant_id AND u.deleted = false
+    AND lower(u.first_name) COLLATE "C" >= :lower AND lower(u.first_name) COLLATE "C" < :upper
+  ORDER BY lower(u.first_name) COLLATE "C" LIMIT 10)
+UNION
+(SELECT u.id FROM users u
+  WHERE u.tenant_id = :tenant_id AND u.deleted = false
+    AND lower(u.last_name) COLLATE "C" >= :lower AND lower(u.last_name) COLLATE "C" < :upper
+  ORDER BY lower(u.last_name) COLLATE "C" LIMIT 10)
+) SELECT u.id AS "id", u.email AS "email", u.first_name AS "firstName", u.last_name AS "lastName", CAST(CASE WHEN starts_with(lower(u.email), :lower) OR starts_with(lower(u.first_name), :lower) OR starts_with(lower(u.last_name), :lower) THEN 1 ELSE 0 END + greatest(public.similarity(lower(u.email), :lower), public.similarity(lower(coalesce(u.first_name, '') || ' ' || coalesce(u.last_name, '')), :lower)) AS double precision) AS "score" FROM users u JOIN matches m ON m.id = u.id ORDER BY "score" DESC, u.email LIMIT 10;
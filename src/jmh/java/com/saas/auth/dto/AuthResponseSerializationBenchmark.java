@@ -0,0 +1,105 @@
+package com.saas.auth.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.saas.user.dto.UserResponse;
+import com.saas.user.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing auth and profile responses to a stream, as the message converter does,
+ * including the {@link User} entity that the profile endpoints used to return. The gc
+ * profiler reports allocation per operation next to the timings.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthResponseSerializationBenchmark {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(2048);
+
+    private ObjectWriter authWriter;
+    private ObjectWriter userWriter;
+    private ObjectWriter entityWriter;
+
+    private AuthResponse authResponse;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper mapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        authWriter = mapper.writerFor(AuthResponse.class);
+        userWriter = mapper.writerFor(UserResponse.class);
+        entityWriter = mapper.writerFor(User.class);
+
+        user = User.builder()
+                .id(4711L)
+                .email("jane.doe@example.com")
+                .password("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3bDRRqBNCSO.Fv5zVqsGq2y")
+                .firstName("Jane")
+                .lastName("Doe")
+                .phoneNumber("+49 30 1234567")
+                .tenantId(42L)
+                .active(true)
+                .emailVerified(true)
+                .roles(Set.of("USER", "ADMIN"))
+                .createdAt(LocalDateTime.of(2024, 1, 15, 9, 30))
+                .updatedAt(LocalDateTime.of(2024, 6, 1, 12, 0))
+                .version(7L)
+                .build();
+        authResponse = AuthResponse.builder()
+                .accessToken("eyJhbGciOiJIUzI1NiJ9." + "a".repeat(320) + ".c2lnbmF0dXJl")
+                .refreshToken("eyJhbGciOiJIUzI1NiJ9." + "b".repeat(180) + ".c2lnbmF0dXJl")
+                .userId(user.getId())
+                .email(user.getEmail())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .roles(user.getRoles())
+                .build();
+    }
+
+    @Benchmark
+    public int authResponse() throws IOException {
+        return write(authWriter, authResponse);
+    }
+
+    @Benchmark
+    public int userResponse() throws IOException {
+        return write(userWriter, UserResponse.from(user));
+    }
+
+    @Benchmark
+    public int userEntity() throws IOException {
+        return write(entityWriter, user);
+    }
+
+    private int write(ObjectWriter writer, Object value) throws IOException {
+        out.reset();
+        writer.writeValue(out, value);
+        return out.size();
+    }
+}
@@ -0,0 +1,75 @@
+package com.saas.security.jwt;
+
+import com.saas.common.metrics.TenantMetricTags;
+import com.saas.subscription.service.EntitlementStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issuing and the checks every authenticated request makes: {@code validateToken}
+ * followed by {@code extractEmail}, as in {@code JwtAuthenticationFilter}. Includes the
+ * metrics recorded on each call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String accessToken;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        jwtUtil = new JwtUtil(meterRegistry, new TenantMetricTags(
+                new StaticListableBeanFactory().getBeanProvider(EntitlementStore.class), meterRegistry, 20));
+        setField("secret", "benchmark-secret-key-that-is-at-least-256-bits-long!");
+        setField("accessTokenValidity", 3600L);
+        accessToken = jwtUtil.generateAccessToken("jane.doe@example.com", 4711L, 42L, Set.of("USER", "ADMIN"));
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtUtil.generateAccessToken("jane.doe@example.com", 4711L, 42L, Set.of("USER", "ADMIN"));
+    }
+
+    @Benchmark
+    public String generateRefreshToken() {
+        return jwtUtil.generateRefreshToken("jane.doe@example.com", 4711L, 42L);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtil.validateToken(accessToken);
+    }
+
+    @Benchmark
+    public String authenticateRequest() {
+        return jwtUtil.validateToken(accessToken) ? jwtUtil.extractEmail(accessToken) : null;
+    }
+
+    // Stands in for the @Value injection
+    private void setField(String name, Object value) {
+        Field field = ReflectionUtils.findField(JwtUtil.class, name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, jwtUtil, value);
+    }
+}
@@ -0,0 +1,59 @@
+package com.saas.security.service;
+
+import com.saas.user.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Mapping a loaded {@link User} to Spring Security's {@link UserDetails}, which
+ * {@link CustomUserDetailsService} does on every authenticated request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserDetailsMappingBenchmark {
+
+    @Param({"1", "5"})
+    public int roles;
+
+    private User user;
+
+    @Setup
+    public void setUp() {
+        Set<String> granted = IntStream.range(0, roles)
+                .mapToObj(i -> i == 0 ? "USER" : "ROLE_" + i)
+                .collect(Collectors.toCollection(HashSet::new));
+        user = User.builder()
+                .id(4711L)
+                .email("jane.doe@example.com")
+                .password("$2a$12$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3bDRRqBNCSO.Fv5zVqsGq2y")
+                .tenantId(42L)
+                .active(true)
+                .roles(granted)
+                .build();
+    }
+
+    @Benchmark
+    public UserDetails toUserDetails() {
+        return CustomUserDetailsService.toUserDetails(user);
+    }
+}
@@ -0,0 +1,89 @@
+package com.saas.subscription.service;
+
+import com.saas.subscription.config.EntitlementProperties;
+import com.saas.subscription.config.RateLimitProperties;
+import com.saas.subscription.dto.Entitlements;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of the API rate limit: a bucket alone, and the full lookup through the
+ * tenant cache. {@code admitted} never runs out of tokens, {@code rejected} always has.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TenantRateLimiterBenchmark {
+
+    @Param({"1", "10000"})
+    public int tenants;
+
+    private RateLimitBucket admitted;
+    private RateLimitBucket rejected;
+    private TenantRateLimiter limiter;
+
+    @Setup
+    public void setUp() {
+        RateLimitProperties.Limit unlimited = new RateLimitProperties.Limit();
+        unlimited.setRequestsPerSecond(1e9);
+        unlimited.setBurst(Integer.MAX_VALUE);
+        admitted = new RateLimitBucket(unlimited, System.nanoTime());
+
+        RateLimitProperties.Limit exhausted = new RateLimitProperties.Limit();
+        exhausted.setRequestsPerSecond(1e-3);
+        exhausted.setBurst(1);
+        rejected = new RateLimitBucket(exhausted, System.nanoTime());
+        rejected.tryAcquire(System.nanoTime());
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setDefaultLimit(unlimited);
+        Entitlements entitlements = new Entitlements(0L, "free", "active", Set.of(), Map.of(), null);
+        EntitlementStore store = new EntitlementStore(null, new EntitlementProperties()) {
+            @Override
+            public Entitlements get(Long tenantId) {
+                return entitlements;
+            }
+        };
+        limiter = new TenantRateLimiter(store, properties);
+    }
+
+    @Benchmark
+    public RateLimitDecision admitted() {
+        return admitted.tryAcquire(System.nanoTime());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public RateLimitDecision admittedContended() {
+        return admitted.tryAcquire(System.nanoTime());
+    }
+
+    @Benchmark
+    public RateLimitDecision rejected() {
+        return rejected.tryAcquire(System.nanoTime());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public RateLimitDecision tenantLookup() {
+        return limiter.tryAcquire((long) ThreadLocalRandom.current().nextInt(tenants));
+    }
+}
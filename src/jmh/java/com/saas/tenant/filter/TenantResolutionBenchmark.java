@@ -0,0 +1,50 @@
+package com.saas.tenant.filter;
+
+import com.saas.tenant.config.TenantContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-request tenant plumbing that does not touch the database: extracting the tenant
+ * from the header or the subdomain, and setting, reading and clearing {@link TenantContext}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TenantResolutionBenchmark {
+
+    public String header = "Acme-Corp";
+    public String host = "acme-corp.app.example.com";
+
+    @Benchmark
+    public String extractFromHeader() {
+        return TenantFilter.extractTenantId(header, host);
+    }
+
+    @Benchmark
+    public String extractFromSubdomain() {
+        return TenantFilter.extractTenantId(null, host);
+    }
+
+    @Benchmark
+    public String tenantContextRoundTrip() {
+        TenantContext.setCurrentTenant("acme-corp", 42L);
+        try {
+            return TenantContext.getSchemaName();
+        } finally {
+            TenantContext.clear();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.saas.audit.controller;
+
+import com.saas.audit.dto.AuthAuditEvent;
+import com.saas.audit.dto.AuthAuditQuery;
+import com.saas.audit.dto.AuthEventType;
+import com.saas.audit.service.AuthAuditService;
+import com.saas.common.exception.NotFoundException;
+import com.saas.user.entity.User;
+import com.saas.user.repository.UserRepository;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/audit")
+@RequiredArgsConstructor
+@Tag(name = "Audit", description = "Authentication audit log")
+@SecurityRequirement(name = "bearerAuth")
+public class AuthAuditController {
+    
+    private static final int MAX_LIMIT = 1000;
+    
+    private final AuthAuditService authAuditService;
+    private final UserRepository userRepository;
+    
+    @Operation(summary = "Query authentication events",
+            description = "Logins, refreshes, logouts and OAuth sign-ins of the caller's tenant, newest first " +
+                    "(Admin only). Defaults to the last 24 hours. Failed attempts of unknown users carry no tenant " +
+                    "and are only visible to super admins. Events become visible after the next writer flush.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Matching events"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @GetMapping("/auth-events")
+    @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('SUPER_ADMIN')")
+    public ResponseEntity<List<AuthAuditEvent>> findAuthEvents(
+            @Parameter(description = "Start of the range (inclusive, ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @Parameter(description = "End of the range (exclusive, ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @Parameter(description = "Only events of this user") @RequestParam(required = false) Long userId,
+            @Parameter(description = "Only events of this type") @RequestParam(required = false) AuthEventType type,
+            @Parameter(description = "Tenant to query (Super admin only)") @RequestParam(required = false) Long tenantId,
+            @Parameter(description = "Maximum number of events") @RequestParam(defaultValue = "100") int limit,
+            Authentication authentication) {
+        User admin = userRepository.findByEmail(authentication.getName())
+                .orElseThrow(() -> new NotFoundException("User not found"));
+        
+        Instant end = to != null ? to : Instant.now();
+        AuthAuditQuery query = AuthAuditQuery.builder()
+                .tenantId(admin.isSuperAdmin() ? tenantId : admin.getTenantId())
+                .userId(userId)
+                .eventType(type)
+                .from(from != null ? from : end.minus(Duration.ofDays(1)))
+                .to(end)
+                .limit(Math.max(1, Math.min(limit, MAX_LIMIT)))
+                .build();
+        
+        return ResponseEntity.ok(authAuditService.find(query));
+    }
+}
@@ -0,0 +1,11 @@
+package com.saas.audit.dto;
+
+/**
+ * What happens to an audit event when the in-memory buffer is full.
+ */
+public enum AuditOverflowPolicy {
+    /** Discard the event and count it. */
+    DROP,
+    /** Append the event to a local spill file that the writer replays later. */
+    SPILL
+}
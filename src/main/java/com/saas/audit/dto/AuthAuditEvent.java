@@ -0,0 +1,40 @@
+package com.saas.audit.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AuthAuditEvent {
+    
+    // Assigned by the database; null until the event has been written
+    private Long id;
+    
+    private Instant occurredAt;
+    
+    private AuthEventType eventType;
+    
+    private boolean success;
+    
+    private Long userId;
+    
+    private Long tenantId;
+    
+    private String email;
+    
+    private String provider;
+    
+    private String ipAddress;
+    
+    private String userAgent;
+    
+    private String failureReason;
+}
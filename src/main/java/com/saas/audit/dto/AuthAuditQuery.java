@@ -0,0 +1,23 @@
+package com.saas.audit.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Builder
+public class AuthAuditQuery {
+    
+    private Long tenantId;
+    
+    private Long userId;
+    
+    private AuthEventType eventType;
+    
+    private Instant from;
+    
+    private Instant to;
+    
+    private int limit;
+}
@@ -0,0 +1,9 @@
+package com.saas.audit.dto;
+
+public enum AuthEventType {
+    SIGNUP,
+    LOGIN,
+    TOKEN_REFRESH,
+    LOGOUT,
+    OAUTH_LOGIN
+}
@@ -0,0 +1,102 @@
+package com.saas.audit.repository;
+
+import com.saas.audit.dto.AuthAuditEvent;
+import com.saas.audit.dto.AuthAuditQuery;
+import com.saas.audit.dto.AuthEventType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC access to the partitioned {@code auth_audit_log} table. Inserts go through
+ * {@code reWriteBatchedInserts}, so a batch becomes a handful of multi-row INSERTs.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AuthAuditRepository {
+
+    private static final String INSERT = """
+            INSERT INTO auth_audit_log (occurred_at, event_type, success, user_id, tenant_id, email, provider,
+                                        ip_address, user_agent, failure_reason)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String SELECT = """
+            SELECT id, occurred_at, event_type, success, user_id, tenant_id, email, provider,
+                   ip_address, user_agent, failure_reason
+              FROM auth_audit_log
+             WHERE occurred_at >= ? AND occurred_at < ?
+            """;
+
+    private static final RowMapper<AuthAuditEvent> EVENT_MAPPER = (rs, rowNum) -> AuthAuditEvent.builder()
+            .id(rs.getLong("id"))
+            .occurredAt(rs.getTimestamp("occurred_at").toInstant())
+            .eventType(AuthEventType.valueOf(rs.getString("event_type")))
+            .success(rs.getBoolean("success"))
+            .userId(rs.getObject("user_id", Long.class))
+            .tenantId(rs.getObject("tenant_id", Long.class))
+            .email(rs.getString("email"))
+            .provider(rs.getString("provider"))
+            .ipAddress(rs.getString("ip_address"))
+            .userAgent(rs.getString("user_agent"))
+            .failureReason(rs.getString("failure_reason"))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertBatch(List<AuthAuditEvent> events) {
+        List<Object[]> rows = new ArrayList<>(events.size());
+        for (AuthAuditEvent event : events) {
+            rows.add(new Object[]{
+                    Timestamp.from(event.getOccurredAt()),
+                    event.getEventType().name(),
+                    event.isSuccess(),
+                    event.getUserId(),
+                    event.getTenantId(),
+                    truncate(event.getEmail(), 255),
+                    event.getProvider(),
+                    truncate(event.getIpAddress(), 64),
+                    truncate(event.getUserAgent(), 512),
+                    truncate(event.getFailureReason(), 255)
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT, rows);
+    }
+
+    /**
+     * Newest events first. The time range lets the planner prune partitions and use the
+     * BRIN index on {@code occurred_at}.
+     */
+    public List<AuthAuditEvent> find(AuthAuditQuery query) {
+        StringBuilder sql = new StringBuilder(SELECT);
+        List<Object> args = new ArrayList<>();
+        args.add(Timestamp.from(query.getFrom()));
+        args.add(Timestamp.from(query.getTo()));
+
+        if (query.getTenantId() != null) {
+            sql.append(" AND tenant_id = ?");
+            args.add(query.getTenantId());
+        }
+        if (query.getUserId() != null) {
+            sql.append(" AND user_id = ?");
+            args.add(query.getUserId());
+        }
+        if (query.getEventType() != null) {
+            sql.append(" AND event_type = ?");
+            args.add(query.getEventType().name());
+        }
+        sql.append(" ORDER BY occurred_at DESC LIMIT ?");
+        args.add(query.getLimit());
+
+        return jdbcTemplate.query(sql.toString(), EVENT_MAPPER, args.toArray());
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+}
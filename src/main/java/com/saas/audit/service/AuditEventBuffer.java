@@ -0,0 +1,64 @@
+package com.saas.audit.service;
+
+import com.saas.audit.dto.AuthAuditEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded multi-producer queue between request threads and {@link AuditLogWriter}.
+ * Producers never block or take a lock: a slot is reserved with a CAS on the size
+ * counter before the event is linked into a lock-free queue.
+ */
+@Component
+public class AuditEventBuffer {
+
+    private final ConcurrentLinkedQueue<AuthAuditEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int capacity;
+
+    public AuditEventBuffer(@Value("${audit.buffer-capacity:10000}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns {@code false} without enqueueing when the buffer is full.
+     */
+    public boolean offer(AuthAuditEvent event) {
+        int current;
+        do {
+            current = size.get();
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!size.compareAndSet(current, current + 1));
+
+        queue.offer(event);
+        return true;
+    }
+
+    /**
+     * Moves up to {@code max} events into {@code sink}; only called by the writer thread.
+     */
+    public int drainTo(List<AuthAuditEvent> sink, int max) {
+        int drained = 0;
+        AuthAuditEvent event;
+        while (drained < max && (event = queue.poll()) != null) {
+            sink.add(event);
+            drained++;
+        }
+        size.addAndGet(-drained);
+        return drained;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,101 @@
+package com.saas.audit.service;
+
+import com.saas.audit.dto.AuditOverflowPolicy;
+import com.saas.audit.dto.AuthAuditEvent;
+import com.saas.audit.repository.AuthAuditRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drains {@link AuditEventBuffer} on a fixed delay and writes the events in JDBC batches.
+ * When the database is unavailable the batch is spilled to disk (or dropped under the
+ * {@code DROP} policy); spilled events are replayed once the buffer has room again.
+ */
+@Component
+@Slf4j
+public class AuditLogWriter {
+
+    private final AuditEventBuffer buffer;
+    private final AuditSpillFile spillFile;
+    private final AuthAuditRepository auditRepository;
+    private final AuditOverflowPolicy overflowPolicy;
+    private final int batchSize;
+    private final Counter written;
+    private final Counter droppedOnWriteFailure;
+
+    public AuditLogWriter(AuditEventBuffer buffer,
+                          AuditSpillFile spillFile,
+                          AuthAuditRepository auditRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${audit.overflow-policy:DROP}") AuditOverflowPolicy overflowPolicy,
+                          @Value("${audit.batch-size:500}") int batchSize) {
+        this.buffer = buffer;
+        this.spillFile = spillFile;
+        this.auditRepository = auditRepository;
+        this.overflowPolicy = overflowPolicy;
+        this.batchSize = batchSize;
+        this.written = Counter.builder("audit.events.written")
+                .description("Audit events persisted")
+                .register(meterRegistry);
+        this.droppedOnWriteFailure = Counter.builder("audit.events.dropped")
+                .description("Audit events discarded")
+                .tag("reason", "write_failure")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${audit.flush-interval-ms:200}")
+    public void flush() {
+        List<AuthAuditEvent> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            if (!write(batch)) {
+                return;
+            }
+            batch.clear();
+        }
+        replaySpilled();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        spillFile.close();
+    }
+
+    private boolean write(List<AuthAuditEvent> batch) {
+        try {
+            auditRepository.insertBatch(batch);
+            written.increment(batch.size());
+            return true;
+        } catch (DataAccessException e) {
+            log.warn("Could not write {} audit events: {}", batch.size(), e.getMessage());
+            int saved = overflowPolicy == AuditOverflowPolicy.SPILL ? spillFile.appendAll(batch) : 0;
+            droppedOnWriteFailure.increment(batch.size() - saved);
+            return false;
+        }
+    }
+
+    // Only while the buffer is at most half full, so live events keep priority
+    private void replaySpilled() {
+        if (!spillFile.hasPending() || buffer.size() > buffer.capacity() / 2) {
+            return;
+        }
+        try {
+            spillFile.replay(batchSize, events -> {
+                auditRepository.insertBatch(events);
+                written.increment(events.size());
+            });
+        } catch (IOException | DataAccessException e) {
+            log.warn("Replaying spilled audit events failed, will retry: {}", e.getMessage());
+        }
+    }
+}
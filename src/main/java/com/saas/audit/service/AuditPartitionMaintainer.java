@@ -0,0 +1,101 @@
+package com.saas.audit.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps monthly partitions of {@code auth_audit_log} ahead of time and drops those past
+ * {@code audit.retention-months}. Rows that landed in the default partition before their
+ * month existed are moved into the new partition when it is created.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AuditPartitionMaintainer {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("auth_audit_log_y(\\d{4})m(\\d{2})");
+
+    // Runs as one statement, so detaching and re-attaching the default partition is atomic
+    private static final String CREATE_PARTITION = """
+            DO $$
+            BEGIN
+                IF to_regclass('%1$s') IS NULL THEN
+                    IF EXISTS (SELECT 1 FROM auth_audit_log_default WHERE occurred_at >= '%2$s' AND occurred_at < '%3$s') THEN
+                        ALTER TABLE auth_audit_log DETACH PARTITION auth_audit_log_default;
+                        CREATE TABLE %1$s PARTITION OF auth_audit_log FOR VALUES FROM ('%2$s') TO ('%3$s');
+                        INSERT INTO auth_audit_log
+                        SELECT * FROM auth_audit_log_default WHERE occurred_at >= '%2$s' AND occurred_at < '%3$s';
+                        DELETE FROM auth_audit_log_default WHERE occurred_at >= '%2$s' AND occurred_at < '%3$s';
+                        ALTER TABLE auth_audit_log ATTACH PARTITION auth_audit_log_default DEFAULT;
+                    ELSE
+                        CREATE TABLE %1$s PARTITION OF auth_audit_log FOR VALUES FROM ('%2$s') TO ('%3$s');
+                    END IF;
+                END IF;
+            END $$
+            """;
+
+    private static final String LIST_PARTITIONS = """
+            SELECT c.relname FROM pg_inherits i
+              JOIN pg_class c ON c.oid = i.inhrelid
+             WHERE i.inhparent = to_regclass('auth_audit_log')
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${audit.partitions-ahead:2}")
+    private int partitionsAhead;
+
+    @Value("${audit.retention-months:13}")
+    private int retentionMonths;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${audit.partition-cron:0 15 3 * * *}")
+    public void maintainPartitions() {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        try {
+            for (int i = 0; i <= partitionsAhead; i++) {
+                createPartition(current.plusMonths(i));
+            }
+            dropExpiredPartitions(current.minusMonths(retentionMonths));
+        } catch (DataAccessException e) {
+            log.error("Audit log partition maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        String name = "auth_audit_log_y%04dm%02d".formatted(month.getYear(), month.getMonthValue());
+        jdbcTemplate.execute(CREATE_PARTITION.formatted(name, lowerBound(month), lowerBound(month.plusMonths(1))));
+    }
+
+    private void dropExpiredPartitions(YearMonth oldestKept) {
+        for (String partition : jdbcTemplate.queryForList(LIST_PARTITIONS, String.class)) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (month.isBefore(oldestKept)) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+                log.info("Dropped expired audit log partition {}", partition);
+            }
+        }
+    }
+
+    private static String lowerBound(YearMonth month) {
+        LocalDate first = month.atDay(1);
+        return first + " 00:00:00+00";
+    }
+}
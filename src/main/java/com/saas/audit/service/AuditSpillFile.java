@@ -0,0 +1,210 @@
+package com.saas.audit.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saas.audit.dto.AuthAuditEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Local NDJSON overflow file for audit events. Request threads only ever {@code tryLock}
+ * it, so a spill never waits behind another spill or a replay; if the lock is taken the
+ * caller counts the event as dropped instead.
+ */
+@Component
+@Slf4j
+public class AuditSpillFile {
+
+    private static final String ACTIVE_FILE = "auth-audit-spill.ndjson";
+    private static final String REPLAY_SUFFIX = ".replay";
+    private static final String POSITION_SUFFIX = ".position";
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final ReentrantLock lock = new ReentrantLock();
+    private BufferedWriter writer;
+    private volatile long pending;
+    // Replay files may be left over from a previous run until the first replay
+    private volatile boolean replayFilesLeft = true;
+
+    public AuditSpillFile(ObjectMapper objectMapper,
+                          @Value("${audit.spill-directory:${java.io.tmpdir}/saas-audit}") String directory) {
+        this.objectMapper = objectMapper;
+        this.directory = Path.of(directory);
+    }
+
+    /**
+     * Appends from a request thread. Returns {@code false} if the file is busy or unwritable.
+     */
+    public boolean tryAppend(AuthAuditEvent event) {
+        if (!lock.tryLock()) {
+            return false;
+        }
+        try {
+            write(event);
+            // Flushed per event so a crash loses at most the line being written
+            writer.flush();
+            return true;
+        } catch (IOException e) {
+            log.warn("Could not spill audit event: {}", e.getMessage());
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends from the writer thread, which may wait for the lock. Returns the number written.
+     */
+    public int appendAll(List<AuthAuditEvent> events) {
+        lock.lock();
+        try {
+            int written = 0;
+            for (AuthAuditEvent event : events) {
+                write(event);
+                written++;
+            }
+            writer.flush();
+            return written;
+        } catch (IOException e) {
+            log.warn("Could not spill audit events: {}", e.getMessage());
+            return 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean hasPending() {
+        return pending > 0 || replayFilesLeft;
+    }
+
+    /**
+     * Rotates the active file away and feeds every spilled event, in batches of
+     * {@code batchSize}, to {@code sink}. The number of lines accepted so far is recorded
+     * next to each replay file, so a failed replay resumes after the last accepted batch
+     * instead of re-sending the whole file. A replay file is deleted only after all its
+     * batches were accepted, so events are delivered at least once.
+     */
+    public void replay(int batchSize, Consumer<List<AuthAuditEvent>> sink) throws IOException {
+        rotate();
+        if (!Files.isDirectory(directory)) {
+            replayFilesLeft = false;
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + REPLAY_SUFFIX)) {
+            for (Path file : files) {
+                replayFile(file, batchSize, sink);
+                Files.delete(file);
+                Files.deleteIfExists(positionFile(file));
+            }
+        }
+        replayFilesLeft = false;
+    }
+
+    public void close() {
+        lock.lock();
+        try {
+            if (writer != null) {
+                writer.close();
+                writer = null;
+            }
+        } catch (IOException e) {
+            log.warn("Could not close audit spill file: {}", e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void write(AuthAuditEvent event) throws IOException {
+        if (writer == null) {
+            Files.createDirectories(directory);
+            writer = Files.newBufferedWriter(directory.resolve(ACTIVE_FILE), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        writer.write(objectMapper.writeValueAsString(event));
+        writer.newLine();
+        pending++;
+    }
+
+    private void rotate() throws IOException {
+        lock.lock();
+        try {
+            if (writer != null) {
+                writer.close();
+                writer = null;
+            }
+            Path active = directory.resolve(ACTIVE_FILE);
+            if (Files.exists(active)) {
+                Files.move(active, directory.resolve(ACTIVE_FILE + "." + System.currentTimeMillis() + REPLAY_SUFFIX));
+            }
+            pending = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void replayFile(Path file, int batchSize, Consumer<List<AuthAuditEvent>> sink) throws IOException {
+        Path positionFile = positionFile(file);
+        long accepted = readPosition(positionFile);
+        long lineNumber = 0;
+        List<AuthAuditEvent> batch = new ArrayList<>(batchSize);
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber <= accepted || line.isBlank()) {
+                    continue;
+                }
+                try {
+                    batch.add(objectMapper.readValue(line, AuthAuditEvent.class));
+                } catch (JsonProcessingException e) {
+                    log.warn("Skipping unreadable spilled audit event in {}: {}", file, e.getOriginalMessage());
+                    continue;
+                }
+                if (batch.size() >= batchSize) {
+                    sink.accept(batch);
+                    writePosition(positionFile, lineNumber);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            sink.accept(batch);
+        }
+        log.info("Replayed spilled audit events from {}", file.getFileName());
+    }
+
+    private static Path positionFile(Path replayFile) {
+        return replayFile.resolveSibling(replayFile.getFileName() + POSITION_SUFFIX);
+    }
+
+    private static long readPosition(Path positionFile) {
+        if (!Files.exists(positionFile)) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(Files.readString(positionFile, StandardCharsets.UTF_8).trim());
+        } catch (IOException | NumberFormatException e) {
+            log.warn("Ignoring unreadable replay position {}: {}", positionFile.getFileName(), e.getMessage());
+            return 0;
+        }
+    }
+
+    private static void writePosition(Path positionFile, long lines) throws IOException {
+        Files.writeString(positionFile, Long.toString(lines), StandardCharsets.UTF_8);
+    }
+}
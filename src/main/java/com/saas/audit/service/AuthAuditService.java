@@ -0,0 +1,128 @@
+package com.saas.audit.service;
+
+import com.saas.audit.dto.AuditOverflowPolicy;
+import com.saas.audit.dto.AuthAuditEvent;
+import com.saas.audit.dto.AuthAuditQuery;
+import com.saas.audit.dto.AuthEventType;
+import com.saas.audit.repository.AuthAuditRepository;
+import com.saas.user.entity.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records authentication events without a database round trip on the calling thread.
+ * Events go into {@link AuditEventBuffer} and are written in batches by
+ * {@link AuditLogWriter}. On overflow the event is either counted and dropped or spilled
+ * to disk, depending on {@code audit.overflow-policy}; the caller is never blocked.
+ */
+@Service
+@Slf4j
+public class AuthAuditService {
+
+    private static final long OVERFLOW_WARN_INTERVAL_MS = 10_000;
+
+    private final AuditEventBuffer buffer;
+    private final AuditSpillFile spillFile;
+    private final AuthAuditRepository auditRepository;
+    private final AuditOverflowPolicy overflowPolicy;
+    private final Counter droppedOnOverflow;
+    private final Counter spilled;
+    private final AtomicLong lastOverflowWarning = new AtomicLong();
+
+    public AuthAuditService(AuditEventBuffer buffer,
+                            AuditSpillFile spillFile,
+                            AuthAuditRepository auditRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${audit.overflow-policy:DROP}") AuditOverflowPolicy overflowPolicy) {
+        this.buffer = buffer;
+        this.spillFile = spillFile;
+        this.auditRepository = auditRepository;
+        this.overflowPolicy = overflowPolicy;
+        this.droppedOnOverflow = Counter.builder("audit.events.dropped")
+                .description("Audit events discarded")
+                .tag("reason", "overflow")
+                .register(meterRegistry);
+        this.spilled = Counter.builder("audit.events.spilled")
+                .description("Audit events written to the local spill file")
+                .register(meterRegistry);
+        Gauge.builder("audit.buffer.size", buffer, AuditEventBuffer::size)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+    }
+
+    public void success(AuthEventType type, User user) {
+        success(type, user, null);
+    }
+
+    public void success(AuthEventType type, User user, String provider) {
+        record(type, true, user.getId(), user.getTenantId(), user.getEmail(), provider, null);
+    }
+
+    public void success(AuthEventType type, Long userId, Long tenantId) {
+        record(type, true, userId, tenantId, null, null, null);
+    }
+
+    public void failure(AuthEventType type, String email, String reason) {
+        failure(type, email, null, reason);
+    }
+
+    public void failure(AuthEventType type, String email, String provider, String reason) {
+        record(type, false, null, null, email, provider, reason);
+    }
+
+    public List<AuthAuditEvent> find(AuthAuditQuery query) {
+        return auditRepository.find(query);
+    }
+
+    private void record(AuthEventType type, boolean success, Long userId, Long tenantId,
+                        String email, String provider, String failureReason) {
+        AuthAuditEvent.AuthAuditEventBuilder event = AuthAuditEvent.builder()
+                .occurredAt(Instant.now())
+                .eventType(type)
+                .success(success)
+                .userId(userId)
+                .tenantId(tenantId)
+                .email(email)
+                .provider(provider)
+                .failureReason(failureReason);
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletRequest request = servletAttributes.getRequest();
+            event.ipAddress(request.getRemoteAddr()).userAgent(request.getHeader("User-Agent"));
+        }
+
+        AuthAuditEvent built = event.build();
+        if (buffer.offer(built)) {
+            return;
+        }
+        if (overflowPolicy == AuditOverflowPolicy.SPILL && spillFile.tryAppend(built)) {
+            spilled.increment();
+            return;
+        }
+        droppedOnOverflow.increment();
+        warnOverflow();
+    }
+
+    // At most one warning per interval, however many events overflow
+    private void warnOverflow() {
+        long now = System.currentTimeMillis();
+        long last = lastOverflowWarning.get();
+        if (now - last >= OVERFLOW_WARN_INTERVAL_MS && lastOverflowWarning.compareAndSet(last, now)) {
+            log.warn("Audit buffer full ({} events), dropping audit events; {} dropped so far",
+                    buffer.capacity(), (long) droppedOnOverflow.count());
+        }
+    }
+}
@@ -67,11 +67,10 @@ public class AuthController {
             @ApiResponse(responseCode = "200", description = "Successfully logged out")
     })
     @PostMapping("/logout")
-    public ResponseEntity<Void> logout(@RequestHeader("Authorization") String authHeader) {
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            // Extract refresh token from request body if available
-            // For now, we'll need to handle this differently
+    public ResponseEntity<Void> logout(@RequestBody(required = false) RefreshTokenRequest request) {
+        // The refresh token, when sent, is revoked so it cannot mint new access tokens
+        if (request != null && request.getRefreshToken() != null) {
+            authService.logout(request.getRefreshToken());
         }
         return ResponseEntity.ok().build();
     }
@@ -15,6 +15,7 @@ public class AuthResponse {
     
     private String refreshToken;
     
+    @Builder.Default
     private String type = "Bearer";
     
     private Long userId;
@@ -1,13 +1,21 @@
 package com.saas.auth.service;
 
+import com.saas.audit.dto.AuthEventType;
+import com.saas.audit.service.AuthAuditService;
 import com.saas.auth.dto.AuthResponse;
 import com.saas.auth.dto.LoginRequest;
 import com.saas.auth.dto.RefreshTokenRequest;
 import com.saas.auth.dto.SignupRequest;
+import com.saas.common.exception.AuthenticationFailedException;
+import com.saas.common.exception.ConflictException;
+import com.saas.common.exception.DomainException;
+import com.saas.common.exception.ForbiddenException;
+import com.saas.outbox.service.OutboxPublisher;
 import com.saas.security.jwt.JwtUtil;
 import com.saas.tenant.config.TenantContext;
 import com.saas.tenant.entity.Tenant;
 import com.saas.tenant.service.TenantService;
+import com.saas.user.dto.UserResponse;
 import com.saas.user.entity.RefreshToken;
 import com.saas.user.entity.User;
 import com.saas.user.repository.RefreshTokenRepository;
@@ -31,11 +39,13 @@ public class AuthService {
     private final TenantService tenantService;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final AuthAuditService authAuditService;
+    private final OutboxPublisher outboxPublisher;
     
     @Transactional
     public AuthResponse signup(SignupRequest request) {
         if (userRepository.existsByEmail(request.getEmail())) {
-            throw new RuntimeException("Email already exists");
+            throw new ConflictException("Email already exists");
         }
         
         // Create or get tenant
@@ -55,6 +65,9 @@ public class AuthService {
         user.addRole("USER");
         
         user = userRepository.save(user);
+        outboxPublisher.publish(OutboxPublisher.USER, user.getId(), "user.created", user.getTenantId(),
+                UserResponse.from(user));
+        authAuditService.success(AuthEventType.SIGNUP, user);
         
         return generateAuthResponse(user);
     }
@@ -62,18 +75,19 @@ public class AuthService {
     @Transactional(readOnly = true)
     public AuthResponse login(LoginRequest request) {
         User user = userRepository.findByEmailAndDeletedFalse(request.getEmail())
-                .orElseThrow(() -> new RuntimeException("Invalid email or password"));
+                .orElseThrow(() -> authFailure(AuthEventType.LOGIN, request.getEmail(), new AuthenticationFailedException("Invalid email or password")));
         
         if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-            throw new RuntimeException("Invalid email or password");
+            throw authFailure(AuthEventType.LOGIN, request.getEmail(), new AuthenticationFailedException("Invalid email or password"));
         }
         
         if (!user.getActive()) {
-            throw new RuntimeException("User account is not active");
+            throw authFailure(AuthEventType.LOGIN, request.getEmail(), new ForbiddenException("User account is not active"));
         }
         
         // Set tenant context
         tenantService.setTenantContext(user.getTenantId().toString());
+        authAuditService.success(AuthEventType.LOGIN, user);
         
         return generateAuthResponse(user);
     }
@@ -81,25 +95,26 @@ public class AuthService {
     @Transactional
     public AuthResponse refreshToken(RefreshTokenRequest request) {
         RefreshToken refreshToken = refreshTokenRepository.findByToken(request.getRefreshToken())
-                .orElseThrow(() -> new RuntimeException("Invalid refresh token"));
+                .orElseThrow(() -> authFailure(AuthEventType.TOKEN_REFRESH, null, new AuthenticationFailedException("Invalid refresh token")));
         
         if (refreshToken.getRevoked()) {
-            throw new RuntimeException("Refresh token has been revoked");
+            throw authFailure(AuthEventType.TOKEN_REFRESH, null, new AuthenticationFailedException("Refresh token has been revoked"));
         }
         
         if (refreshToken.getExpiresAt().isBefore(LocalDateTime.now())) {
-            throw new RuntimeException("Refresh token has expired");
+            throw authFailure(AuthEventType.TOKEN_REFRESH, null, new AuthenticationFailedException("Refresh token has expired"));
         }
         
         User user = userRepository.findById(refreshToken.getUserId())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+                .orElseThrow(() -> authFailure(AuthEventType.TOKEN_REFRESH, null, new AuthenticationFailedException("User not found")));
         
         if (!user.getActive()) {
-            throw new RuntimeException("User account is not active");
+            throw authFailure(AuthEventType.TOKEN_REFRESH, user.getEmail(), new ForbiddenException("User account is not active"));
         }
         
         // Set tenant context
         tenantService.setTenantContext(user.getTenantId().toString());
+        authAuditService.success(AuthEventType.TOKEN_REFRESH, user);
         
         // Generate new tokens
         return generateAuthResponse(user);
@@ -112,9 +127,16 @@ public class AuthService {
                     token.setRevoked(true);
                     token.setRevokedAt(LocalDateTime.now());
                     refreshTokenRepository.save(token);
+                    authAuditService.success(AuthEventType.LOGOUT, token.getUserId(), token.getTenantId());
                 });
     }
     
+    // Records the failed attempt and returns the exception for the caller to throw
+    private DomainException authFailure(AuthEventType type, String email, DomainException failure) {
+        authAuditService.failure(type, email, failure.getMessage());
+        return failure;
+    }
+    
     private AuthResponse generateAuthResponse(User user) {
         String accessToken = jwtUtil.generateAccessToken(
                 user.getEmail(), 
@@ -0,0 +1,13 @@
+package com.saas.common.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Credentials or tokens were missing, wrong or expired.
+ */
+public class AuthenticationFailedException extends DomainException {
+
+    public AuthenticationFailedException(String message) {
+        super(HttpStatus.UNAUTHORIZED, message);
+    }
+}
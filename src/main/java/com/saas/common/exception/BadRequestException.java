@@ -0,0 +1,13 @@
+package com.saas.common.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * The request itself is invalid, independent of the resource's state.
+ */
+public class BadRequestException extends DomainException {
+
+    public BadRequestException(String message) {
+        super(HttpStatus.BAD_REQUEST, message);
+    }
+}
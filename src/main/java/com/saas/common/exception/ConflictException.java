@@ -0,0 +1,13 @@
+package com.saas.common.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * The request conflicts with the current state of the resource.
+ */
+public class ConflictException extends DomainException {
+
+    public ConflictException(String message) {
+        super(HttpStatus.CONFLICT, message);
+    }
+}
@@ -0,0 +1,23 @@
+package com.saas.common.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * An expected failure of a business operation, e.g. an unknown user or a wrong password.
+ * These are thrown on every bad request and say everything in their message, so no stack
+ * trace is captured and {@link GlobalExceptionHandler} maps them to a problem response
+ * without logging them.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    protected DomainException(HttpStatus status, String message) {
+        super(message, null, false, false);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,13 @@
+package com.saas.common.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * The caller is known but may not perform the operation.
+ */
+public class ForbiddenException extends DomainException {
+
+    public ForbiddenException(String message) {
+        super(HttpStatus.FORBIDDEN, message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.saas.common.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * The requested resource does not exist, or is not visible to the caller.
+ */
+public class NotFoundException extends DomainException {
+
+    public NotFoundException(String message) {
+        super(HttpStatus.NOT_FOUND, message);
+    }
+}
@@ -0,0 +1,45 @@
+package com.saas.common.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link AsyncAppender} that counts the events it drops: those below WARN discarded once
+ * the queue passes the discarding threshold, and any event offered to a full queue when
+ * {@code neverBlock} is set. The totals are static because logback starts before Spring;
+ * {@link LoggingMetrics} publishes them.
+ */
+public class CountingAsyncAppender extends AsyncAppender {
+
+    private static final LongAdder DISCARDED = new LongAdder();
+    private static final LongAdder QUEUE_FULL = new LongAdder();
+
+    @Override
+    protected boolean isDiscardable(ILoggingEvent event) {
+        // Only consulted once the queue is past the discarding threshold
+        boolean discardable = super.isDiscardable(event);
+        if (discardable) {
+            DISCARDED.increment();
+        }
+        return discardable;
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        // Racy by nature; the count is an estimate of what the non-blocking offer rejects
+        if (isNeverBlock() && getRemainingCapacity() == 0) {
+            QUEUE_FULL.increment();
+        }
+        super.append(event);
+    }
+
+    static long discarded() {
+        return DISCARDED.sum();
+    }
+
+    static long queueFull() {
+        return QUEUE_FULL.sum();
+    }
+}
@@ -0,0 +1,29 @@
+package com.saas.common.logging;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Publishes {@code logging.events.dropped}, tagged by why the events never reached an
+ * appender. Events per level are already counted by the {@code logback.events} meter.
+ */
+@Component
+public class LoggingMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        dropped(registry, "discarded", CountingAsyncAppender::discarded);
+        dropped(registry, "queue_full", CountingAsyncAppender::queueFull);
+        dropped(registry, "rate_limited", RateLimitedLog::totalSuppressed);
+    }
+
+    private static void dropped(MeterRegistry registry, String reason, LongSupplier count) {
+        FunctionCounter.builder("logging.events.dropped", count, LongSupplier::getAsLong)
+                .tag("reason", reason)
+                .register(registry);
+    }
+}
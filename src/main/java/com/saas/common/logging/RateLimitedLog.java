@@ -0,0 +1,47 @@
+package com.saas.common.logging;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lets one log statement through per interval for a repetitive message and counts the
+ * rest. Callers hold one instance per call site:
+ * <pre>{@code
+ * long suppressed = UNKNOWN_TENANT.tryAcquire();
+ * if (suppressed >= 0) {
+ *     log.warn("Tenant not found: {} ({} similar suppressed)", tenantId, suppressed);
+ * }
+ * }</pre>
+ */
+public final class RateLimitedLog {
+
+    private static final LongAdder TOTAL_SUPPRESSED = new LongAdder();
+
+    private final long intervalNanos;
+    private final AtomicLong nextAllowed = new AtomicLong(System.nanoTime());
+    private final AtomicLong suppressed = new AtomicLong();
+
+    public RateLimitedLog(Duration interval) {
+        this.intervalNanos = interval.toNanos();
+    }
+
+    /**
+     * Returns the number of statements suppressed since the last one that went through,
+     * or -1 if this one should be suppressed as well.
+     */
+    public long tryAcquire() {
+        long now = System.nanoTime();
+        long allowedAt = nextAllowed.get();
+        if (now - allowedAt >= 0 && nextAllowed.compareAndSet(allowedAt, now + intervalNanos)) {
+            return suppressed.getAndSet(0);
+        }
+        suppressed.incrementAndGet();
+        TOTAL_SUPPRESSED.increment();
+        return -1;
+    }
+
+    static long totalSuppressed() {
+        return TOTAL_SUPPRESSED.sum();
+    }
+}
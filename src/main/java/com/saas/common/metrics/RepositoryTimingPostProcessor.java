@@ -0,0 +1,31 @@
+package com.saas.common.metrics;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds every Spring Data repository call to the {@link RequestTimings.Stage#DB} stage.
+ */
+@Component
+public class RepositoryTimingPostProcessor implements BeanPostProcessor {
+
+    private static final MethodInterceptor TIMING = invocation -> {
+        long start = RequestTimings.start();
+        try {
+            return invocation.proceed();
+        } finally {
+            RequestTimings.stop(RequestTimings.Stage.DB, start);
+        }
+    };
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(TIMING)));
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,127 @@
+package com.saas.common.metrics;
+
+import java.util.Set;
+
+/**
+ * Per-request time spent in each {@link Stage}, collected on the request thread and
+ * reported by {@link ServerTimingFilter}. Stages may overlap: loading a user includes the
+ * database time it causes. When no request is being recorded every method is a single
+ * thread-local read, so instrumented code can call them unconditionally.
+ */
+public final class RequestTimings {
+
+    public enum Stage {
+        TENANT("tenant"),
+        JWT("jwt"),
+        USER("user"),
+        DB("db"),
+        PASSWORD("password"),
+        STRIPE("stripe");
+
+        private final String metricName;
+
+        Stage(String metricName) {
+            this.metricName = metricName;
+        }
+    }
+
+    private static final Stage[] STAGES = Stage.values();
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final long[] nanos = new long[STAGES.length];
+    private final int[] counts = new int[STAGES.length];
+    private boolean authenticated;
+
+    private RequestTimings() {
+    }
+
+    /**
+     * Returns a start timestamp for {@link #stop}, or 0 when nothing is being recorded.
+     */
+    public static long start() {
+        return CURRENT.get() != null ? System.nanoTime() : 0L;
+    }
+
+    public static void stop(Stage stage, long startNanos) {
+        if (startNanos != 0L) {
+            record(stage, System.nanoTime() - startNanos);
+        }
+    }
+
+    public static void record(Stage stage, long durationNanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.nanos[stage.ordinal()] += durationNanos;
+            timings.counts[stage.ordinal()]++;
+        }
+    }
+
+    /**
+     * Marks the current request as made by an authenticated caller, the only kind that is
+     * shown its timings.
+     */
+    public static void markAuthenticated() {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.authenticated = true;
+        }
+    }
+
+    static RequestTimings begin() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    boolean isAuthenticated() {
+        return authenticated;
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Formats the stages seen so far except {@code omitted}, e.g.
+     * {@code tenant;dur=0.4, db;dur=5.1, total;dur=12.3}.
+     */
+    String toServerTiming(Set<Stage> omitted) {
+        StringBuilder header = new StringBuilder(128);
+        for (Stage stage : STAGES) {
+            if (counts[stage.ordinal()] > 0 && !omitted.contains(stage)) {
+                header.append(stage.metricName).append(";dur=");
+                appendMillis(header, nanos[stage.ordinal()]).append(", ");
+            }
+        }
+        header.append("total;dur=");
+        return appendMillis(header, elapsedNanos()).toString();
+    }
+
+    /**
+     * Formats the stages as log fields, e.g. {@code total_ms=12.3 db_ms=5.1 db_count=3}.
+     */
+    String toLogFields() {
+        StringBuilder fields = new StringBuilder(160).append("total_ms=");
+        appendMillis(fields, elapsedNanos());
+        for (Stage stage : STAGES) {
+            int count = counts[stage.ordinal()];
+            if (count > 0) {
+                fields.append(' ').append(stage.metricName).append("_ms=");
+                appendMillis(fields, nanos[stage.ordinal()])
+                        .append(' ').append(stage.metricName).append("_count=").append(count);
+            }
+        }
+        return fields.toString();
+    }
+
+    // Milliseconds with one decimal, without going through String.format
+    private static StringBuilder appendMillis(StringBuilder target, long durationNanos) {
+        long tenths = (durationNanos + 50_000) / 100_000;
+        return target.append(tenths / 10).append('.').append(tenths % 10);
+    }
+}
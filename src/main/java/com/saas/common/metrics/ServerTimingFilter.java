@@ -0,0 +1,138 @@
+package com.saas.common.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Records {@link RequestTimings} for each request and reports them in a
+ * {@code Server-Timing} header. The header is added just before the response commits, so
+ * it covers everything up to the first byte of the body. A {@code server-timing.log-sample-rate}
+ * fraction of requests, and every request slower than {@code server-timing.slow-threshold},
+ * is also logged with the same breakdown.
+ * <p>
+ * Timings tell an outsider which internal steps ran, e.g. whether a login got as far as
+ * hashing the password, so the header only goes to callers with a valid access token, and
+ * never includes the password stage on authentication endpoints. Logging is unaffected.
+ * <p>
+ * The filter is only registered with {@code server-timing.enabled=true}; otherwise the
+ * instrumented stages only read an empty thread-local.
+ */
+@Component
+@ConditionalOnProperty(name = "server-timing.enabled", havingValue = "true")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private static final String HEADER = "Server-Timing";
+
+    private static final Set<RequestTimings.Stage> NOTHING_OMITTED = EnumSet.noneOf(RequestTimings.Stage.class);
+    private static final Set<RequestTimings.Stage> AUTH_OMITTED = EnumSet.of(RequestTimings.Stage.PASSWORD);
+    private static final List<String> AUTH_PATHS = List.of("/api/v1/auth/", "/api/v1/oauth/", "/oauth2/");
+
+    private final double logSampleRate;
+    private final long slowThresholdNanos;
+
+    public ServerTimingFilter(@Value("${server-timing.log-sample-rate:0.01}") double logSampleRate,
+                              @Value("${server-timing.slow-threshold:PT1S}") Duration slowThreshold) {
+        this.logSampleRate = logSampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestTimings timings = RequestTimings.begin();
+        TimingResponse timingResponse = new TimingResponse(response, timings,
+                isAuthEndpoint(request) ? AUTH_OMITTED : NOTHING_OMITTED);
+        try {
+            filterChain.doFilter(request, timingResponse);
+        } finally {
+            RequestTimings.end();
+            timingResponse.addHeader();
+            if (timings.elapsedNanos() >= slowThresholdNanos || ThreadLocalRandom.current().nextDouble() < logSampleRate) {
+                log.info("Request timing method={} path={} status={} {}",
+                        request.getMethod(), request.getRequestURI(), response.getStatus(), timings.toLogFields());
+            }
+        }
+    }
+
+    private static boolean isAuthEndpoint(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return AUTH_PATHS.stream().anyMatch(path::startsWith);
+    }
+
+    private static class TimingResponse extends HttpServletResponseWrapper {
+
+        private final RequestTimings timings;
+        private final Set<RequestTimings.Stage> omitted;
+        private boolean headerAdded;
+
+        TimingResponse(HttpServletResponse response, RequestTimings timings, Set<RequestTimings.Stage> omitted) {
+            super(response);
+            this.timings = timings;
+            this.omitted = omitted;
+        }
+
+        void addHeader() {
+            if (!headerAdded && !isCommitted() && timings.isAuthenticated()) {
+                headerAdded = true;
+                setHeader(HEADER, timings.toServerTiming(omitted));
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addHeader();
+            super.sendRedirect(location);
+        }
+    }
+}
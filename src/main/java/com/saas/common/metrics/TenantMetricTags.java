@@ -0,0 +1,152 @@
+package com.saas.common.metrics;
+
+import com.saas.subscription.dto.Entitlements;
+import com.saas.subscription.service.EntitlementStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@code tenant} and {@code plan} tags for hot-path meters with bounded cardinality. Only
+ * the {@code metrics.tenant-tags.top-n} most active tenants of the previous interval get
+ * their own {@code tenant} tag; all others share {@value #OTHER}, and work outside any
+ * tenant is tagged {@value #NONE}. The plan is only taken from entitlements already in
+ * memory, so tagging never reaches the database.
+ * <p>
+ * Tenant-tagged timers are obtained through {@link #timer} and cached per tag set, so hot
+ * paths skip the builder and registry lookup. When a tenant drops out of the top N, or its
+ * plan changes, {@link #refresh} removes its timers from the registry, which keeps the
+ * number of series bounded over time and not just per interval.
+ */
+@Component
+public class TenantMetricTags {
+
+    public static final String OTHER = "other";
+    public static final String NONE = "none";
+
+    private static final Tags NO_TENANT = Tags.of("tenant", NONE, "plan", NONE);
+
+    private final ObjectProvider<EntitlementStore> entitlementStore;
+    private final MeterRegistry meterRegistry;
+    private final int topN;
+    private final Map<Long, LongAdder> activity = new ConcurrentHashMap<>();
+    private final Map<String, Tags> otherByPlan = new ConcurrentHashMap<>();
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+    private volatile Map<Long, Tags> top = Map.of();
+
+    // Lazy store: the schema-switching connection provider needs these tags before JPA is up
+    public TenantMetricTags(ObjectProvider<EntitlementStore> entitlementStore,
+                            MeterRegistry meterRegistry,
+                            @Value("${metrics.tenant-tags.top-n:20}") int topN) {
+        this.entitlementStore = entitlementStore;
+        this.meterRegistry = meterRegistry;
+        this.topN = topN;
+    }
+
+    /**
+     * Returns the timer {@code name} with the given tag key/value pairs and the tenant's tags,
+     * counting the call towards the tenant's activity.
+     */
+    public Timer timer(String name, Long tenantId, String... tags) {
+        return timer(name, false, tenantId, tags);
+    }
+
+    /**
+     * Like {@link #timer}, publishing a percentile histogram.
+     */
+    public Timer histogramTimer(String name, Long tenantId, String... tags) {
+        return timer(name, true, tenantId, tags);
+    }
+
+    /**
+     * Returns the tags for the tenant and counts the call towards its activity.
+     */
+    public Tags of(Long tenantId) {
+        if (tenantId == null) {
+            return NO_TENANT;
+        }
+        LongAdder counter = activity.get(tenantId);
+        if (counter == null) {
+            counter = activity.computeIfAbsent(tenantId, id -> new LongAdder());
+        }
+        counter.increment();
+
+        Tags tags = top.get(tenantId);
+        return tags != null ? tags : otherByPlan.computeIfAbsent(planOf(tenantId), plan -> Tags.of("tenant", OTHER, "plan", plan));
+    }
+
+    @Scheduled(fixedDelayString = "${metrics.tenant-tags.interval:PT1M}",
+            initialDelayString = "${metrics.tenant-tags.interval:PT1M}")
+    public void refresh() {
+        Map<Long, Long> counts = new HashMap<>();
+        activity.forEach((tenantId, counter) -> {
+            long count = counter.sumThenReset();
+            if (count > 0) {
+                counts.put(tenantId, count);
+            }
+        });
+        // Tenants idle for a whole interval are forgotten so the map stays bounded
+        activity.keySet().retainAll(counts.keySet());
+
+        Map<Long, Tags> ranked = new HashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(topN)
+                .forEach(entry -> ranked.put(entry.getKey(),
+                        Tags.of("tenant", entry.getKey().toString(), "plan", planOf(entry.getKey()))));
+        top = Map.copyOf(ranked);
+        removeRetiredTimers();
+    }
+
+    // Timers of tenants no longer in the top N, or of a previous plan, receive no more samples
+    private void removeRetiredTimers() {
+        Set<Tags> current = new HashSet<>(top.values());
+        current.addAll(otherByPlan.values());
+        current.add(NO_TENANT);
+        timers.entrySet().removeIf(entry -> {
+            if (current.contains(entry.getKey().tenantTags())) {
+                return false;
+            }
+            meterRegistry.remove(entry.getValue());
+            return true;
+        });
+    }
+
+    private Timer timer(String name, boolean histogram, Long tenantId, String... tags) {
+        Tags tenantTags = of(tenantId);
+        TimerKey key = new TimerKey(name, List.of(tags), tenantTags);
+        Timer timer = timers.get(key);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(key, k -> {
+                Timer.Builder builder = Timer.builder(name).tags(tags).tags(tenantTags);
+                if (histogram) {
+                    builder.publishPercentileHistogram();
+                }
+                return builder.register(meterRegistry);
+            });
+        }
+        return timer;
+    }
+
+    private String planOf(Long tenantId) {
+        EntitlementStore store = entitlementStore.getIfAvailable();
+        Entitlements entitlements = store != null ? store.peek(tenantId) : null;
+        return entitlements != null && entitlements.plan() != null ? entitlements.plan() : NONE;
+    }
+
+    private record TimerKey(String name, List<String> tags, Tags tenantTags) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.saas.common.web;
+
+/**
+ * Strong entity tags derived from an entity version or timestamp, e.g. {@code "7"}.
+ */
+public final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    public static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    public static String of(String opaque) {
+        return "\"" + opaque + "\"";
+    }
+
+    /**
+     * Evaluates {@code If-None-Match} using the weak comparison required by RFC 9110,
+     * i.e. a {@code W/} prefix on either side is ignored.
+     */
+    public static boolean matchesAny(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        String target = opaqueTag(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || opaqueTag(tag).equals(target)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses an {@code If-Match} header into the expected version. Returns {@code null}
+     * when the header is absent or {@code *}; throws if it is not one of our tags.
+     */
+    public static Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new IllegalArgumentException("If-Match must be a single strong entity tag");
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Unknown entity tag: " + tag);
+        }
+    }
+
+    private static String opaqueTag(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
@@ -0,0 +1,29 @@
+package com.saas.graphql;
+
+import graphql.ExecutionResult;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.language.OperationDefinition;
+import org.springframework.stereotype.Component;
+
+/**
+ * Works out the {@link CachePolicy} of every query and leaves it in the GraphQL context
+ * for {@link GraphQlResponseCache}.
+ */
+@Component
+public class CacheControlInstrumentation extends SimplePerformantInstrumentation {
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(InstrumentationExecuteOperationParameters parameters,
+                                                                         InstrumentationState state) {
+        ExecutionContext context = parameters.getExecutionContext();
+        CachePolicy policy = context.getOperationDefinition().getOperation() == OperationDefinition.Operation.QUERY
+                ? CachePolicy.of(context.getNormalizedQueryTree().get(), context.getGraphQLSchema())
+                : CachePolicy.UNCACHEABLE;
+        context.getGraphQLContext().put(CachePolicy.CONTEXT_KEY, policy);
+        return super.beginExecuteOperation(parameters, state);
+    }
+}
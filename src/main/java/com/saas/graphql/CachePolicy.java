@@ -0,0 +1,83 @@
+package com.saas.graphql;
+
+import graphql.normalized.ExecutableNormalizedField;
+import graphql.normalized.ExecutableNormalizedOperation;
+import graphql.schema.GraphQLAppliedDirective;
+import graphql.schema.GraphQLAppliedDirectiveArgument;
+import graphql.schema.GraphQLDirectiveContainer;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLTypeUtil;
+
+/**
+ * How long, and for whom, the result of an operation may be cached, derived from the
+ * {@code @cacheControl} hints in the schema. The operation gets the lowest max age and the
+ * narrowest scope of its fields. A field without a hint takes the hint on its return type;
+ * scalar fields otherwise inherit from their parent, while object fields and root fields
+ * make the result uncacheable.
+ */
+record CachePolicy(int maxAge, Scope scope) {
+
+    static final String CONTEXT_KEY = CachePolicy.class.getName();
+
+    static final CachePolicy UNCACHEABLE = new CachePolicy(0, Scope.PUBLIC);
+
+    private static final String DIRECTIVE = "cacheControl";
+
+    enum Scope {
+        PUBLIC, TENANT, USER
+    }
+
+    boolean isCacheable() {
+        return maxAge > 0;
+    }
+
+    static CachePolicy of(ExecutableNormalizedOperation operation, GraphQLSchema schema) {
+        Accumulator accumulator = new Accumulator();
+        for (ExecutableNormalizedField field : operation.getTopLevelFields()) {
+            visit(field, schema, accumulator);
+        }
+        return accumulator.maxAge == null || accumulator.maxAge <= 0
+                ? UNCACHEABLE
+                : new CachePolicy(accumulator.maxAge, accumulator.scope);
+    }
+
+    private static void visit(ExecutableNormalizedField field, GraphQLSchema schema, Accumulator accumulator) {
+        if (field.getName().startsWith("__")) {
+            return;
+        }
+        for (GraphQLFieldDefinition definition : field.getFieldDefinitions(schema)) {
+            GraphQLAppliedDirective hint = definition.getAppliedDirective(DIRECTIVE);
+            if (hint == null && GraphQLTypeUtil.unwrapAll(definition.getType()) instanceof GraphQLDirectiveContainer container) {
+                hint = container.getAppliedDirective(DIRECTIVE);
+            }
+            if (hint != null) {
+                accumulator.apply(hint);
+            } else if (field.getLevel() == 1 || !GraphQLTypeUtil.isLeaf(GraphQLTypeUtil.unwrapAll(definition.getType()))) {
+                accumulator.maxAge = 0;
+            }
+        }
+        for (ExecutableNormalizedField child : field.getChildren()) {
+            visit(child, schema, accumulator);
+        }
+    }
+
+    private static final class Accumulator {
+        private Integer maxAge;
+        private Scope scope = Scope.PUBLIC;
+
+        void apply(GraphQLAppliedDirective hint) {
+            GraphQLAppliedDirectiveArgument age = hint.getArgument("maxAge");
+            if (age != null && age.getValue() instanceof Number value) {
+                maxAge = maxAge == null ? value.intValue() : Math.min(maxAge, value.intValue());
+            }
+            GraphQLAppliedDirectiveArgument scopeArgument = hint.getArgument("scope");
+            if (scopeArgument != null && scopeArgument.getValue() != null) {
+                Scope hinted = Scope.valueOf(scopeArgument.getValue().toString());
+                if (hinted.compareTo(scope) > 0) {
+                    scope = hinted;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.saas.graphql;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.language.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Skips parsing and validation for query texts seen before. Entries are keyed by the
+ * SHA-256 of the text, the same hash automatic persisted queries use, and always computed
+ * here rather than taken from the client so a wrong hash cannot poison the cache. The
+ * parsed documents are also handed to {@link GraphQlConditionalRequestFilter}, so a query
+ * is not parsed again on every request just to find its root fields.
+ */
+@Component
+public class CachingPreparsedDocumentProvider implements PreparsedDocumentProvider {
+
+    private final AsyncCache<String, PreparsedDocumentEntry> documents;
+
+    public CachingPreparsedDocumentProvider(@Value("${graphql.document-cache.max-size:2000}") long maxSize) {
+        this.documents = Caffeine.newBuilder().maximumSize(maxSize).buildAsync();
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(ExecutionInput executionInput,
+                                                                      Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidate) {
+        String key = PersistedQueryStore.sha256(executionInput.getQuery());
+        // Parsed on the calling thread; concurrent requests for the same text wait for it
+        return documents.get(key, (hash, executor) ->
+                CompletableFuture.completedFuture(parseAndValidate.apply(executionInput)));
+    }
+
+    @Override
+    @Deprecated
+    public PreparsedDocumentEntry getDocument(ExecutionInput executionInput,
+                                              Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidate) {
+        return getDocumentAsync(executionInput, parseAndValidate).join();
+    }
+
+    /**
+     * The document of {@code query} if it was executed before and is valid.
+     */
+    public Optional<Document> cachedDocument(String query) {
+        CompletableFuture<PreparsedDocumentEntry> entry = documents.getIfPresent(PersistedQueryStore.sha256(query));
+        if (entry == null || !entry.isDone() || entry.isCompletedExceptionally()) {
+            return Optional.empty();
+        }
+        PreparsedDocumentEntry document = entry.join();
+        return document.hasErrors() ? Optional.empty() : Optional.ofNullable(document.getDocument());
+    }
+}
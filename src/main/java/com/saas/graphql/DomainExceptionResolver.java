@@ -0,0 +1,38 @@
+package com.saas.graphql;
+
+import com.saas.common.exception.DomainException;
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import graphql.schema.DataFetchingEnvironment;
+import org.springframework.graphql.execution.DataFetcherExceptionResolverAdapter;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports {@link DomainException}s as GraphQL errors classified like their HTTP status,
+ * with the message intact. Anything else falls through to the default handling, which
+ * hides the message behind INTERNAL_ERROR.
+ */
+@Component
+public class DomainExceptionResolver extends DataFetcherExceptionResolverAdapter {
+
+    @Override
+    protected GraphQLError resolveToSingleError(Throwable ex, DataFetchingEnvironment env) {
+        if (!(ex instanceof DomainException domain)) {
+            return null;
+        }
+        return GraphqlErrorBuilder.newError(env)
+                .errorType(errorType(domain))
+                .message(domain.getMessage())
+                .build();
+    }
+
+    private static ErrorType errorType(DomainException e) {
+        return switch (e.getStatus()) {
+            case NOT_FOUND -> ErrorType.NOT_FOUND;
+            case UNAUTHORIZED -> ErrorType.UNAUTHORIZED;
+            case FORBIDDEN -> ErrorType.FORBIDDEN;
+            default -> ErrorType.BAD_REQUEST;
+        };
+    }
+}
@@ -0,0 +1,180 @@
+package com.saas.graphql;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saas.common.web.CachedBodyHttpServletRequest;
+import com.saas.common.web.EntityTags;
+import com.saas.tenant.config.TenantContext;
+import com.saas.tenant.service.TenantVersionCache;
+import com.saas.user.dto.UserVersion;
+import com.saas.user.service.UserVersionCache;
+import graphql.GraphQLException;
+import graphql.language.Document;
+import graphql.language.Field;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.parser.Parser;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Conditional requests for GraphQL queries that only select scalar fields of {@code me}
+ * and/or {@code tenant}. The ETag combines a checksum of the request body with the cached
+ * versions of the user and tenant, so a matching {@code If-None-Match} is answered with
+ * 304 before any resolver runs. GraphQL queries are safe reads even though they arrive
+ * as POST, which is why 304 is used rather than 412.
+ */
+@Component
+@RequiredArgsConstructor
+public class GraphQlConditionalRequestFilter extends OncePerRequestFilter {
+
+    private static final Set<String> VERSIONED_ROOT_FIELDS = Set.of("me", "tenant");
+
+    private final ObjectMapper objectMapper;
+    private final UserVersionCache userVersionCache;
+    private final TenantVersionCache tenantVersionCache;
+    private final CachingPreparsedDocumentProvider documentProvider;
+
+    @Value("${spring.graphql.path:/graphql}")
+    private String graphQlPath;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod())
+                || !request.getRequestURI().equals(request.getContextPath() + graphQlPath);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        CachedBodyHttpServletRequest cachedRequest = new CachedBodyHttpServletRequest(request);
+        String etag = computeETag(cachedRequest.getBody());
+
+        if (etag != null) {
+            if (EntityTags.matchesAny(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                response.setHeader(HttpHeaders.ETAG, etag);
+                return;
+            }
+            response.setHeader(HttpHeaders.ETAG, etag);
+        }
+
+        filterChain.doFilter(cachedRequest, response);
+    }
+
+    private String computeETag(byte[] body) {
+        Set<String> rootFields = versionedRootFields(body);
+        if (rootFields == null) {
+            return null;
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        StringBuilder tag = new StringBuilder(Long.toHexString(crc.getValue()));
+
+        if (rootFields.contains("me")) {
+            Optional<UserVersion> user = currentUserVersion();
+            if (user.isEmpty()) {
+                return null;
+            }
+            tag.append("-u").append(user.get().version());
+        }
+        if (rootFields.contains("tenant")) {
+            Long tenantDbId = TenantContext.getCurrentTenantDbId();
+            Optional<Long> stamp = tenantDbId != null ? tenantVersionCache.stamp(tenantDbId) : Optional.empty();
+            if (stamp.isEmpty()) {
+                return null;
+            }
+            tag.append("-t").append(stamp.get());
+        }
+        return EntityTags.of(tag.toString());
+    }
+
+    private Optional<UserVersion> currentUserVersion() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return Optional.empty();
+        }
+        return userVersionCache.byEmail(authentication.getName());
+    }
+
+    // Root fields of the selected query operation, or null when the request is not eligible
+    private Set<String> versionedRootFields(byte[] body) {
+        try {
+            JsonNode json = objectMapper.readTree(body);
+            String query = json.path("query").asText(null);
+            if (query == null) {
+                return null;
+            }
+
+            // Only a query text that has not been executed yet is parsed here
+            Document document = documentProvider.cachedDocument(query).orElseGet(() -> Parser.parse(query));
+            OperationDefinition operation = selectOperation(document, json.path("operationName").asText(null));
+            if (operation == null || operation.getOperation() != OperationDefinition.Operation.QUERY) {
+                return null;
+            }
+
+            Set<String> fields = new HashSet<>();
+            for (Selection<?> selection : operation.getSelectionSet().getSelections()) {
+                if (!(selection instanceof Field field)) {
+                    return null;
+                }
+                if (field.getName().equals("__typename")) {
+                    continue;
+                }
+                if (!VERSIONED_ROOT_FIELDS.contains(field.getName()) || !selectsOnlyScalars(field)) {
+                    return null;
+                }
+                fields.add(field.getName());
+            }
+            return fields.isEmpty() ? null : fields;
+        } catch (IOException | GraphQLException e) {
+            // Malformed requests are left to the GraphQL handler to report
+            return null;
+        }
+    }
+
+    // Nested objects such as Tenant.users are not covered by the versions in the tag
+    private static boolean selectsOnlyScalars(Field field) {
+        if (field.getSelectionSet() == null) {
+            return true;
+        }
+        for (Selection<?> selection : field.getSelectionSet().getSelections()) {
+            if (!(selection instanceof Field child) || child.getSelectionSet() != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private OperationDefinition selectOperation(Document document, String operationName) {
+        List<OperationDefinition> operations = document.getDefinitionsOfType(OperationDefinition.class);
+        if (operationName == null) {
+            return operations.size() == 1 ? operations.get(0) : null;
+        }
+        return operations.stream()
+                .filter(operation -> operationName.equals(operation.getName()))
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -0,0 +1,32 @@
+package com.saas.graphql;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.graphql.GraphQlSourceBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.graphql.server.WebGraphQlHandler;
+import org.springframework.graphql.server.webmvc.GraphQlWebSocketHandler;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.time.Duration;
+
+@Configuration
+public class GraphQlConfig {
+
+    @Bean
+    public GraphQlSourceBuilderCustomizer preparsedDocumentCustomizer(CachingPreparsedDocumentProvider documentProvider) {
+        return builder -> builder.configureGraphQl(graphQl -> graphQl.preparsedDocumentProvider(documentProvider));
+    }
+
+    @Bean
+    public GraphQlWebSocketSessions graphQlWebSocketSessions(WebGraphQlHandler webGraphQlHandler,
+                                                             ObjectMapper objectMapper,
+                                                             MeterRegistry meterRegistry,
+                                                             @Value("${graphql.websocket.connection-init-timeout:10s}") Duration initTimeout) {
+        GraphQlWebSocketHandler handler = new GraphQlWebSocketHandler(
+                webGraphQlHandler, new MappingJackson2HttpMessageConverter(objectMapper), initTimeout);
+        return new GraphQlWebSocketSessions(handler, meterRegistry);
+    }
+}
@@ -0,0 +1,223 @@
+package com.saas.graphql;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.saas.tenant.config.TenantContext;
+import com.saas.tenant.dto.TenantChangedEvent;
+import graphql.ExecutionResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.graphql.server.WebSocketGraphQlRequest;
+import org.springframework.graphql.support.DefaultExecutionGraphQlResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Caches results of queries whose {@link CachePolicy} allows it, keyed by query hash,
+ * operation name, variables and scope: nothing for public data, the tenant for tenant data,
+ * and the user for user data. The tenant is the one the resolvers answer from,
+ * {@link TenantContext}; requests whose token names a different tenant are not cached.
+ * Entries live for the policy's max age within a memory budget of
+ * {@code graphql.response-cache.max-bytes}.
+ * <p>
+ * Cached results are served before any resolver or {@code @PreAuthorize} check runs, so
+ * every key also carries the caller's authorities: a result computed for an admin is never
+ * handed to a caller with different roles, whatever the scope.
+ * <p>
+ * Every key carries its tenant's generation, which a {@link TenantChangedEvent} moves
+ * forward, so a change to a tenant or any of its users makes all of the tenant's entries
+ * unreachable at once; they then age out. The generation is read before execution, so a
+ * result computed while a change commits is stored under the old generation.
+ * Generations are drawn from one clock and kept for at most
+ * {@code graphql.response-cache.max-tenants} tenants. Tenants without one use the highest
+ * generation evicted so far, so a tenant's generation never goes back to an earlier value.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class GraphQlResponseCache implements WebGraphQlInterceptor {
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Cache<PolicyKey, CachePolicy> policies;
+    private final Cache<ResponseKey, CachedResult> responses;
+    private final Cache<Long, Long> generations;
+    private final AtomicLong generationClock = new AtomicLong();
+    private final AtomicLong evictedGeneration = new AtomicLong();
+
+    public GraphQlResponseCache(ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${graphql.response-cache.enabled:true}") boolean enabled,
+                                @Value("${graphql.response-cache.max-bytes:67108864}") long maxBytes,
+                                @Value("${graphql.response-cache.max-tenants:100000}") long maxTenants) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.policies = Caffeine.newBuilder().maximumSize(10_000).build();
+        // Runs inside the removal, before readers can miss the entry
+        this.generations = Caffeine.newBuilder()
+                .maximumSize(maxTenants)
+                .<Long, Long>evictionListener((tenantId, generation, cause) -> {
+                    if (generation != null) {
+                        evictedGeneration.accumulateAndGet(generation, Math::max);
+                    }
+                })
+                .build();
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .<ResponseKey, CachedResult>weigher((key, result) -> result.bytes())
+                .expireAfter(new Expiry<ResponseKey, CachedResult>() {
+                    @Override
+                    public long expireAfterCreate(ResponseKey key, CachedResult result, long currentTime) {
+                        return TimeUnit.SECONDS.toNanos(result.maxAge());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(ResponseKey key, CachedResult result, long currentTime, long currentDuration) {
+                        return TimeUnit.SECONDS.toNanos(result.maxAge());
+                    }
+
+                    @Override
+                    public long expireAfterRead(ResponseKey key, CachedResult result, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "graphql.responses");
+    }
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        if (!enabled || request instanceof WebSocketGraphQlRequest) {
+            return chain.next(request);
+        }
+
+        Long tenantId = TenantContext.getCurrentTenantDbId();
+        Long tokenTenantId = GraphQlTenantInterceptor.tokenTenantId();
+        if (tokenTenantId != null && !tokenTenantId.equals(tenantId)) {
+            return chain.next(request);
+        }
+        Authentication authentication = currentAuthentication();
+        String user = authentication != null ? authentication.getName() : null;
+        Set<String> authorities = authorities(authentication);
+        PolicyKey policyKey = new PolicyKey(PersistedQueryStore.sha256(request.getDocument()), request.getOperationName());
+        CachePolicy known = policies.getIfPresent(policyKey);
+        if (known != null && known.isCacheable()) {
+            ResponseKey key = responseKey(policyKey, known, request.getVariables(), tenantId, user, authorities,
+                    generation(tenantId));
+            CachedResult cached = key != null ? responses.getIfPresent(key) : null;
+            if (cached != null) {
+                WebGraphQlResponse response = new WebGraphQlResponse(
+                        new DefaultExecutionGraphQlResponse(request.toExecutionInput(), cached.result()));
+                response.getResponseHeaders().setCacheControl(cacheControl(known));
+                return Mono.just(response);
+            }
+        }
+
+        long generation = generation(tenantId);
+        return chain.next(request).doOnNext(response -> {
+            CachePolicy policy = response.getExecutionInput().getGraphQLContext().get(CachePolicy.CONTEXT_KEY);
+            if (policy == null || !response.isValid() || !response.getErrors().isEmpty()) {
+                return;
+            }
+            policies.put(policyKey, policy);
+            if (!policy.isCacheable()) {
+                return;
+            }
+            ResponseKey key = responseKey(policyKey, policy, request.getVariables(), tenantId, user, authorities, generation);
+            if (key != null) {
+                store(key, policy, response.getExecutionResult());
+                response.getResponseHeaders().setCacheControl(cacheControl(policy));
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTenantChanged(TenantChangedEvent event) {
+        if (event.tenantId() != null) {
+            generations.asMap().merge(event.tenantId(), generationClock.incrementAndGet(), Math::max);
+        }
+    }
+
+    private void store(ResponseKey key, CachePolicy policy, ExecutionResult result) {
+        try {
+            int bytes = objectMapper.writeValueAsBytes(result.toSpecification()).length;
+            responses.put(key, new CachedResult(result, policy.maxAge(), bytes));
+        } catch (JsonProcessingException e) {
+            // Not serializable here means the response itself will fail; nothing to cache
+        }
+    }
+
+    private long generation(Long tenantId) {
+        Long generation = tenantId != null ? generations.getIfPresent(tenantId) : null;
+        return generation != null ? generation : evictedGeneration.get();
+    }
+
+    // Null when the scope cannot be determined, e.g. tenant data without a tenant
+    private static ResponseKey responseKey(PolicyKey policyKey, CachePolicy policy, Map<String, Object> variables,
+                                           Long tenantId, String user, Set<String> authorities, long generation) {
+        return switch (policy.scope()) {
+            case PUBLIC -> new ResponseKey(policyKey, variables, null, null, authorities, 0);
+            case TENANT -> tenantId != null
+                    ? new ResponseKey(policyKey, variables, tenantId, null, authorities, generation)
+                    : null;
+            case USER -> tenantId != null && user != null
+                    ? new ResponseKey(policyKey, variables, tenantId, user, authorities, generation)
+                    : null;
+        };
+    }
+
+    private static CacheControl cacheControl(CachePolicy policy) {
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofSeconds(policy.maxAge()));
+        return policy.scope() == CachePolicy.Scope.PUBLIC ? cacheControl.cachePublic() : cacheControl.cachePrivate();
+    }
+
+    private static Authentication currentAuthentication() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication;
+    }
+
+    private static Set<String> authorities(Authentication authentication) {
+        if (authentication == null) {
+            return Set.of();
+        }
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private record PolicyKey(String queryHash, String operationName) {
+    }
+
+    private record ResponseKey(PolicyKey query, Map<String, Object> variables, Long tenantId, String user,
+                               Set<String> authorities, long generation) {
+    }
+
+    private record CachedResult(ExecutionResult result, int maxAge, int bytes) {
+    }
+}
@@ -0,0 +1,120 @@
+package com.saas.graphql;
+
+import com.saas.security.filter.JwtAuthenticationFilter;
+import com.saas.security.jwt.JwtUtil;
+import com.saas.security.service.CustomUserDetailsService;
+import com.saas.tenant.config.TenantContext;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.graphql.server.WebSocketGraphQlInterceptor;
+import org.springframework.graphql.server.WebSocketGraphQlRequest;
+import org.springframework.graphql.server.WebSocketSessionInfo;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Copies the caller's tenant into the {@link graphql.GraphQLContext} while still on the
+ * servlet thread, so instrumentation and resolvers do not depend on thread locals.
+ * <p>
+ * WebSocket connections authenticate once, with the access token in the
+ * {@code connection_init} payload ({@code {"Authorization": "Bearer ..."}}). As on HTTP,
+ * refresh tokens are refused and the user must still exist and be active. The tenant
+ * is kept in the session and applies to every operation on it, until the token expires
+ * and {@link GraphQlWebSocketSessions} closes the connection. Each tenant may hold at
+ * most {@code graphql.websocket.max-connections-per-tenant} connections per node.
+ */
+@Component
+@RequiredArgsConstructor
+public class GraphQlTenantInterceptor implements WebSocketGraphQlInterceptor {
+
+    public static final String TENANT_ID_KEY = "tenantId";
+    /** Only the tenant from the caller's access token, never the {@code X-Tenant-ID} header. */
+    public static final String TOKEN_TENANT_ID_KEY = "tokenTenantId";
+    public static final String TOKEN_EXPIRES_AT_KEY = "tokenExpiresAt";
+
+    private final JwtUtil jwtUtil;
+    private final CustomUserDetailsService userDetailsService;
+    private final Map<Long, Integer> connectionsPerTenant = new ConcurrentHashMap<>();
+
+    @Value("${graphql.websocket.max-connections-per-tenant:200}")
+    private int maxConnectionsPerTenant;
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        Long tokenTenantId = request instanceof WebSocketGraphQlRequest socketRequest
+                ? (Long) socketRequest.getSessionInfo().getAttributes().get(TENANT_ID_KEY)
+                : tokenTenantId();
+        Long tenantId = tokenTenantId != null ? tokenTenantId : TenantContext.getCurrentTenantDbId();
+        if (tenantId != null) {
+            request.configureExecutionInput((input, builder) ->
+                    builder.graphQLContext(context -> {
+                        context.put(TENANT_ID_KEY, tenantId);
+                        if (tokenTenantId != null) {
+                            context.put(TOKEN_TENANT_ID_KEY, tokenTenantId);
+                        }
+                    }).build());
+        }
+        return chain.next(request);
+    }
+
+    @Override
+    public Mono<Object> handleConnectionInitialization(WebSocketSessionInfo sessionInfo, Map<String, Object> payload) {
+        Object authorization = payload.get("Authorization");
+        String token = authorization instanceof String value && value.startsWith("Bearer ") ? value.substring(7) : null;
+        Claims claims = token != null ? jwtUtil.verify(token) : null;
+        if (claims == null || JwtUtil.isRefreshToken(claims)) {
+            return Mono.error(new IllegalStateException("A valid access token is required"));
+        }
+        Long tenantId = claims.get("tenantId", Long.class);
+        if (tenantId == null) {
+            return Mono.error(new IllegalStateException("Access token has no tenant"));
+        }
+        try {
+            userDetailsService.loadUserByUsername(claims.getSubject());
+        } catch (UsernameNotFoundException e) {
+            return Mono.error(new IllegalStateException("User is not active"));
+        }
+
+        boolean[] admitted = new boolean[1];
+        connectionsPerTenant.compute(tenantId, (id, count) -> {
+            int current = count != null ? count : 0;
+            admitted[0] = current < maxConnectionsPerTenant;
+            return admitted[0] ? current + 1 : (count != null ? count : null);
+        });
+        if (!admitted[0]) {
+            return Mono.error(new IllegalStateException("Too many connections for this tenant"));
+        }
+        sessionInfo.getAttributes().put(TENANT_ID_KEY, tenantId);
+        sessionInfo.getAttributes().put(TOKEN_EXPIRES_AT_KEY, claims.getExpiration().toInstant());
+        return Mono.empty();
+    }
+
+    @Override
+    public void handleConnectionClosed(WebSocketSessionInfo sessionInfo, int statusCode, Map<String, Object> connectionInitPayload) {
+        if (sessionInfo.getAttributes().remove(TENANT_ID_KEY) instanceof Long tenantId) {
+            connectionsPerTenant.computeIfPresent(tenantId, (id, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    static Long currentTenantId() {
+        Long fromToken = tokenTenantId();
+        return fromToken != null ? fromToken : TenantContext.getCurrentTenantDbId();
+    }
+
+    static Long tokenTenantId() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        Object fromToken = attributes != null
+                ? attributes.getAttribute(JwtAuthenticationFilter.TENANT_ID_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+                : null;
+        return fromToken instanceof Long id ? id : null;
+    }
+}
@@ -0,0 +1,49 @@
+package com.saas.graphql;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Serves GraphQL subscriptions over the graphql-transport-ws protocol at
+ * {@code graphql.websocket.path}. Registered here rather than through
+ * {@code spring.graphql.websocket.path} so the handler can be wrapped by
+ * {@link GraphQlWebSocketSessions}.
+ */
+@Configuration
+@EnableWebSocket
+public class GraphQlWebSocketConfig implements WebSocketConfigurer {
+
+    private final GraphQlWebSocketSessions sessions;
+    private final String path;
+    private final List<String> allowedOrigins;
+
+    public GraphQlWebSocketConfig(GraphQlWebSocketSessions sessions,
+                                  @Value("${graphql.websocket.path:/graphql-ws}") String path,
+                                  @Value("${graphql.websocket.allowed-origins:http://localhost:3000,http://localhost:8080}") List<String> allowedOrigins) {
+        this.sessions = sessions;
+        this.path = path;
+        this.allowedOrigins = allowedOrigins;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(sessions, path).setAllowedOrigins(allowedOrigins.toArray(String[]::new));
+    }
+
+    @Bean
+    public ServletServerContainerFactoryBean webSocketContainer(
+            @Value("${graphql.websocket.idle-timeout:60s}") Duration idleTimeout) {
+        ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
+        container.setMaxSessionIdleTimeout(idleTimeout.toMillis());
+        container.setMaxTextMessageBufferSize(64 * 1024);
+        return container;
+    }
+}
@@ -0,0 +1,123 @@
+package com.saas.graphql;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wraps the GraphQL WebSocket handler to make large numbers of mostly idle connections
+ * safe. It enforces a per-node connection limit. Every session is wrapped so that sends
+ * are thread-safe and a slow client is dropped instead of buffering without bound. It
+ * also sends a ping frame every {@code graphql.websocket.heartbeat-interval}; browsers
+ * answer it themselves. The container's idle timeout then closes connections whose
+ * client is gone. A connection whose access token has expired is closed with
+ * {@code 4401}, on its next message or at the next heartbeat, whichever comes first.
+ */
+@Slf4j
+public class GraphQlWebSocketSessions extends WebSocketHandlerDecorator {
+
+    static final CloseStatus TOKEN_EXPIRED = new CloseStatus(4401, "Token expired");
+
+    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+
+    @Value("${graphql.websocket.max-connections:10000}")
+    private int maxConnections;
+
+    @Value("${graphql.websocket.send-time-limit:10s}")
+    private Duration sendTimeLimit;
+
+    @Value("${graphql.websocket.send-buffer-limit:524288}")
+    private int sendBufferLimit;
+
+    public GraphQlWebSocketSessions(WebSocketHandler delegate, MeterRegistry meterRegistry) {
+        super(delegate);
+        Gauge.builder("graphql.websocket.connections", sessions, Map::size).register(meterRegistry);
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        if (sessions.size() >= maxConnections) {
+            log.warn("Rejecting GraphQL WebSocket connection, {} are open", sessions.size());
+            session.close(CloseStatus.SERVICE_OVERLOAD);
+            return;
+        }
+        WebSocketSession concurrent = new ConcurrentWebSocketSessionDecorator(
+                session, (int) sendTimeLimit.toMillis(), sendBufferLimit);
+        sessions.put(session.getId(), concurrent);
+        super.afterConnectionEstablished(concurrent);
+    }
+
+    @Override
+    public void handleMessage(WebSocketSession session, WebSocketMessage<?> message) throws Exception {
+        WebSocketSession concurrent = sessions.get(session.getId());
+        if (concurrent == null) {
+            return;
+        }
+        if (isTokenExpired(concurrent)) {
+            closeExpired(concurrent);
+            return;
+        }
+        super.handleMessage(concurrent, message);
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) throws Exception {
+        WebSocketSession concurrent = sessions.get(session.getId());
+        if (concurrent != null) {
+            super.handleTransportError(concurrent, exception);
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+        WebSocketSession concurrent = sessions.remove(session.getId());
+        if (concurrent != null) {
+            super.afterConnectionClosed(concurrent, closeStatus);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${graphql.websocket.heartbeat-interval:PT25S}")
+    public void heartbeat() {
+        PingMessage ping = new PingMessage();
+        sessions.values().forEach(session -> {
+            if (isTokenExpired(session)) {
+                closeExpired(session);
+                return;
+            }
+            try {
+                session.sendMessage(ping);
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Heartbeat to WebSocket session {} failed: {}", session.getId(), e.getMessage());
+            }
+        });
+    }
+
+    // Set at connection_init; sessions that have not initialised yet carry no expiry
+    private static boolean isTokenExpired(WebSocketSession session) {
+        return session.getAttributes().get(GraphQlTenantInterceptor.TOKEN_EXPIRES_AT_KEY) instanceof Instant expiresAt
+                && !expiresAt.isAfter(Instant.now());
+    }
+
+    private static void closeExpired(WebSocketSession session) {
+        try {
+            session.close(TOKEN_EXPIRED);
+        } catch (IOException e) {
+            log.debug("Closing expired WebSocket session {} failed: {}", session.getId(), e.getMessage());
+        }
+    }
+}
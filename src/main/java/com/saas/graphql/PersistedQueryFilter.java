@@ -0,0 +1,107 @@
+package com.saas.graphql;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.saas.common.web.CachedBodyHttpServletRequest;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Automatic persisted queries as defined by Apollo: a request carrying
+ * {@code extensions.persistedQuery.sha256Hash} may omit the query, which is then looked up
+ * in the {@link PersistedQueryStore} and put back into the body before the GraphQL handler
+ * sees it. Unknown hashes get {@code PERSISTED_QUERY_NOT_FOUND}, prompting the client to
+ * resend with the query. In allow-list mode every query must be registered.
+ * <p>
+ * Runs before {@link GraphQlConditionalRequestFilter}, which needs the query text.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 10)
+@RequiredArgsConstructor
+public class PersistedQueryFilter extends OncePerRequestFilter {
+
+    private final PersistedQueryStore store;
+    private final ObjectMapper objectMapper;
+
+    @Value("${spring.graphql.path:/graphql}")
+    private String graphQlPath;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod())
+                || !request.getRequestURI().equals(request.getContextPath() + graphQlPath);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        byte[] body = request.getInputStream().readAllBytes();
+        JsonNode json;
+        try {
+            json = objectMapper.readTree(body);
+        } catch (IOException e) {
+            // Malformed requests are left to the GraphQL handler to report
+            filterChain.doFilter(new CachedBodyHttpServletRequest(request, body), response);
+            return;
+        }
+        if (!(json instanceof ObjectNode payload)) {
+            filterChain.doFilter(new CachedBodyHttpServletRequest(request, body), response);
+            return;
+        }
+
+        String hash = payload.path("extensions").path("persistedQuery").path("sha256Hash").asText(null);
+        String query = payload.path("query").asText(null);
+
+        if (query == null || query.isEmpty()) {
+            if (hash == null) {
+                filterChain.doFilter(new CachedBodyHttpServletRequest(request, body), response);
+                return;
+            }
+            Optional<String> stored = store.find(hash);
+            if (stored.isEmpty()) {
+                reject(response, "PersistedQueryNotFound", "PERSISTED_QUERY_NOT_FOUND");
+                return;
+            }
+            payload.put("query", stored.get());
+            filterChain.doFilter(new CachedBodyHttpServletRequest(request, objectMapper.writeValueAsBytes(payload)), response);
+            return;
+        }
+
+        String actual = PersistedQueryStore.sha256(query);
+        if (hash != null && !hash.equalsIgnoreCase(actual)) {
+            reject(response, "provided sha does not match query", "INVALID_PERSISTED_QUERY_HASH");
+            return;
+        }
+        if (store.isAllowListOnly() && !store.isRegistered(actual)) {
+            reject(response, "Query is not registered", "PERSISTED_QUERY_NOT_ALLOWED");
+            return;
+        }
+        if (hash != null) {
+            store.remember(actual, query);
+        }
+        filterChain.doFilter(new CachedBodyHttpServletRequest(request, body), response);
+    }
+
+    // Apollo clients expect these as regular GraphQL errors with status 200
+    private void reject(HttpServletResponse response, String message, String code) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                Map.of("errors", new Object[]{Map.of("message", message, "extensions", Map.of("code", code))}));
+    }
+}
@@ -0,0 +1,89 @@
+package com.saas.graphql;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Query texts by SHA-256 hash. Registered queries are loaded from
+ * {@code graphql.persisted-queries.location} at startup and never evicted; queries
+ * registered by clients through automatic persisted queries live in a cache bounded by
+ * their total size. In allow-list mode only registered queries are accepted.
+ */
+@Component
+@Slf4j
+public class PersistedQueryStore {
+
+    private final boolean allowListOnly;
+    private final Map<String, String> registered;
+    private final Cache<String, String> automatic;
+
+    public PersistedQueryStore(@Value("${graphql.persisted-queries.allow-list-only:false}") boolean allowListOnly,
+                               @Value("${graphql.persisted-queries.location:classpath*:graphql/persisted/*.graphql}") String location,
+                               @Value("${graphql.persisted-queries.max-cached-chars:8000000}") long maxCachedChars)
+            throws IOException {
+        this.allowListOnly = allowListOnly;
+        this.registered = load(location);
+        this.automatic = Caffeine.newBuilder()
+                .maximumWeight(maxCachedChars)
+                .<String, String>weigher((hash, query) -> query.length())
+                .build();
+        log.info("Loaded {} registered GraphQL queries{}", registered.size(), allowListOnly ? " (allow-list only)" : "");
+    }
+
+    public boolean isAllowListOnly() {
+        return allowListOnly;
+    }
+
+    public boolean isRegistered(String hash) {
+        return registered.containsKey(hash);
+    }
+
+    public Optional<String> find(String hash) {
+        String query = registered.get(hash);
+        if (query == null && !allowListOnly) {
+            query = automatic.getIfPresent(hash);
+        }
+        return Optional.ofNullable(query);
+    }
+
+    /**
+     * Stores a client-supplied query under its hash. Ignored in allow-list mode.
+     */
+    public void remember(String hash, String query) {
+        if (!allowListOnly && !registered.containsKey(hash)) {
+            automatic.put(hash, query);
+        }
+    }
+
+    public static String sha256(String query) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(query.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static Map<String, String> load(String location) throws IOException {
+        Map<String, String> queries = new HashMap<>();
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources(location)) {
+            String query = resource.getContentAsString(StandardCharsets.UTF_8);
+            queries.put(sha256(query), query);
+        }
+        return Map.copyOf(queries);
+    }
+}
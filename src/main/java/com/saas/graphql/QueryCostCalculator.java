@@ -0,0 +1,123 @@
+package com.saas.graphql;
+
+import graphql.language.IntValue;
+import graphql.normalized.ExecutableNormalizedField;
+import graphql.normalized.ExecutableNormalizedOperation;
+import graphql.schema.GraphQLAppliedDirective;
+import graphql.schema.GraphQLAppliedDirectiveArgument;
+import graphql.schema.GraphQLArgument;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLTypeUtil;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Static cost of an operation from the {@code @cost} directives in the schema. A field costs
+ * its weight plus its children's cost, times the first of its {@code multipliers} arguments
+ * that is set or has a default (e.g. a page size). Like the resolvers' page sizes, the
+ * multiplier is clamped to 1..{@code maxMultiplier}. Fields without the directive weigh 1 if
+ * they return an object and 0 if they return a scalar. Introspection fields are free.
+ */
+final class QueryCostCalculator {
+
+    private static final String COST_DIRECTIVE = "cost";
+
+    private QueryCostCalculator() {
+    }
+
+    static QueryCost calculate(ExecutableNormalizedOperation operation, GraphQLSchema schema, long maxMultiplier) {
+        long cost = 0;
+        int depth = 0;
+        for (ExecutableNormalizedField field : operation.getTopLevelFields()) {
+            if (isIntrospection(field)) {
+                continue;
+            }
+            QueryCost fieldCost = cost(field, schema, maxMultiplier);
+            cost = saturatedAdd(cost, fieldCost.cost());
+            depth = Math.max(depth, fieldCost.depth());
+        }
+        return new QueryCost(cost, depth);
+    }
+
+    private static QueryCost cost(ExecutableNormalizedField field, GraphQLSchema schema, long maxMultiplier) {
+        long children = 0;
+        int depth = field.getLevel();
+        for (ExecutableNormalizedField child : field.getChildren()) {
+            if (isIntrospection(child)) {
+                continue;
+            }
+            QueryCost childCost = cost(child, schema, maxMultiplier);
+            children = saturatedAdd(children, childCost.cost());
+            depth = Math.max(depth, childCost.depth());
+        }
+
+        // Abstract fields may map to several definitions; charge the most expensive one
+        long cost = 0;
+        for (GraphQLFieldDefinition definition : field.getFieldDefinitions(schema)) {
+            long weight = defaultWeight(definition);
+            long multiplier = 1;
+            GraphQLAppliedDirective directive = definition.getAppliedDirective(COST_DIRECTIVE);
+            if (directive != null) {
+                weight = intArgument(directive.getArgument("weight"), weight);
+                multiplier = multiplier(directive.getArgument("multipliers"), definition,
+                        field.getResolvedArguments(), maxMultiplier);
+            }
+            cost = Math.max(cost, saturatedMultiply(saturatedAdd(weight, children), multiplier));
+        }
+        return new QueryCost(cost, depth);
+    }
+
+    private static long defaultWeight(GraphQLFieldDefinition definition) {
+        return GraphQLTypeUtil.isLeaf(GraphQLTypeUtil.unwrapAll(definition.getType())) ? 0 : 1;
+    }
+
+    private static long multiplier(GraphQLAppliedDirectiveArgument names, GraphQLFieldDefinition definition,
+                                   Map<String, Object> arguments, long maxMultiplier) {
+        if (names == null || !(names.getValue() instanceof List<?> list)) {
+            return 1;
+        }
+        for (Object name : list) {
+            Object value = arguments.get(String.valueOf(name));
+            // An explicit null does not apply the schema default, but the resolver does
+            if (value == null) {
+                value = defaultValue(definition.getArgument(String.valueOf(name)));
+            }
+            if (value instanceof Number number) {
+                return Math.max(1, Math.min(number.longValue(), maxMultiplier));
+            }
+        }
+        return 1;
+    }
+
+    private static Object defaultValue(GraphQLArgument argument) {
+        if (argument == null || !argument.hasSetDefaultValue()) {
+            return null;
+        }
+        Object value = argument.getArgumentDefaultValue().getValue();
+        return value instanceof IntValue literal ? literal.getValue() : value;
+    }
+
+    private static long intArgument(GraphQLAppliedDirectiveArgument argument, long fallback) {
+        return argument != null && argument.getValue() instanceof Number value ? value.longValue() : fallback;
+    }
+
+    private static boolean isIntrospection(ExecutableNormalizedField field) {
+        return field.getName().startsWith("__");
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    private static long saturatedMultiply(long a, long b) {
+        long high = Math.multiplyHigh(a, b);
+        long product = a * b;
+        return high != 0 || product < 0 ? Long.MAX_VALUE : product;
+    }
+
+    record QueryCost(long cost, int depth) {
+    }
+}
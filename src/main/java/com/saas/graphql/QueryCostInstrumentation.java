@@ -0,0 +1,79 @@
+package com.saas.graphql;
+
+import graphql.ExecutionResult;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rejects operations that are too deep or too expensive before any resolver runs, and
+ * charges the cost of accepted ones to the tenant's {@link TenantCostBudget}. Cost and
+ * depth of every operation are recorded as {@code graphql.operation.cost} and
+ * {@code graphql.operation.depth} to tune the limits.
+ */
+@Component
+@Slf4j
+public class QueryCostInstrumentation extends SimplePerformantInstrumentation {
+
+    private final TenantCostBudget budget;
+    private final int maxDepth;
+    private final long maxCost;
+    // Page sizes are clamped to this by the resolvers (Tenant.users is the only paged field)
+    private final long maxPageSize;
+    private final DistributionSummary costs;
+    private final DistributionSummary depths;
+    private final MeterRegistry meterRegistry;
+
+    public QueryCostInstrumentation(TenantCostBudget budget,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${graphql.max-depth:8}") int maxDepth,
+                                    @Value("${graphql.cost.max-per-operation:5000}") long maxCost,
+                                    @Value("${graphql.max-users-per-tenant:100}") long maxPageSize) {
+        this.budget = budget;
+        this.maxDepth = maxDepth;
+        this.maxCost = maxCost;
+        this.maxPageSize = maxPageSize;
+        this.meterRegistry = meterRegistry;
+        this.costs = DistributionSummary.builder("graphql.operation.cost")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.depths = DistributionSummary.builder("graphql.operation.depth").register(meterRegistry);
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(InstrumentationExecuteOperationParameters parameters,
+                                                                         InstrumentationState state) {
+        ExecutionContext context = parameters.getExecutionContext();
+        QueryCostCalculator.QueryCost cost = QueryCostCalculator.calculate(
+                context.getNormalizedQueryTree().get(), context.getGraphQLSchema(), maxPageSize);
+        costs.record(cost.cost());
+        depths.record(cost.depth());
+
+        if (cost.depth() > maxDepth) {
+            throw reject("depth", "Query depth " + cost.depth() + " exceeds the maximum of " + maxDepth);
+        }
+        if (cost.cost() > maxCost) {
+            throw reject("cost", "Query cost " + cost.cost() + " exceeds the maximum of " + maxCost);
+        }
+        Long tenantId = context.getGraphQLContext().get(GraphQlTenantInterceptor.TENANT_ID_KEY);
+        if (tenantId != null && !budget.trySpend(tenantId, cost.cost())) {
+            log.info("Tenant {} exhausted its GraphQL cost budget", tenantId);
+            throw reject("budget", "GraphQL cost budget exhausted, retry later");
+        }
+        return super.beginExecuteOperation(parameters, state);
+    }
+
+    private AbortExecutionException reject(String reason, String message) {
+        Counter.builder("graphql.operation.rejections").tag("reason", reason).register(meterRegistry).increment();
+        return new AbortExecutionException(message);
+    }
+}
@@ -1,5 +1,6 @@
 package com.saas.graphql;
 
+import com.saas.common.exception.NotFoundException;
 import com.saas.tenant.entity.Tenant;
 import com.saas.tenant.service.TenantService;
 import com.saas.user.entity.User;
@@ -19,12 +20,12 @@ public class QueryResolver {
     @QueryMapping
     public User me(Authentication authentication) {
         return userRepository.findByEmail(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+                .orElseThrow(() -> new NotFoundException("User not found"));
     }
 
     @QueryMapping
     public Tenant tenant() {
         return tenantService.getCurrentTenant()
-                .orElseThrow(() -> new RuntimeException("Tenant not found in context"));
+                .orElseThrow(() -> new NotFoundException("Tenant not found in context"));
     }
 }
@@ -0,0 +1,112 @@
+package com.saas.graphql;
+
+import com.saas.common.exception.ForbiddenException;
+import com.saas.tenant.entity.Tenant;
+import com.saas.tenant.repository.TenantRepository;
+import com.saas.user.entity.User;
+import com.saas.user.repository.UserRepository;
+import org.dataloader.DataLoader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.ContextValue;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Nested fields between tenants and users. Every field is resolved in batches per GraphQL
+ * request, so the number of SQL queries does not grow with the size of the result:
+ * one for all {@code User.tenant} fields and two for all {@code Tenant.users} fields.
+ */
+@Controller
+public class RelationshipResolver {
+
+    private static final String TENANT_USERS = "tenantUsers";
+    // Matches the schema default, which does not apply when a client sends an explicit null
+    private static final int DEFAULT_USERS_PER_TENANT = 50;
+
+    private final UserRepository userRepository;
+    private final TenantRepository tenantRepository;
+    private final int maxUsersPerTenant;
+
+    public RelationshipResolver(UserRepository userRepository,
+                                TenantRepository tenantRepository,
+                                BatchLoaderRegistry batchLoaderRegistry,
+                                @Value("${graphql.max-users-per-tenant:100}") int maxUsersPerTenant) {
+        this.userRepository = userRepository;
+        this.tenantRepository = tenantRepository;
+        this.maxUsersPerTenant = maxUsersPerTenant;
+        batchLoaderRegistry.<TenantUsersKey, List<User>>forName(TENANT_USERS)
+                .registerMappedBatchLoader((keys, environment) -> Mono.fromCallable(() -> loadTenantUsers(keys)));
+    }
+
+    @BatchMapping(typeName = "User")
+    public List<Tenant> tenant(List<User> users) {
+        Map<Long, Tenant> tenants = tenantRepository.findAllById(
+                        users.stream().map(User::getTenantId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Tenant::getId, Function.identity()));
+        return users.stream().map(user -> tenants.get(user.getTenantId())).toList();
+    }
+
+    @SchemaMapping(typeName = "Tenant")
+    @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('SUPER_ADMIN')")
+    public CompletableFuture<List<User>> users(Tenant tenant, @Argument Integer first,
+                                               @ContextValue(name = GraphQlTenantInterceptor.TOKEN_TENANT_ID_KEY,
+                                                       required = false) Long callerTenantId,
+                                               Authentication authentication,
+                                               DataLoader<TenantUsersKey, List<User>> tenantUsers) {
+        // The parent tenant may come from the X-Tenant-ID header; only super admins cross tenants
+        if (!tenant.getId().equals(callerTenantId) && !isSuperAdmin(authentication)) {
+            throw new ForbiddenException("Users of another tenant are not accessible");
+        }
+        int requested = first != null ? first : DEFAULT_USERS_PER_TENANT;
+        int limit = Math.max(1, Math.min(requested, maxUsersPerTenant));
+        return tenantUsers.load(new TenantUsersKey(tenant.getId(), limit));
+    }
+
+    private static boolean isSuperAdmin(Authentication authentication) {
+        return authentication != null && authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch("SUPER_ADMIN"::equals);
+    }
+
+    // Keys asking for the same page size share one window query
+    private Map<TenantUsersKey, List<User>> loadTenantUsers(Set<TenantUsersKey> keys) {
+        Map<TenantUsersKey, List<User>> result = new HashMap<>();
+        Map<Integer, List<TenantUsersKey>> byLimit = keys.stream().collect(Collectors.groupingBy(TenantUsersKey::first));
+        byLimit.forEach((limit, group) -> {
+            List<Long> ids = userRepository.findFirstIdsPerTenant(
+                    group.stream().map(TenantUsersKey::tenantId).toList(), limit);
+            Map<Long, List<User>> byTenant = new HashMap<>();
+            if (!ids.isEmpty()) {
+                for (User user : userRepository.findAllWithRolesByIdIn(ids)) {
+                    byTenant.computeIfAbsent(user.getTenantId(), id -> new ArrayList<>()).add(user);
+                }
+            }
+            for (TenantUsersKey key : group) {
+                List<User> users = byTenant.getOrDefault(key.tenantId(), List.of());
+                result.put(key, users.stream().sorted(Comparator.comparing(User::getEmail)).toList());
+            }
+        });
+        return result;
+    }
+
+    record TenantUsersKey(Long tenantId, int first) {
+    }
+}
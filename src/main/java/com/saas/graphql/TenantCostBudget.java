@@ -0,0 +1,40 @@
+package com.saas.graphql;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * GraphQL cost each tenant may spend per window. A window opens with the tenant's first
+ * query and closes {@code graphql.cost.budget-window} later; entries expire with it, so
+ * idle tenants take no memory.
+ */
+@Component
+public class TenantCostBudget {
+
+    private final long budget;
+    private final Cache<Long, AtomicLong> windows;
+
+    public TenantCostBudget(@Value("${graphql.cost.tenant-budget:100000}") long budget,
+                            @Value("${graphql.cost.budget-window:1m}") Duration window,
+                            @Value("${graphql.cost.max-tenants:100000}") long maxTenants) {
+        this.budget = budget;
+        this.windows = Caffeine.newBuilder().maximumSize(maxTenants).expireAfterWrite(window).build();
+    }
+
+    /**
+     * Charges {@code cost} to the tenant, unless that would exceed its budget.
+     */
+    public boolean trySpend(Long tenantId, long cost) {
+        AtomicLong spent = windows.get(tenantId, id -> new AtomicLong());
+        if (spent.addAndGet(cost) > budget) {
+            spent.addAndGet(-cost);
+            return false;
+        }
+        return true;
+    }
+}
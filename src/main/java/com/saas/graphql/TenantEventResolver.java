@@ -0,0 +1,21 @@
+package com.saas.graphql;
+
+import com.saas.tenant.dto.TenantUpdate;
+import com.saas.tenant.service.TenantEventBroadcaster;
+import lombok.RequiredArgsConstructor;
+import org.springframework.graphql.data.method.annotation.ContextValue;
+import org.springframework.graphql.data.method.annotation.SubscriptionMapping;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+
+@Controller
+@RequiredArgsConstructor
+public class TenantEventResolver {
+
+    private final TenantEventBroadcaster broadcaster;
+
+    @SubscriptionMapping
+    public Flux<TenantUpdate> tenantUpdated(@ContextValue(name = GraphQlTenantInterceptor.TENANT_ID_KEY) Long tenantId) {
+        return broadcaster.updates(tenantId);
+    }
+}
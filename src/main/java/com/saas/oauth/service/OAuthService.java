@@ -1,11 +1,16 @@
 package com.saas.oauth.service;
 
+import com.saas.audit.dto.AuthEventType;
+import com.saas.audit.service.AuthAuditService;
 import com.saas.auth.dto.AuthResponse;
 import com.saas.auth.service.AuthService;
+import com.saas.common.exception.AuthenticationFailedException;
+import com.saas.outbox.service.OutboxPublisher;
 import com.saas.security.jwt.JwtUtil;
 import com.saas.tenant.config.TenantContext;
 import com.saas.tenant.entity.Tenant;
 import com.saas.tenant.service.TenantService;
+import com.saas.user.dto.UserResponse;
 import com.saas.user.entity.User;
 import com.saas.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -28,6 +33,8 @@ public class OAuthService {
     private final UserRepository userRepository;
     private final TenantService tenantService;
     private final JwtUtil jwtUtil;
+    private final AuthAuditService authAuditService;
+    private final OutboxPublisher outboxPublisher;
     
     @Transactional
     public AuthResponse handleOAuthLogin(OAuth2AuthenticationToken oauthToken, String provider) {
@@ -38,7 +45,8 @@ public class OAuthService {
         String oauthId = (String) attributes.get("sub"); // Google/GitHub user ID
         
         if (email == null || email.isBlank()) {
-            throw new RuntimeException("Email not found in OAuth provider response");
+            authAuditService.failure(AuthEventType.OAUTH_LOGIN, null, provider, "Email not found in OAuth provider response");
+            throw new AuthenticationFailedException("Email not found in OAuth provider response");
         }
         
         // Find existing user by OAuth ID or email
@@ -60,6 +68,7 @@ public class OAuthService {
         
         // Set tenant context
         tenantService.setTenantContext(user.getTenantId().toString());
+        authAuditService.success(AuthEventType.OAUTH_LOGIN, user, provider);
         
         // Generate token
         String accessToken = jwtUtil.generateAccessToken(
@@ -109,7 +118,10 @@ public class OAuthService {
         
         user.addRole("USER");
         
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        outboxPublisher.publish(OutboxPublisher.USER, saved.getId(), "user.created", saved.getTenantId(),
+                UserResponse.from(saved));
+        return saved;
     }
     
     private Tenant getOrCreateTenant() {
@@ -0,0 +1,36 @@
+package com.saas.outbox.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An outbox event as handed to sinks; {@code data} is the stored JSON payload, unparsed.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxMessage {
+    
+    private Long id;
+    
+    private String type;
+    
+    private String aggregateType;
+    
+    private String aggregateId;
+    
+    private Long tenantId;
+    
+    private LocalDateTime occurredAt;
+    
+    private int attempt;
+    
+    @JsonRawValue
+    private String data;
+}
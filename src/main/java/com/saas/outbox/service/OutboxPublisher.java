@@ -0,0 +1,45 @@
+package com.saas.outbox.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saas.outbox.entity.OutboxEvent;
+import com.saas.outbox.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Records domain events in the outbox. Must be called inside the transaction that makes
+ * the change, so the event is committed (or rolled back) together with it.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxPublisher {
+
+    public static final String TENANT = "tenant";
+    public static final String USER = "user";
+    public static final String SUBSCRIPTION = "subscription";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(String aggregateType, Object aggregateId, String eventType, Long tenantId, Object payload) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .aggregateType(aggregateType)
+                .aggregateId(String.valueOf(aggregateId))
+                .eventType(eventType)
+                .tenantId(tenantId)
+                .payload(toJson(payload))
+                .build());
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload is not serializable: " + payload.getClass().getName(), e);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.saas.outbox.service;
+
+import com.saas.outbox.dto.OutboxMessage;
+import com.saas.outbox.sink.OutboxSink;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Delivers pending outbox events to every {@link OutboxSink}. Each batch is leased in one
+ * short statement: the rows are picked with {@code FOR UPDATE SKIP LOCKED} and their
+ * {@code next_attempt_at} is pushed {@code outbox.relay.lease} ahead, so any number of relay
+ * instances can run side by side. Delivery happens outside any transaction, and the outcome
+ * is recorded in a second short one; a slow sink therefore holds neither row locks nor a
+ * database connection. An event whose relay dies mid-batch is claimed again once its lease
+ * runs out.
+ * <p>
+ * Only the oldest pending event of an aggregate is claimable, which keeps delivery in
+ * order per aggregate; a failing event holds back its successors until it is delivered
+ * or given up on after {@code outbox.relay.max-attempts}.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private static final String CLAIM = """
+            UPDATE public.outbox_events o
+               SET next_attempt_at = CURRENT_TIMESTAMP + make_interval(secs => ?)
+             WHERE o.id IN (
+                SELECT e.id FROM public.outbox_events e
+                 WHERE e.status = 'PENDING'
+                   AND e.next_attempt_at <= CURRENT_TIMESTAMP
+                   AND NOT EXISTS (SELECT 1 FROM public.outbox_events p
+                                    WHERE p.status = 'PENDING'
+                                      AND p.aggregate_type = e.aggregate_type
+                                      AND p.aggregate_id = e.aggregate_id
+                                      AND p.id < e.id)
+                 ORDER BY e.id
+                 LIMIT ?
+                   FOR UPDATE OF e SKIP LOCKED)
+            RETURNING o.id, o.aggregate_type, o.aggregate_id, o.event_type, o.tenant_id, o.payload::text AS payload,
+                      o.created_at, o.attempts
+            """;
+
+    private static final String MARK_PUBLISHED = "UPDATE public.outbox_events SET status = 'PUBLISHED', "
+            + "published_at = CURRENT_TIMESTAMP, attempts = attempts + 1 WHERE id = ? AND status = 'PENDING'";
+
+    private static final String MARK_RETRY = "UPDATE public.outbox_events SET attempts = attempts + 1, "
+            + "next_attempt_at = ?, last_error = ? WHERE id = ? AND status = 'PENDING'";
+
+    private static final String MARK_FAILED = "UPDATE public.outbox_events SET status = 'FAILED', "
+            + "attempts = attempts + 1, last_error = ? WHERE id = ? AND status = 'PENDING'";
+
+    private static final String DELETE_PUBLISHED = """
+            DELETE FROM public.outbox_events WHERE id IN (
+                SELECT id FROM public.outbox_events
+                 WHERE status = 'PUBLISHED' AND published_at < ?
+                 LIMIT ?)
+            """;
+
+    private static final RowMapper<OutboxMessage> MESSAGE_MAPPER = (rs, rowNum) -> OutboxMessage.builder()
+            .id(rs.getLong("id"))
+            .aggregateType(rs.getString("aggregate_type"))
+            .aggregateId(rs.getString("aggregate_id"))
+            .type(rs.getString("event_type"))
+            .tenantId(rs.getObject("tenant_id", Long.class))
+            .data(rs.getString("payload"))
+            .occurredAt(rs.getTimestamp("created_at").toLocalDateTime())
+            .attempt(rs.getInt("attempts") + 1)
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final List<OutboxSink> sinks;
+
+    @Value("${outbox.relay.enabled:true}")
+    private boolean enabled;
+
+    @Value("${outbox.relay.batch-size:100}")
+    private int batchSize;
+
+    @Value("${outbox.relay.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+
+    @Value("${outbox.relay.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${outbox.relay.initial-backoff:1s}")
+    private Duration initialBackoff;
+
+    @Value("${outbox.relay.max-backoff:15m}")
+    private Duration maxBackoff;
+
+    // Must cover delivering a whole batch, i.e. batch-size times the slowest sink's timeout
+    @Value("${outbox.relay.lease:10m}")
+    private Duration lease;
+
+    @Value("${outbox.retention:7d}")
+    private Duration retention;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, List<OutboxSink> sinks) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.sinks = sinks;
+        log.info("Outbox sinks: {}", sinks.stream().map(OutboxSink::name).toList());
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval-ms:500}")
+    public void relay() {
+        if (!enabled || sinks.isEmpty()) {
+            return;
+        }
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            if (relayBatch() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    @Scheduled(cron = "${outbox.cleanup-cron:0 30 * * * *}")
+    public void deletePublished() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(retention));
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(DELETE_PUBLISHED, cutoff, 1000);
+        } while (deleted == 1000);
+    }
+
+    private int relayBatch() {
+        // RETURNING does not keep the subquery's order
+        List<OutboxMessage> messages = jdbcTemplate.query(CLAIM, MESSAGE_MAPPER, lease.toSeconds(), batchSize).stream()
+                .sorted(Comparator.comparing(OutboxMessage::getId))
+                .toList();
+
+        List<Object[]> published = new ArrayList<>();
+        List<Object[]> retries = new ArrayList<>();
+        List<Object[]> failed = new ArrayList<>();
+        for (OutboxMessage message : messages) {
+            String error = deliver(message);
+            if (error == null) {
+                published.add(new Object[]{message.getId()});
+            } else if (message.getAttempt() >= maxAttempts) {
+                log.error("Giving up on outbox event {} ({}) after {} attempts: {}",
+                        message.getId(), message.getType(), message.getAttempt(), error);
+                failed.add(new Object[]{error, message.getId()});
+            } else {
+                retries.add(new Object[]{Timestamp.valueOf(LocalDateTime.now().plus(backoff(message.getAttempt()))),
+                        error, message.getId()});
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!published.isEmpty()) {
+                jdbcTemplate.batchUpdate(MARK_PUBLISHED, published);
+            }
+            if (!retries.isEmpty()) {
+                jdbcTemplate.batchUpdate(MARK_RETRY, retries);
+            }
+            if (!failed.isEmpty()) {
+                jdbcTemplate.batchUpdate(MARK_FAILED, failed);
+            }
+        });
+        return messages.size();
+    }
+
+    // Returns null on success, otherwise a description of the first failing sink
+    private String deliver(OutboxMessage message) {
+        for (OutboxSink sink : sinks) {
+            try {
+                sink.deliver(message);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return sink.name() + ": interrupted";
+            } catch (Exception e) {
+                log.warn("Outbox sink {} failed for event {} (attempt {}): {}",
+                        sink.name(), message.getId(), message.getAttempt(), e.getMessage());
+                String error = sink.name() + ": " + e.getMessage();
+                return error.length() > 1000 ? error.substring(0, 1000) : error;
+            }
+        }
+        return null;
+    }
+
+    private Duration backoff(int attempt) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempt - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+}
@@ -0,0 +1,27 @@
+package com.saas.outbox.sink;
+
+import com.saas.outbox.dto.OutboxMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs the id and type of each relayed event, for development. Payloads carry personal
+ * data such as emails and are never logged.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sinks.log.enabled", havingValue = "true")
+@Slf4j
+public class LoggingOutboxSink implements OutboxSink {
+
+    @Override
+    public String name() {
+        return "log";
+    }
+
+    @Override
+    public void deliver(OutboxMessage message) {
+        log.info("Outbox event {} {} for {}:{} (tenant {})", message.getId(), message.getType(),
+                message.getAggregateType(), message.getAggregateId(), message.getTenantId());
+    }
+}
@@ -0,0 +1,17 @@
+package com.saas.outbox.sink;
+
+import com.saas.outbox.dto.OutboxMessage;
+
+/**
+ * Destination for relayed outbox events. Delivery is at-least-once: a sink must tolerate
+ * redelivery, e.g. by deduplicating on {@link OutboxMessage#getId()}.
+ */
+public interface OutboxSink {
+
+    String name();
+
+    /**
+     * Delivers one event; throwing marks the event for a retry with backoff.
+     */
+    void deliver(OutboxMessage message) throws Exception;
+}
@@ -0,0 +1,36 @@
+package com.saas.outbox.sink;
+
+import com.saas.outbox.dto.OutboxMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Announces tenant, subscription and user events on the PostgreSQL channel {@link #CHANNEL}
+ * as {@code <tenantId>:<eventType>}. The notification is sent as soon as the relay delivers
+ * the event and reaches every node listening, which is how GraphQL subscribers and caches learn about
+ * changes made elsewhere in the cluster.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sinks.notify.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class PgNotifyOutboxSink implements OutboxSink {
+
+    public static final String CHANNEL = "tenant_events";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public String name() {
+        return "notify";
+    }
+
+    @Override
+    public void deliver(OutboxMessage message) {
+        if (message.getTenantId() == null) {
+            return;
+        }
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL, message.getTenantId() + ":" + message.getType());
+    }
+}
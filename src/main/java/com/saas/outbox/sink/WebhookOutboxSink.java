@@ -0,0 +1,75 @@
+package com.saas.outbox.sink;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saas.outbox.dto.OutboxMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.HexFormat;
+
+/**
+ * POSTs each event as JSON to {@code outbox.sinks.webhook.url}. When a secret is
+ * configured the body is signed with HMAC-SHA256 in {@code X-Outbox-Signature}.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sinks.webhook.url")
+public class WebhookOutboxSink implements OutboxSink {
+
+    private final ObjectMapper objectMapper;
+    private final URI url;
+    private final String secret;
+    private final Duration timeout;
+    private final HttpClient httpClient;
+
+    public WebhookOutboxSink(ObjectMapper objectMapper,
+                             @Value("${outbox.sinks.webhook.url}") String url,
+                             @Value("${outbox.sinks.webhook.secret:}") String secret,
+                             @Value("${outbox.sinks.webhook.timeout:5s}") Duration timeout) {
+        this.objectMapper = objectMapper;
+        this.url = URI.create(url);
+        this.secret = secret;
+        this.timeout = timeout;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @Override
+    public String name() {
+        return "webhook";
+    }
+
+    @Override
+    public void deliver(OutboxMessage message) throws IOException, InterruptedException, GeneralSecurityException {
+        byte[] body = objectMapper.writeValueAsBytes(message);
+        HttpRequest.Builder request = HttpRequest.newBuilder(url)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .header("X-Outbox-Event-Id", String.valueOf(message.getId()))
+                .header("X-Outbox-Event-Type", message.getType())
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body));
+        if (!secret.isEmpty()) {
+            request.header("X-Outbox-Signature", "sha256=" + sign(body));
+        }
+
+        HttpResponse<Void> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Webhook responded with HTTP " + response.statusCode());
+        }
+    }
+
+    private String sign(byte[] body) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal(body));
+    }
+}
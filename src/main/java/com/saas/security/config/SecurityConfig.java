@@ -1,8 +1,12 @@
 package com.saas.security.config;
 
 import com.saas.security.filter.JwtAuthenticationFilter;
+import com.saas.subscription.filter.TenantRateLimitFilter;
+import com.saas.subscription.filter.UsageMeteringFilter;
 import com.saas.tenant.filter.TenantFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -35,6 +39,13 @@ public class SecurityConfig {
     private final UserDetailsService userDetailsService;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final TenantFilter tenantFilter;
+    private final TenantRateLimitFilter tenantRateLimitFilter;
+    private final UsageMeteringFilter usageMeteringFilter;
+    private final MeterRegistry meterRegistry;
+    
+    // Same property GraphQlWebSocketConfig registers the handler under
+    @Value("${graphql.websocket.path:/graphql-ws}")
+    private String graphQlWebSocketPath;
     
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -44,8 +55,12 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/v1/auth/**").permitAll()
                         .requestMatchers("/oauth2/**").permitAll()
+                        // Authenticated by the Stripe-Signature header instead
+                        .requestMatchers("/api/v1/webhooks/**").permitAll()
                         .requestMatchers("/actuator/**").permitAll()
                         .requestMatchers("/graphiql/**").permitAll()
+                        // Authenticated by the token in the connection_init message instead
+                        .requestMatchers(graphQlWebSocketPath).permitAll()
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html").permitAll()
                         .requestMatchers("/error").permitAll()
                         .anyRequest().authenticated()
@@ -55,14 +70,16 @@ public class SecurityConfig {
                 )
                 .authenticationProvider(authenticationProvider())
                 .addFilterBefore(tenantFilter, UsernamePasswordAuthenticationFilter.class)
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(tenantRateLimitFilter, JwtAuthenticationFilter.class)
+                .addFilterAfter(usageMeteringFilter, TenantRateLimitFilter.class);
         
         return http.build();
     }
     
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(12), meterRegistry);
     }
     
     @Bean
@@ -82,7 +99,7 @@ public class SecurityConfig {
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(List.of("http://localhost:3000", "http://localhost:8080"));
-        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
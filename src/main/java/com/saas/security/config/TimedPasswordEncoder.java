@@ -0,0 +1,62 @@
+package com.saas.security.config;
+
+import com.saas.common.metrics.RequestTimings;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records {@code auth.password} timings and the password stage of {@link RequestTimings}
+ * around a delegate encoder. With a work factor of 12 each call costs hundreds of
+ * milliseconds of CPU, which makes these calls the first place to look when login latency
+ * or CPU climbs.
+ */
+class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Timer encode;
+    private final Timer matched;
+    private final Timer mismatched;
+
+    TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.encode = timer(meterRegistry, "encode", "success");
+        this.matched = timer(meterRegistry, "matches", "match");
+        this.mismatched = timer(meterRegistry, "matches", "mismatch");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        long start = System.nanoTime();
+        String encoded = delegate.encode(rawPassword);
+        record(encode, System.nanoTime() - start);
+        return encoded;
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        boolean matches = delegate.matches(rawPassword, encodedPassword);
+        record(matches ? matched : mismatched, System.nanoTime() - start);
+        return matches;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private static void record(Timer timer, long durationNanos) {
+        timer.record(durationNanos, TimeUnit.NANOSECONDS);
+        RequestTimings.record(RequestTimings.Stage.PASSWORD, durationNanos);
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String operation, String outcome) {
+        return Timer.builder("auth.password")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
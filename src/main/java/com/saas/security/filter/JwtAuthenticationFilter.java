@@ -1,13 +1,19 @@
 package com.saas.security.filter;
 
+import com.saas.common.metrics.RequestTimings;
+import com.saas.common.metrics.TenantMetricTags;
 import com.saas.security.jwt.JwtUtil;
 import com.saas.security.service.CustomUserDetailsService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -23,20 +29,38 @@ import java.io.IOException;
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
+    /** Request attribute holding the tenant id from the access token. */
+    public static final String TENANT_ID_ATTRIBUTE = "com.saas.security.filter.JwtAuthenticationFilter.tenantId";
+    
+    /** MDC keys holding the ids from the access token. */
+    public static final String TENANT_ID_MDC_KEY = "tenantId";
+    public static final String USER_ID_MDC_KEY = "userId";
+    
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
+    private final MeterRegistry meterRegistry;
+    private final TenantMetricTags tenantMetricTags;
     
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
                                     FilterChain filterChain) throws ServletException, IOException {
         
+        Timer.Sample sample = Timer.start(meterRegistry);
         String token = extractTokenFromRequest(request);
+        String outcome = StringUtils.hasText(token) ? "invalid" : "anonymous";
+        Long tenantId = null;
         
-        if (StringUtils.hasText(token) && jwtUtil.validateToken(token)) {
-            String email = jwtUtil.extractEmail(token);
+        // Parsed once; subject, tenant and user id are all read from these claims
+        Claims claims = StringUtils.hasText(token) ? jwtUtil.verify(token) : null;
+        
+        if (claims != null && !JwtUtil.isRefreshToken(claims)) {
+            outcome = "authenticated";
+            String email = claims.getSubject();
             
             if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                long loadStart = RequestTimings.start();
                 UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+                RequestTimings.stop(RequestTimings.Stage.USER, loadStart);
                 
                 if (userDetails != null) {
                     UsernamePasswordAuthenticationToken authentication = 
@@ -48,11 +72,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authentication);
+                    RequestTimings.markAuthenticated();
+                    tenantId = claims.get("tenantId", Long.class);
+                    Long userId = claims.get("userId", Long.class);
+                    request.setAttribute(TENANT_ID_ATTRIBUTE, tenantId);
+                    if (tenantId != null) {
+                        MDC.put(TENANT_ID_MDC_KEY, tenantId.toString());
+                    }
+                    if (userId != null) {
+                        MDC.put(USER_ID_MDC_KEY, userId.toString());
+                    }
                 }
             }
         }
+        sample.stop(tenantMetricTags.timer("auth.jwt.authentication", tenantId, "outcome", outcome));
         
-        filterChain.doFilter(request, response);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(TENANT_ID_MDC_KEY);
+            MDC.remove(USER_ID_MDC_KEY);
+        }
     }
     
     private String extractTokenFromRequest(HttpServletRequest request) {
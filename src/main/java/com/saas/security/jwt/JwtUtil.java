@@ -1,8 +1,14 @@
 package com.saas.security.jwt;
 
+import com.saas.common.metrics.RequestTimings;
+import com.saas.common.metrics.TenantMetricTags;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -12,8 +18,12 @@ import java.util.Date;
 import java.util.function.Function;
 
 @Component
+@RequiredArgsConstructor
 public class JwtUtil {
     
+    private final MeterRegistry meterRegistry;
+    private final TenantMetricTags tenantMetricTags;
+    
     @Value("${jwt.secret}")
     private String secret;
     
@@ -30,7 +40,8 @@ public class JwtUtil {
         Date issuedAt = new Date(now);
         Date expiryDate = new Date(now + accessTokenValidity * 1000);
         
-        return Jwts.builder()
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String token = Jwts.builder()
                 .subject(email)
                 .claim("userId", userId)
                 .claim("tenantId", tenantId)
@@ -39,6 +50,8 @@ public class JwtUtil {
                 .expiration(expiryDate)
                 .signWith(getSigningKey())
                 .compact();
+        RequestTimings.record(RequestTimings.Stage.JWT, sample.stop(signTimer("access", tenantId)));
+        return token;
     }
     
     public String generateRefreshToken(String email, Long userId, Long tenantId) {
@@ -47,7 +60,8 @@ public class JwtUtil {
         Date issuedAt = new Date(now);
         Date expiryDate = new Date(now + 7 * 24 * 60 * 60 * 1000); // 7 days
         
-        return Jwts.builder()
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String token = Jwts.builder()
                 .subject(email)
                 .claim("userId", userId)
                 .claim("tenantId", tenantId)
@@ -56,6 +70,8 @@ public class JwtUtil {
                 .expiration(expiryDate)
                 .signWith(getSigningKey())
                 .compact();
+        RequestTimings.record(RequestTimings.Stage.JWT, sample.stop(signTimer("refresh", tenantId)));
+        return token;
     }
     
     public String extractEmail(String token) {
@@ -101,11 +117,42 @@ public class JwtUtil {
     }
     
     public boolean validateToken(String token) {
+        return verify(token) != null;
+    }
+    
+    /**
+     * Verifies the signature and expiry of {@code token} and returns its claims, or
+     * {@code null} if it is invalid or expired.
+     */
+    public Claims verify(String token) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "invalid";
+        Long tenantId = null;
         try {
-            extractAllClaims(token);
-            return !isTokenExpired(token);
+            Claims claims = extractAllClaims(token);
+            tenantId = claims.get("tenantId", Long.class);
+            boolean valid = !claims.getExpiration().before(new Date());
+            outcome = valid ? "valid" : "expired";
+            return valid ? claims : null;
+        } catch (ExpiredJwtException e) {
+            outcome = "expired";
+            return null;
         } catch (Exception e) {
-            return false;
+            return null;
+        } finally {
+            RequestTimings.record(RequestTimings.Stage.JWT,
+                    sample.stop(tenantMetricTags.timer("auth.jwt.verify", tenantId, "outcome", outcome)));
         }
     }
+    
+    /**
+     * Whether {@code claims} belong to a refresh token, which must not authenticate requests.
+     */
+    public static boolean isRefreshToken(Claims claims) {
+        return "refresh".equals(claims.get("type", String.class));
+    }
+    
+    private Timer signTimer(String type, Long tenantId) {
+        return tenantMetricTags.timer("auth.jwt.sign", tenantId, "type", type);
+    }
 }
@@ -26,29 +26,23 @@ public class CustomUserDetailsService implements UserDetailsService {
             throw new UsernameNotFoundException("User is not active");
         }
         
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getEmail())
-                .password(user.getPassword() != null ? user.getPassword() : "{noop}")
-                .authorities(user.getRoles().stream()
-                        .map(SimpleGrantedAuthority::new)
-                        .collect(Collectors.toList()))
-                .accountExpired(false)
-                .accountLocked(!user.getActive())
-                .credentialsExpired(false)
-                .disabled(!user.getActive())
-                .build();
+        return toUserDetails(user);
     }
     
     public UserDetails loadUserById(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + userId));
         
+        return toUserDetails(user);
+    }
+    
+    static UserDetails toUserDetails(User user) {
         return org.springframework.security.core.userdetails.User.builder()
                 .username(user.getEmail())
                 .password(user.getPassword() != null ? user.getPassword() : "{noop}")
                 .authorities(user.getRoles().stream()
                         .map(SimpleGrantedAuthority::new)
-                        .collect(java.util.stream.Collectors.toList()))
+                        .collect(Collectors.toList()))
                 .accountExpired(false)
                 .accountLocked(!user.getActive())
                 .credentialsExpired(false)
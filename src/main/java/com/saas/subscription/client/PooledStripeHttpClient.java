@@ -0,0 +1,68 @@
+package com.saas.subscription.client;
+
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.net.HttpClient;
+import com.stripe.net.HttpContent;
+import com.stripe.net.HttpHeaders;
+import com.stripe.net.StripeRequest;
+import com.stripe.net.StripeResponse;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Stripe transport on a shared {@link java.net.http.HttpClient}, so all calls reuse one
+ * keep-alive connection pool instead of the SDK's per-request {@code HttpURLConnection}.
+ * The read timeout of each request (client default or per-operation override) bounds the
+ * whole exchange.
+ */
+public class PooledStripeHttpClient extends HttpClient {
+
+    private final java.net.http.HttpClient httpClient;
+
+    public PooledStripeHttpClient(java.net.http.HttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    @Override
+    public StripeResponse request(StripeRequest request) throws ApiConnectionException {
+        HttpRequest.Builder builder;
+        try {
+            builder = HttpRequest.newBuilder(request.url().toURI());
+        } catch (URISyntaxException e) {
+            throw new ApiConnectionException("Invalid Stripe URL: " + request.url(), e);
+        }
+
+        Integer readTimeout = request.options().getReadTimeout();
+        if (readTimeout != null && readTimeout > 0) {
+            builder.timeout(Duration.ofMillis(readTimeout));
+        }
+        builder.header("User-Agent", buildUserAgentString())
+                .header("X-Stripe-Client-User-Agent", buildXStripeClientUserAgentString());
+        request.headers().map().forEach((name, values) -> values.forEach(value -> builder.header(name, value)));
+
+        HttpContent content = request.content();
+        switch (request.method()) {
+            case GET -> builder.GET();
+            case DELETE -> builder.DELETE();
+            case POST -> builder.header("Content-Type", content.contentType())
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(content.byteArrayContent()));
+        }
+
+        try {
+            HttpResponse<String> response = httpClient.send(builder.build(),
+                    HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+            return new StripeResponse(response.statusCode(), HttpHeaders.of(response.headers().map()), response.body());
+        } catch (IOException e) {
+            throw new ApiConnectionException("IOException during API request to Stripe (" + request.url() + "): "
+                    + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiConnectionException("Interrupted during API request to Stripe", e);
+        }
+    }
+}
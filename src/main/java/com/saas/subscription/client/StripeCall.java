@@ -0,0 +1,10 @@
+package com.saas.subscription.client;
+
+import com.stripe.exception.StripeException;
+import com.stripe.net.RequestOptions;
+
+@FunctionalInterface
+public interface StripeCall<T> {
+
+    T execute(RequestOptions options) throws StripeException;
+}
@@ -0,0 +1,109 @@
+package com.saas.subscription.client;
+
+import com.saas.common.metrics.RequestTimings;
+import com.saas.common.metrics.TenantMetricTags;
+import com.saas.subscription.config.StripeClientProperties;
+import com.saas.tenant.config.TenantContext;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.StripeException;
+import com.stripe.net.RequestOptions;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Runs every outbound Stripe call through the bulkhead and circuit breaker, applies the
+ * operation's timeout and idempotency key, and records {@code stripe.client.requests}
+ * timers tagged by operation, outcome and the calling tenant, if any. Rejections surface as
+ * {@link ApiConnectionException} so callers handle them like any other network failure.
+ */
+@Component
+@RequiredArgsConstructor
+public class StripeGateway {
+
+    private final StripeClientProperties properties;
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
+    private final TenantMetricTags tenantMetricTags;
+
+    public <T> T read(String operation, StripeCall<T> call) throws StripeException {
+        return call(operation, null, call);
+    }
+
+    public <T> T write(String operation, StripeCall<T> call) throws StripeException {
+        return call(operation, UUID.randomUUID().toString(), call);
+    }
+
+    /**
+     * @param idempotencyKey sent with the request and reused by the SDK's network retries;
+     *                       pass a key derived from the business operation to make caller
+     *                       retries safe as well
+     */
+    public <T> T write(String operation, String idempotencyKey, StripeCall<T> call) throws StripeException {
+        return call(operation, idempotencyKey, call);
+    }
+
+    private <T> T call(String operation, String idempotencyKey, StripeCall<T> call) throws StripeException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            bulkhead.acquirePermission();
+        } catch (BulkheadFullException e) {
+            RequestTimings.record(RequestTimings.Stage.STRIPE, sample.stop(timer(operation, "rejected")));
+            throw new ApiConnectionException("Too many concurrent Stripe calls", e);
+        }
+
+        try {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                outcome = "circuit_open";
+                throw new ApiConnectionException("Stripe circuit breaker is open");
+            }
+            long start = circuitBreaker.getCurrentTimestamp();
+            try {
+                T result = call.execute(options(operation, idempotencyKey));
+                circuitBreaker.onSuccess(circuitBreaker.getCurrentTimestamp() - start, circuitBreaker.getTimestampUnit());
+                return result;
+            } catch (StripeException | RuntimeException e) {
+                circuitBreaker.onError(circuitBreaker.getCurrentTimestamp() - start, circuitBreaker.getTimestampUnit(), e);
+                outcome = outcomeOf(e);
+                throw e;
+            }
+        } finally {
+            bulkhead.onComplete();
+            RequestTimings.record(RequestTimings.Stage.STRIPE, sample.stop(timer(operation, outcome)));
+        }
+    }
+
+    private RequestOptions options(String operation, String idempotencyKey) {
+        Duration timeout = properties.getTimeouts().getOrDefault(operation, properties.getReadTimeout());
+        RequestOptions.RequestOptionsBuilder options = RequestOptions.builder().setReadTimeout((int) timeout.toMillis());
+        if (idempotencyKey != null) {
+            options.setIdempotencyKey(idempotencyKey);
+        }
+        return options.build();
+    }
+
+    private Timer timer(String operation, String outcome) {
+        return tenantMetricTags.histogramTimer("stripe.client.requests", TenantContext.getCurrentTenantDbId(),
+                "operation", operation, "outcome", outcome);
+    }
+
+    private static String outcomeOf(Exception e) {
+        if (!(e instanceof StripeException stripe) || stripe.getStatusCode() == null) {
+            return "network_error";
+        }
+        int status = stripe.getStatusCode();
+        if (status == 429) {
+            return "rate_limited";
+        }
+        return status >= 500 ? "server_error" : "client_error";
+    }
+}
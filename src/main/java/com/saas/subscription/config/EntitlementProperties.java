@@ -0,0 +1,37 @@
+package com.saas.subscription.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * What each plan allows, keyed by the value stored in {@code Tenant.subscriptionPlan}
+ * (the Stripe price id). Tenants without a usable subscription get {@code default-plan}.
+ */
+@Component
+@ConfigurationProperties(prefix = "entitlements")
+@Data
+public class EntitlementProperties {
+
+    private String defaultPlan = "free";
+
+    /** How long a past-due or unrenewed subscription keeps its plan after the period ends. */
+    private Duration gracePeriod = Duration.ofDays(3);
+
+    private Duration resyncInterval = Duration.ofMinutes(10);
+
+    private Map<String, Plan> plans = new HashMap<>();
+
+    @Data
+    public static class Plan {
+        private String name;
+        private Set<String> features = new HashSet<>();
+        private Map<String, Long> limits = new HashMap<>();
+    }
+}
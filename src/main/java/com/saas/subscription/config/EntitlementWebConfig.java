@@ -0,0 +1,19 @@
+package com.saas.subscription.config;
+
+import com.saas.subscription.filter.EntitlementInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class EntitlementWebConfig implements WebMvcConfigurer {
+
+    private final EntitlementInterceptor entitlementInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(entitlementInterceptor);
+    }
+}
@@ -0,0 +1,20 @@
+package com.saas.subscription.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps each usage metric to the metered Stripe price it is billed under. Usage of a
+ * tenant whose subscription has no item with that price is counted but not reported.
+ */
+@Component
+@ConfigurationProperties(prefix = "metering")
+@Data
+public class MeteringProperties {
+
+    private Map<String, String> prices = new HashMap<>();
+}
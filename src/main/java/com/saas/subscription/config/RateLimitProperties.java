@@ -0,0 +1,44 @@
+package com.saas.subscription.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * API request limits per plan, keyed by the plan name from {@code entitlements.plans}.
+ * Plans without an entry get {@code default-limit}.
+ */
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+@Data
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /** Upper bound on tracked tenants; the least recently used buckets are dropped first. */
+    private long maxTenants = 100_000;
+
+    /** Buckets idle this long are dropped; they would be full again by then anyway. */
+    private Duration idleExpiry = Duration.ofMinutes(10);
+
+    private Limit defaultLimit = new Limit();
+
+    private Map<String, Limit> plans = new HashMap<>();
+
+    public Limit limitFor(String plan) {
+        return plans.getOrDefault(plan, defaultLimit);
+    }
+
+    @Data
+    public static class Limit {
+        /** Sustained rate. */
+        private double requestsPerSecond = 10;
+
+        /** Requests that may be made at once after a quiet period. */
+        private int burst = 20;
+    }
+}
@@ -0,0 +1,134 @@
+package com.saas.subscription.config;
+
+import com.saas.subscription.client.PooledStripeHttpClient;
+import com.stripe.StripeClient;
+import com.stripe.exception.StripeException;
+import com.stripe.net.LiveStripeResponseGetter;
+import com.stripe.net.StripeResponseGetterOptions;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.PasswordAuthentication;
+import java.net.Proxy;
+import java.net.http.HttpClient;
+
+@Configuration
+public class StripeClientConfig {
+
+    private static final String NAME = "stripe";
+
+    @Bean
+    public StripeClient stripeClient(StripeClientProperties properties, @Value("${stripe.api-key}") String apiKey) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(properties.getConnectTimeout())
+                .build();
+        return new StripeClient(new LiveStripeResponseGetter(new Options(apiKey, properties),
+                new PooledStripeHttpClient(httpClient)));
+    }
+
+    @Bean
+    public CircuitBreaker stripeCircuitBreaker(StripeClientProperties properties, MeterRegistry meterRegistry) {
+        StripeClientProperties.CircuitBreaker settings = properties.getCircuitBreaker();
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(settings.getFailureRateThreshold())
+                .slowCallDurationThreshold(settings.getSlowCallThreshold())
+                .slowCallRateThreshold(settings.getSlowCallRateThreshold())
+                .slidingWindowSize(settings.getSlidingWindowSize())
+                .minimumNumberOfCalls(settings.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(settings.getWaitInOpenState())
+                // Declined cards and validation errors say nothing about Stripe's health
+                .recordException(StripeClientConfig::isOutage)
+                .build());
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry.circuitBreaker(NAME);
+    }
+
+    @Bean
+    public Bulkhead stripeBulkhead(StripeClientProperties properties, MeterRegistry meterRegistry) {
+        BulkheadRegistry registry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(properties.getBulkhead().getMaxConcurrentCalls())
+                .maxWaitDuration(properties.getBulkhead().getMaxWait())
+                .build());
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+        return registry.bulkhead(NAME);
+    }
+
+    static boolean isOutage(Throwable e) {
+        if (!(e instanceof StripeException stripe) || stripe.getStatusCode() == null) {
+            return true;
+        }
+        int status = stripe.getStatusCode();
+        return status >= 500 || status == 429;
+    }
+
+    private static final class Options extends StripeResponseGetterOptions {
+
+        private final String apiKey;
+        private final StripeClientProperties properties;
+
+        Options(String apiKey, StripeClientProperties properties) {
+            this.apiKey = apiKey;
+            this.properties = properties;
+        }
+
+        @Override
+        public String getApiKey() {
+            return apiKey;
+        }
+
+        @Override
+        public String getClientId() {
+            return null;
+        }
+
+        @Override
+        public int getConnectTimeout() {
+            return (int) properties.getConnectTimeout().toMillis();
+        }
+
+        @Override
+        public int getReadTimeout() {
+            return (int) properties.getReadTimeout().toMillis();
+        }
+
+        @Override
+        public int getMaxNetworkRetries() {
+            return properties.getMaxNetworkRetries();
+        }
+
+        @Override
+        public Proxy getConnectionProxy() {
+            return null;
+        }
+
+        @Override
+        public PasswordAuthentication getProxyCredential() {
+            return null;
+        }
+
+        @Override
+        public String getApiBase() {
+            return properties.getApiBase();
+        }
+
+        @Override
+        public String getFilesBase() {
+            return properties.getApiBase();
+        }
+
+        @Override
+        public String getConnectBase() {
+            return properties.getApiBase();
+        }
+    }
+}
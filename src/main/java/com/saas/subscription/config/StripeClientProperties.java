@@ -0,0 +1,51 @@
+package com.saas.subscription.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Network settings of the outbound Stripe client. {@code api-base} can point at a local
+ * stand-in; {@code timeouts} overrides the read timeout per operation, e.g.
+ * {@code subscriptions.create: 20s}.
+ */
+@Component
+@ConfigurationProperties(prefix = "stripe.client")
+@Data
+public class StripeClientProperties {
+
+    private String apiBase = "https://api.stripe.com";
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration readTimeout = Duration.ofSeconds(10);
+
+    /** Network retries done by the SDK; POSTs always carry an idempotency key. */
+    private int maxNetworkRetries = 2;
+
+    private Map<String, Duration> timeouts = new HashMap<>();
+
+    private Bulkhead bulkhead = new Bulkhead();
+
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    @Data
+    public static class Bulkhead {
+        private int maxConcurrentCalls = 20;
+        private Duration maxWait = Duration.ofMillis(100);
+    }
+
+    @Data
+    public static class CircuitBreaker {
+        private float failureRateThreshold = 50;
+        private Duration slowCallThreshold = Duration.ofSeconds(5);
+        private float slowCallRateThreshold = 80;
+        private int slidingWindowSize = 50;
+        private int minimumNumberOfCalls = 20;
+        private Duration waitInOpenState = Duration.ofSeconds(30);
+    }
+}
@@ -1,8 +1,7 @@
 package com.saas.subscription.controller;
 
-import com.saas.subscription.service.SubscriptionService;
+import com.saas.subscription.service.StripeWebhookInbox;
 import com.stripe.exception.SignatureVerificationException;
-import com.stripe.exception.StripeException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -15,22 +14,23 @@ import org.springframework.web.bind.annotation.*;
 @Slf4j
 public class StripeWebhookController {
     
-    private final SubscriptionService subscriptionService;
+    private final StripeWebhookInbox webhookInbox;
     
+    /**
+     * Only verifies and stores the event; it is applied asynchronously so Stripe gets its
+     * 2xx quickly. Redeliveries of an already stored event are acknowledged as well.
+     */
     @PostMapping
     public ResponseEntity<Void> handleWebhook(
             @RequestBody String payload,
             @RequestHeader("Stripe-Signature") String signature) {
         
         try {
-            subscriptionService.handleStripeWebhook(payload, signature);
+            webhookInbox.receive(payload, signature);
             return ResponseEntity.ok().build();
         } catch (SignatureVerificationException e) {
-            log.error("Invalid signature", e);
+            log.warn("Invalid Stripe webhook signature: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
-        } catch (StripeException e) {
-            log.error("Error processing webhook", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 }
@@ -1,5 +1,7 @@
 package com.saas.subscription.controller;
 
+import com.saas.common.exception.AuthenticationFailedException;
+import com.saas.security.filter.JwtAuthenticationFilter;
 import com.saas.subscription.dto.SubscriptionRequest;
 import com.saas.subscription.service.SubscriptionService;
 import com.stripe.exception.StripeException;
@@ -7,7 +9,6 @@ import com.stripe.model.Subscription;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
@@ -23,11 +24,10 @@ public class SubscriptionController {
     @PostMapping("/create")
     public ResponseEntity<?> createSubscription(
             @RequestBody SubscriptionRequest request,
-            Authentication authentication) {
+            @RequestAttribute(name = JwtAuthenticationFilter.TENANT_ID_ATTRIBUTE, required = false) Long tenantId) {
         
         try {
-            Long tenantId = getTenantIdFromAuthentication(authentication);
-            Subscription subscription = subscriptionService.createSubscription(tenantId, request);
+            Subscription subscription = subscriptionService.createSubscription(requireTenant(tenantId), request);
             
             return ResponseEntity.ok(Map.of(
                     "subscriptionId", subscription.getId(),
@@ -42,10 +42,10 @@ public class SubscriptionController {
     }
     
     @PostMapping("/cancel")
-    public ResponseEntity<?> cancelSubscription(Authentication authentication) {
+    public ResponseEntity<?> cancelSubscription(
+            @RequestAttribute(name = JwtAuthenticationFilter.TENANT_ID_ATTRIBUTE, required = false) Long tenantId) {
         try {
-            Long tenantId = getTenantIdFromAuthentication(authentication);
-            Subscription subscription = subscriptionService.cancelSubscription(tenantId);
+            Subscription subscription = subscriptionService.cancelSubscription(requireTenant(tenantId));
             
             return ResponseEntity.ok(Map.of(
                     "subscriptionId", subscription.getId(),
@@ -59,9 +59,11 @@ public class SubscriptionController {
         }
     }
     
-    private Long getTenantIdFromAuthentication(Authentication authentication) {
-        // Extract tenant ID from authentication
-        // This should be set in your JWT token
-        return null; // TODO: Implement
+    // Only set for access tokens carrying a tenant claim; anything else is not a tenant caller
+    private static Long requireTenant(Long tenantId) {
+        if (tenantId == null) {
+            throw new AuthenticationFailedException("Token does not identify a tenant");
+        }
+        return tenantId;
     }
 }
@@ -0,0 +1,62 @@
+package com.saas.subscription.controller;
+
+import com.saas.common.exception.ConflictException;
+import com.saas.subscription.dto.ReconciliationReport;
+import com.saas.subscription.service.SubscriptionReconciliationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/admin/subscriptions/reconciliation")
+@RequiredArgsConstructor
+@Tag(name = "Subscription reconciliation", description = "Compare tenant subscriptions with Stripe")
+@SecurityRequirement(name = "bearerAuth")
+public class SubscriptionReconciliationController {
+
+    private final SubscriptionReconciliationService reconciliationService;
+
+    @Operation(summary = "Start a reconciliation pass",
+            description = "Compares every tenant's subscription with Stripe in the background and corrects drift " +
+                    "(Super admin only). A dry run only reports what would change.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Pass started"),
+            @ApiResponse(responseCode = "403", description = "Access denied"),
+            @ApiResponse(responseCode = "409", description = "A pass is already running")
+    })
+    @PostMapping
+    @PreAuthorize("hasAuthority('SUPER_ADMIN')")
+    public ResponseEntity<Void> start(
+            @Parameter(description = "Report drift without correcting it") @RequestParam(defaultValue = "false") boolean dryRun) {
+        if (!reconciliationService.start(dryRun)) {
+            throw new ConflictException("A reconciliation pass is already running");
+        }
+        return ResponseEntity.accepted().build();
+    }
+
+    @Operation(summary = "Get the latest reconciliation report",
+            description = "Report of the running or most recent pass (Super admin only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Latest report"),
+            @ApiResponse(responseCode = "403", description = "Access denied"),
+            @ApiResponse(responseCode = "404", description = "No pass has run yet")
+    })
+    @GetMapping
+    @PreAuthorize("hasAuthority('SUPER_ADMIN')")
+    public ResponseEntity<ReconciliationReport> latest() {
+        return reconciliationService.latestReport()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,34 @@
+package com.saas.subscription.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable view of what a tenant may use right now. {@code validUntil} is when the
+ * snapshot stops applying (a cancelled subscription running out, a grace period ending);
+ * {@code null} means until the subscription changes.
+ */
+public record Entitlements(Long tenantId, String plan, String status, Set<String> features,
+                           Map<String, Long> limits, LocalDateTime validUntil) {
+
+    public Entitlements {
+        features = Set.copyOf(features);
+        limits = Map.copyOf(limits);
+    }
+
+    public boolean has(String feature) {
+        return features.contains(feature);
+    }
+
+    /**
+     * Returns the configured limit, or {@code null} when the plan does not cap it.
+     */
+    public Long limit(String name) {
+        return limits.get(name);
+    }
+
+    public boolean isExpired(LocalDateTime now) {
+        return validUntil != null && now.isAfter(validUntil);
+    }
+}
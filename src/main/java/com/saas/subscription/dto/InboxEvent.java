@@ -0,0 +1,7 @@
+package com.saas.subscription.dto;
+
+/**
+ * A leased Stripe webhook event; {@code attempt} counts this delivery attempt.
+ */
+public record InboxEvent(String eventId, String eventType, String customerId, String payload, int attempt) {
+}
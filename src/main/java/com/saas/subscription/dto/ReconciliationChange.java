@@ -0,0 +1,29 @@
+package com.saas.subscription.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A tenant whose subscription columns differ from Stripe, with both sides.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationChange {
+
+    private Long tenantId;
+    private String stripeCustomerId;
+    private String subscriptionId;
+    private String statusBefore;
+    private String statusAfter;
+    private String planBefore;
+    private String planAfter;
+    private LocalDateTime endDateBefore;
+    private LocalDateTime endDateAfter;
+    private boolean applied;
+}
@@ -0,0 +1,41 @@
+package com.saas.subscription.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Outcome of a reconciliation pass. {@code complete} is {@code false} when some Stripe
+ * pages could not be read; tenants are then only corrected, never reported as orphaned.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationReport {
+
+    private boolean dryRun;
+    private boolean running;
+    private boolean complete;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long durationMs;
+    private long stripeRequests;
+    private long subscriptionsScanned;
+    private long tenantsChecked;
+    private long drifted;
+    private long corrected;
+    /** Drifted tenants that changed concurrently, e.g. through a webhook, and were left alone. */
+    private long skipped;
+    /** Tenants with a Stripe customer but no subscription in Stripe. */
+    private long orphaned;
+    private String error;
+
+    @Builder.Default
+    private List<ReconciliationChange> changes = new CopyOnWriteArrayList<>();
+}
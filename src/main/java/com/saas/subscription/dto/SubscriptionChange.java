@@ -0,0 +1,7 @@
+package com.saas.subscription.dto;
+
+/**
+ * Payload of subscription domain events.
+ */
+public record SubscriptionChange(Long tenantId, String subscriptionId, String status, String plan) {
+}
@@ -0,0 +1,9 @@
+package com.saas.subscription.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Usage counted in memory since the last flush, for one tenant, metric and hour.
+ */
+public record UsageDelta(Long tenantId, String metric, LocalDateTime periodStart, long quantity) {
+}
@@ -0,0 +1,14 @@
+package com.saas.subscription.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A leased usage counter row; {@code quantity - reportedQuantity} is the increment to send.
+ */
+public record UsageReport(Long tenantId, String metric, LocalDateTime periodStart,
+                          long reportedQuantity, long quantity) {
+
+    public long increment() {
+        return quantity - reportedQuantity;
+    }
+}
@@ -0,0 +1,51 @@
+package com.saas.subscription.filter;
+
+import com.saas.common.exception.ForbiddenException;
+import com.saas.security.filter.JwtAuthenticationFilter;
+import com.saas.subscription.dto.Entitlements;
+import com.saas.subscription.service.EntitlementStore;
+import com.saas.tenant.config.TenantContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+@Component
+@RequiredArgsConstructor
+public class EntitlementInterceptor implements HandlerInterceptor {
+
+    private final EntitlementStore entitlementStore;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        RequiresEntitlement required = AnnotatedElementUtils.findMergedAnnotation(method.getMethod(), RequiresEntitlement.class);
+        if (required == null) {
+            required = AnnotatedElementUtils.findMergedAnnotation(method.getBeanType(), RequiresEntitlement.class);
+        }
+        if (required == null) {
+            return true;
+        }
+
+        Long tenantId = tenantOf(request);
+        if (tenantId == null) {
+            throw new ForbiddenException("No tenant for this request");
+        }
+        Entitlements entitlements = entitlementStore.get(tenantId);
+        if (!entitlements.has(required.value())) {
+            throw new ForbiddenException("The " + entitlements.plan() + " plan does not include " + required.value());
+        }
+        return true;
+    }
+
+    // The tenant in the access token wins over the X-Tenant-ID header
+    private Long tenantOf(HttpServletRequest request) {
+        Object fromToken = request.getAttribute(JwtAuthenticationFilter.TENANT_ID_ATTRIBUTE);
+        return fromToken instanceof Long id ? id : TenantContext.getCurrentTenantDbId();
+    }
+}
@@ -0,0 +1,20 @@
+package com.saas.subscription.filter;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Restricts a controller or handler method to tenants whose plan includes the feature.
+ * Checked by {@link EntitlementInterceptor} against the in-memory entitlement snapshot.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RequiresEntitlement {
+
+    /** Feature name as listed under {@code entitlements.plans.*.features}. */
+    String value();
+}
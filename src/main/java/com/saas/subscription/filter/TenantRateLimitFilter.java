@@ -0,0 +1,79 @@
+package com.saas.subscription.filter;
+
+import com.saas.security.filter.JwtAuthenticationFilter;
+import com.saas.subscription.config.RateLimitProperties;
+import com.saas.subscription.service.RateLimitDecision;
+import com.saas.subscription.service.TenantRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the per-tenant API rate limit and reports it in the {@code RateLimit-*} headers of
+ * the IETF draft. Keyed by the tenant of the access token, so a forged {@code X-Tenant-ID}
+ * cannot spend another tenant's budget. Rejections are written here directly as a problem
+ * response, without going through exception handling, and are not metered.
+ */
+@Component
+public class TenantRateLimitFilter extends OncePerRequestFilter {
+
+    private static final byte[] REJECTION_BODY =
+            "{\"type\":\"about:blank\",\"title\":\"Too Many Requests\",\"status\":429,\"detail\":\"API rate limit exceeded\"}"
+                    .getBytes(StandardCharsets.UTF_8);
+
+    private final TenantRateLimiter rateLimiter;
+    private final RateLimitProperties properties;
+    private final Counter rejections;
+
+    public TenantRateLimitFilter(TenantRateLimiter rateLimiter, RateLimitProperties properties,
+                                 MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.properties = properties;
+        this.rejections = meterRegistry.counter("api.rate_limit.rejections");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (!(request.getAttribute(JwtAuthenticationFilter.TENANT_ID_ATTRIBUTE) instanceof Long tenantId)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RateLimitDecision decision = rateLimiter.tryAcquire(tenantId);
+        response.setHeader("RateLimit-Limit", Long.toString(decision.limit()));
+        response.setHeader("RateLimit-Remaining", Long.toString(decision.remaining()));
+        response.setHeader("RateLimit-Reset", Long.toString(toSeconds(decision.resetNanos())));
+        if (decision.allowed()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        rejections.increment();
+        response.setStatus(429);
+        response.setHeader("Retry-After", Long.toString(Math.max(1, toSeconds(decision.retryAfterNanos()))));
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        response.setContentLength(REJECTION_BODY.length);
+        response.getOutputStream().write(REJECTION_BODY);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !properties.isEnabled() || !(path.startsWith("/api/") || path.startsWith("/graphql"));
+    }
+
+    private static long toSeconds(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+}
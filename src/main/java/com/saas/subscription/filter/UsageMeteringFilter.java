@@ -0,0 +1,51 @@
+package com.saas.subscription.filter;
+
+import com.saas.security.filter.JwtAuthenticationFilter;
+import com.saas.subscription.service.UsageMeter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Counts one {@link UsageMeter#API_REQUESTS} per REST or GraphQL request of a known tenant. Runs in
+ * the security chain after {@link JwtAuthenticationFilter} so the token's tenant is
+ * available, and after {@link TenantRateLimitFilter} so rejected requests are not billed.
+ * <p>
+ * Only the tenant of a valid access token is billed, never the client-supplied
+ * {@code X-Tenant-ID}, and requests answered with 401 or 403 are not counted; requests
+ * without a token (signup, login, webhooks) are not metered.
+ */
+@Component
+@RequiredArgsConstructor
+public class UsageMeteringFilter extends OncePerRequestFilter {
+
+    private final UsageMeter usageMeter;
+
+    @Value("${metering.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        filterChain.doFilter(request, response);
+
+        if (request.getAttribute(JwtAuthenticationFilter.TENANT_ID_ATTRIBUTE) instanceof Long tenantId
+                && response.getStatus() != HttpServletResponse.SC_UNAUTHORIZED
+                && response.getStatus() != HttpServletResponse.SC_FORBIDDEN) {
+            usageMeter.increment(tenantId, UsageMeter.API_REQUESTS);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !enabled || !(path.startsWith("/api/") || path.startsWith("/graphql"));
+    }
+}
@@ -0,0 +1,106 @@
+package com.saas.subscription.repository;
+
+import com.saas.subscription.dto.InboxEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class StripeWebhookInboxRepository {
+
+    private static final String INSERT = """
+            INSERT INTO public.stripe_webhook_inbox (event_id, event_type, customer_id, stripe_created_at, payload)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (event_id) DO NOTHING
+            """;
+
+    // Leases the oldest pending events. An event is only claimable when no older event of
+    // the same customer is still pending, so each customer has at most one event in flight.
+    private static final String CLAIM = """
+            UPDATE public.stripe_webhook_inbox i
+               SET locked_until = CURRENT_TIMESTAMP + make_interval(secs => ?), locked_by = ?, attempts = i.attempts + 1
+             WHERE i.event_id IN (
+                SELECT e.event_id FROM public.stripe_webhook_inbox e
+                 WHERE e.status = 'PENDING'
+                   AND e.next_attempt_at <= CURRENT_TIMESTAMP
+                   AND (e.locked_until IS NULL OR e.locked_until < CURRENT_TIMESTAMP)
+                   AND NOT EXISTS (SELECT 1 FROM public.stripe_webhook_inbox p
+                                    WHERE p.status = 'PENDING'
+                                      AND p.customer_id = e.customer_id
+                                      AND (p.stripe_created_at, p.event_id) < (e.stripe_created_at, e.event_id))
+                 ORDER BY e.stripe_created_at, e.event_id
+                 LIMIT ?
+                   FOR UPDATE SKIP LOCKED)
+            RETURNING i.event_id, i.event_type, i.customer_id, i.payload, i.attempts
+            """;
+
+    private static final String MARK_DONE = """
+            UPDATE public.stripe_webhook_inbox
+               SET status = 'DONE', processed_at = CURRENT_TIMESTAMP, locked_until = NULL, last_error = NULL
+             WHERE event_id = ?
+            """;
+
+    private static final String MARK_RETRY = """
+            UPDATE public.stripe_webhook_inbox
+               SET next_attempt_at = ?, locked_until = NULL, last_error = ?
+             WHERE event_id = ?
+            """;
+
+    private static final String MARK_DEAD = """
+            UPDATE public.stripe_webhook_inbox
+               SET status = 'DEAD', locked_until = NULL, last_error = ?
+             WHERE event_id = ?
+            """;
+
+    private static final String DELETE_PROCESSED = """
+            DELETE FROM public.stripe_webhook_inbox WHERE event_id IN (
+                SELECT event_id FROM public.stripe_webhook_inbox
+                 WHERE status = 'DONE' AND processed_at < ?
+                 LIMIT ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Returns {@code false} when the event was already in the inbox.
+     */
+    public boolean insert(String eventId, String eventType, String customerId, Instant createdAt, String payload) {
+        return jdbcTemplate.update(INSERT, eventId, eventType, customerId, Timestamp.from(createdAt), payload) > 0;
+    }
+
+    public List<InboxEvent> claim(int limit, Duration lease, String owner) {
+        return jdbcTemplate.query(CLAIM, (rs, rowNum) -> new InboxEvent(
+                rs.getString("event_id"),
+                rs.getString("event_type"),
+                rs.getString("customer_id"),
+                rs.getString("payload"),
+                rs.getInt("attempts")), lease.toSeconds(), owner, limit);
+    }
+
+    public void markDone(String eventId) {
+        jdbcTemplate.update(MARK_DONE, eventId);
+    }
+
+    public void markRetry(String eventId, LocalDateTime nextAttemptAt, String error) {
+        jdbcTemplate.update(MARK_RETRY, Timestamp.valueOf(nextAttemptAt), truncate(error), eventId);
+    }
+
+    public void markDead(String eventId, String error) {
+        jdbcTemplate.update(MARK_DEAD, truncate(error), eventId);
+    }
+
+    public int deleteProcessedBefore(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.update(DELETE_PROCESSED, Timestamp.valueOf(cutoff), limit);
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+    }
+}
@@ -0,0 +1,109 @@
+package com.saas.subscription.repository;
+
+import com.saas.subscription.dto.UsageDelta;
+import com.saas.subscription.dto.UsageReport;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class UsageCounterRepository {
+
+    // One statement for the whole flush; rows are sorted so concurrent flushes from
+    // several nodes lock them in the same order. The counters are only added when the
+    // flush id is new, so retrying a flush that did commit changes nothing.
+    private static final String UPSERT = """
+            WITH applied AS (
+                INSERT INTO public.usage_flushes (flush_id) VALUES (?)
+                ON CONFLICT DO NOTHING
+                RETURNING flush_id)
+            INSERT INTO public.usage_counters (tenant_id, metric, period_start, quantity)
+            SELECT d.* FROM unnest(?::bigint[], ?::varchar[], ?::timestamp[], ?::bigint[])
+                   AS d(tenant_id, metric, period_start, quantity)
+             WHERE EXISTS (SELECT 1 FROM applied)
+            ON CONFLICT (tenant_id, metric, period_start)
+            DO UPDATE SET quantity = usage_counters.quantity + EXCLUDED.quantity, updated_at = CURRENT_TIMESTAMP
+            """;
+
+    private static final String CLAIM = """
+            UPDATE public.usage_counters u
+               SET locked_until = CURRENT_TIMESTAMP + make_interval(secs => ?),
+                   reporting_quantity = COALESCE(u.reporting_quantity, u.quantity)
+             WHERE (u.tenant_id, u.metric, u.period_start) IN (
+                SELECT c.tenant_id, c.metric, c.period_start FROM public.usage_counters c
+                 WHERE c.quantity > c.reported_quantity
+                   AND (c.locked_until IS NULL OR c.locked_until < CURRENT_TIMESTAMP)
+                 ORDER BY c.updated_at
+                 LIMIT ?
+                   FOR UPDATE SKIP LOCKED)
+            RETURNING u.tenant_id, u.metric, u.period_start, u.reported_quantity, u.reporting_quantity
+            """;
+
+    private static final String MARK_REPORTED = """
+            UPDATE public.usage_counters
+               SET reported_quantity = ?, reporting_quantity = NULL, locked_until = NULL
+             WHERE tenant_id = ? AND metric = ? AND period_start = ? AND reported_quantity = ?
+            """;
+
+    private static final String DELETE_REPORTED = """
+            DELETE FROM public.usage_counters
+             WHERE period_start < ? AND quantity = reported_quantity
+            """;
+
+    private static final String DELETE_FLUSHES = """
+            DELETE FROM public.usage_flushes WHERE applied_at < ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Adds {@code deltas} to the counters unless a flush with {@code flushId} was already applied.
+     */
+    public void add(UUID flushId, List<UsageDelta> deltas) {
+        List<UsageDelta> sorted = deltas.stream()
+                .sorted(Comparator.comparing(UsageDelta::tenantId)
+                        .thenComparing(UsageDelta::metric)
+                        .thenComparing(UsageDelta::periodStart))
+                .toList();
+        jdbcTemplate.update(connection -> {
+            var statement = connection.prepareStatement(UPSERT);
+            statement.setObject(1, flushId);
+            statement.setArray(2, connection.createArrayOf("bigint", sorted.stream().map(UsageDelta::tenantId).toArray()));
+            statement.setArray(3, connection.createArrayOf("varchar", sorted.stream().map(UsageDelta::metric).toArray()));
+            statement.setArray(4, connection.createArrayOf("timestamp",
+                    sorted.stream().map(delta -> Timestamp.valueOf(delta.periodStart())).toArray()));
+            statement.setArray(5, connection.createArrayOf("bigint", sorted.stream().map(UsageDelta::quantity).toArray()));
+            return statement;
+        });
+    }
+
+    public List<UsageReport> claim(int limit, Duration lease) {
+        return jdbcTemplate.query(CLAIM, (rs, rowNum) -> new UsageReport(
+                rs.getLong("tenant_id"),
+                rs.getString("metric"),
+                rs.getTimestamp("period_start").toLocalDateTime(),
+                rs.getLong("reported_quantity"),
+                rs.getLong("reporting_quantity")), lease.toSeconds(), limit);
+    }
+
+    public void markReported(UsageReport report) {
+        jdbcTemplate.update(MARK_REPORTED, report.quantity(), report.tenantId(), report.metric(),
+                Timestamp.valueOf(report.periodStart()), report.reportedQuantity());
+    }
+
+    public int deleteReportedBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update(DELETE_REPORTED, Timestamp.valueOf(cutoff));
+    }
+
+    public int deleteFlushesBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update(DELETE_FLUSHES, Timestamp.valueOf(cutoff));
+    }
+}
@@ -0,0 +1,135 @@
+package com.saas.subscription.service;
+
+import com.saas.common.transaction.TransactionHooks;
+import com.saas.subscription.config.EntitlementProperties;
+import com.saas.subscription.dto.Entitlements;
+import com.saas.tenant.entity.Tenant;
+import com.saas.tenant.repository.TenantRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Entitlement snapshot per tenant, derived from the subscription columns of {@link Tenant}.
+ * Lookups are a single map read; snapshots are replaced after commit whenever the
+ * subscription changes, and rebuilt from the database every {@code resync-interval} to
+ * pick up changes made outside the application.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EntitlementStore {
+
+    private static final Set<String> ACTIVE_STATUSES = Set.of("active", "trialing");
+    private static final Set<String> LAPSING_STATUSES = Set.of("past_due", "cancelled", "canceled", "unpaid");
+
+    private final TenantRepository tenantRepository;
+    private final EntitlementProperties properties;
+    private final Map<Long, Entitlements> snapshots = new ConcurrentHashMap<>();
+    private final AtomicLong refreshes = new AtomicLong();
+
+    public Entitlements get(Long tenantId) {
+        Entitlements current = snapshots.get(tenantId);
+        if (current == null) {
+            // Only tenants created on another node since the last resync end up here
+            Entitlements loaded = tenantRepository.findById(tenantId)
+                    .map(this::snapshotOf)
+                    .orElseGet(() -> fallback(tenantId, null));
+            Entitlements raced = snapshots.putIfAbsent(tenantId, loaded);
+            current = raced != null ? raced : loaded;
+        }
+        if (current.isExpired(LocalDateTime.now())) {
+            Entitlements lapsed = fallback(tenantId, current.status());
+            snapshots.replace(tenantId, current, lapsed);
+            current = lapsed;
+        }
+        return current;
+    }
+
+    /**
+     * Returns the snapshot in memory without loading or expiring it, or {@code null}.
+     */
+    public Entitlements peek(Long tenantId) {
+        return snapshots.get(tenantId);
+    }
+
+    /**
+     * Replaces the tenant's snapshot once the surrounding transaction commits.
+     */
+    public void refresh(Tenant tenant) {
+        Entitlements updated = snapshotOf(tenant);
+        TransactionHooks.afterCommit(() -> {
+            snapshots.put(updated.tenantId(), updated);
+            refreshes.incrementAndGet();
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${entitlements.resync-interval:PT10M}",
+            fixedDelayString = "${entitlements.resync-interval:PT10M}")
+    public void resync() {
+        long refreshesBefore = refreshes.get();
+        Map<Long, Entitlements> loaded = new HashMap<>();
+        for (Tenant tenant : tenantRepository.findAll()) {
+            loaded.put(tenant.getId(), snapshotOf(tenant));
+        }
+
+        if (refreshes.get() == refreshesBefore) {
+            snapshots.putAll(loaded);
+            snapshots.keySet().retainAll(loaded.keySet());
+        } else {
+            // A subscription changed while loading; keep those fresher snapshots until next time
+            loaded.forEach(snapshots::putIfAbsent);
+        }
+        log.debug("Loaded entitlements for {} tenants", loaded.size());
+    }
+
+    Entitlements snapshotOf(Tenant tenant) {
+        EntitlementProperties.Plan plan = tenant.getSubscriptionPlan() != null
+                ? properties.getPlans().get(tenant.getSubscriptionPlan())
+                : null;
+        String status = tenant.getSubscriptionStatus();
+        if (plan == null || status == null || Boolean.TRUE.equals(tenant.getDeleted())) {
+            return fallback(tenant.getId(), status);
+        }
+
+        LocalDateTime periodEnd = tenant.getSubscriptionEndDate();
+        LocalDateTime validUntil;
+        if (ACTIVE_STATUSES.contains(status)) {
+            validUntil = periodEnd != null ? periodEnd.plus(properties.getGracePeriod()) : null;
+        } else if (LAPSING_STATUSES.contains(status) && periodEnd != null) {
+            validUntil = status.equals("past_due") ? periodEnd.plus(properties.getGracePeriod()) : periodEnd;
+        } else {
+            return fallback(tenant.getId(), status);
+        }
+
+        if (validUntil != null && LocalDateTime.now().isAfter(validUntil)) {
+            return fallback(tenant.getId(), status);
+        }
+        return new Entitlements(tenant.getId(), planName(plan, tenant.getSubscriptionPlan()), status,
+                plan.getFeatures(), plan.getLimits(), validUntil);
+    }
+
+    private Entitlements fallback(Long tenantId, String status) {
+        EntitlementProperties.Plan plan = properties.getPlans().get(properties.getDefaultPlan());
+        if (plan == null) {
+            return new Entitlements(tenantId, properties.getDefaultPlan(), status, Set.of(), Map.of(), null);
+        }
+        return new Entitlements(tenantId, planName(plan, properties.getDefaultPlan()), status,
+                plan.getFeatures(), plan.getLimits(), null);
+    }
+
+    private static String planName(EntitlementProperties.Plan plan, String key) {
+        return plan.getName() != null ? plan.getName() : key;
+    }
+}
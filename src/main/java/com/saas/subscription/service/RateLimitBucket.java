@@ -0,0 +1,54 @@
+package com.saas.subscription.service;
+
+import com.saas.subscription.config.RateLimitProperties;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket implemented as GCRA: the whole state is one theoretical arrival time,
+ * advanced with a CAS per admitted request. Rejections only read it.
+ */
+final class RateLimitBucket {
+
+    private final RateLimitProperties.Limit limit;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong arrival;
+
+    RateLimitBucket(RateLimitProperties.Limit limit, long now) {
+        this.limit = limit;
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / limit.getRequestsPerSecond()));
+        this.toleranceNanos = intervalNanos * Math.max(1, limit.getBurst());
+        this.arrival = new AtomicLong(now);
+    }
+
+    /**
+     * Same bucket under a new limit, keeping how much of it has been used.
+     */
+    RateLimitBucket withLimit(RateLimitProperties.Limit updated) {
+        RateLimitBucket bucket = new RateLimitBucket(updated, 0);
+        bucket.arrival.set(arrival.get());
+        return bucket;
+    }
+
+    RateLimitProperties.Limit limit() {
+        return limit;
+    }
+
+    RateLimitDecision tryAcquire(long now) {
+        while (true) {
+            long current = arrival.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long backlog = next - now;
+            if (backlog > toleranceNanos) {
+                return new RateLimitDecision(false, limit.getBurst(), 0,
+                        Math.max(current, now) - now, backlog - toleranceNanos);
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return new RateLimitDecision(true, limit.getBurst(),
+                        (toleranceNanos - backlog) / intervalNanos, backlog, 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.saas.subscription.service;
+
+/**
+ * Outcome of a rate limit check. {@code resetNanos} is how long until the bucket is full
+ * again, {@code retryAfterNanos} how long a rejected caller has to wait.
+ */
+public record RateLimitDecision(boolean allowed, long limit, long remaining, long resetNanos, long retryAfterNanos) {
+}
@@ -1,9 +1,13 @@
 package com.saas.subscription.service;
 
-import com.stripe.Stripe;
+import com.saas.subscription.client.StripeCall;
+import com.saas.subscription.client.StripeGateway;
+import com.stripe.StripeClient;
+import com.stripe.exception.SignatureVerificationException;
 import com.stripe.exception.StripeException;
 import com.stripe.model.*;
 import com.stripe.model.checkout.Session;
+import com.stripe.net.Webhook;
 import com.stripe.param.*;
 import com.stripe.param.checkout.SessionCreateParams;
 import lombok.extern.slf4j.Slf4j;
@@ -11,29 +15,38 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.Map;
+import java.util.Optional;
 
+/**
+ * Outbound Stripe operations. Every call goes through {@link StripeGateway}; writes carry
+ * an idempotency key, either a random one per call or one supplied by the caller.
+ */
 @Service
 @Slf4j
 public class StripeService {
     
-    @Value("${stripe.api-key}")
-    private String stripeApiKey;
+    private final StripeClient stripeClient;
+    private final StripeGateway gateway;
     
     @Value("${stripe.webhook-secret}")
     private String webhookSecret;
     
-    public StripeService(@Value("${stripe.api-key}") String stripeApiKey) {
-        this.stripeApiKey = stripeApiKey;
-        Stripe.apiKey = stripeApiKey;
+    public StripeService(StripeClient stripeClient, StripeGateway gateway) {
+        this.stripeClient = stripeClient;
+        this.gateway = gateway;
     }
     
     public Customer createCustomer(String email, String name) throws StripeException {
+        return createCustomer(email, name, null);
+    }
+    
+    public Customer createCustomer(String email, String name, String idempotencyKey) throws StripeException {
         CustomerCreateParams params = CustomerCreateParams.builder()
                 .setEmail(email)
                 .setName(name)
                 .build();
         
-        return Customer.create(params);
+        return write("customers.create", idempotencyKey, options -> stripeClient.customers().create(params, options));
     }
     
     public Customer updateCustomer(String customerId, Map<String, String> metadata) throws StripeException {
@@ -41,10 +54,14 @@ public class StripeService {
                 .putAllMetadata(metadata)
                 .build();
         
-        return Customer.retrieve(customerId).update(params);
+        return write("customers.update", null, options -> stripeClient.customers().update(customerId, params, options));
     }
     
     public Subscription createSubscription(String customerId, String priceId) throws StripeException {
+        return createSubscription(customerId, priceId, null);
+    }
+    
+    public Subscription createSubscription(String customerId, String priceId, String idempotencyKey) throws StripeException {
         SubscriptionCreateParams params = SubscriptionCreateParams.builder()
                 .setCustomer(customerId)
                 .addItem(SubscriptionCreateParams.Item.builder()
@@ -57,15 +74,87 @@ public class StripeService {
                         .build())
                 .build();
         
-        return Subscription.create(params);
+        return write("subscriptions.create", idempotencyKey, options -> stripeClient.subscriptions().create(params, options));
     }
     
     public Subscription getSubscription(String subscriptionId) throws StripeException {
-        return Subscription.retrieve(subscriptionId);
+        return gateway.read("subscriptions.retrieve", options -> stripeClient.subscriptions().retrieve(subscriptionId, options));
+    }
+    
+    public StripeCollection<Subscription> listSubscriptions(SubscriptionListParams params) throws StripeException {
+        return gateway.read("subscriptions.list", options -> stripeClient.subscriptions().list(params, options));
+    }
+    
+    /**
+     * Id of the customer's most recent subscription, for tenants that subscribed before
+     * the id was stored locally.
+     */
+    public Optional<String> findSubscriptionId(String customerId) throws StripeException {
+        SubscriptionListParams params = SubscriptionListParams.builder()
+                .setCustomer(customerId)
+                .setLimit(1L)
+                .build();
+        
+        return gateway.read("subscriptions.list", options -> stripeClient.subscriptions().list(params, options))
+                .getData().stream()
+                .findFirst()
+                .map(Subscription::getId);
+    }
+    
+    /**
+     * Id of the subscription's item billed under the given price, if any.
+     */
+    public Optional<String> findSubscriptionItemId(String subscriptionId, String priceId) throws StripeException {
+        SubscriptionItemListParams params = SubscriptionItemListParams.builder()
+                .setSubscription(subscriptionId)
+                .setLimit(100L)
+                .build();
+        
+        return gateway.read("subscription_items.list", options -> stripeClient.subscriptionItems().list(params, options))
+                .getData().stream()
+                .filter(item -> item.getPrice() != null && priceId.equals(item.getPrice().getId()))
+                .findFirst()
+                .map(SubscriptionItem::getId);
+    }
+    
+    /**
+     * Price of the subscription's licensed item, which is the tenant's plan. Metered items,
+     * such as the one usage is reported under, are skipped.
+     */
+    public static Optional<String> planPriceId(Subscription subscription) {
+        if (subscription.getItems() == null || subscription.getItems().getData() == null) {
+            return Optional.empty();
+        }
+        return subscription.getItems().getData().stream()
+                .map(SubscriptionItem::getPrice)
+                .filter(price -> price != null && (price.getRecurring() == null
+                        || !"metered".equals(price.getRecurring().getUsageType())))
+                .map(Price::getId)
+                .findFirst();
+    }
+    
+    /**
+     * Subscription status as stored on the tenant. Stripe spells it {@code canceled}; tenants
+     * have always been stored as {@code cancelled}.
+     */
+    public static String tenantStatus(Subscription subscription) {
+        return "canceled".equals(subscription.getStatus()) ? "cancelled" : subscription.getStatus();
+    }
+    
+    public UsageRecord reportUsage(String subscriptionItemId, long quantity, String idempotencyKey) throws StripeException {
+        SubscriptionItemUsageRecordCreateParams params = SubscriptionItemUsageRecordCreateParams.builder()
+                .setQuantity(quantity)
+                .setAction(SubscriptionItemUsageRecordCreateParams.Action.INCREMENT)
+                .setTimestamp(SubscriptionItemUsageRecordCreateParams.Timestamp.NOW)
+                .build();
+        
+        return write("usage_records.create", idempotencyKey,
+                options -> stripeClient.subscriptionItems().usageRecords().create(subscriptionItemId, params, options));
     }
     
     public Subscription cancelSubscription(String subscriptionId) throws StripeException {
-        return Subscription.retrieve(subscriptionId).cancel();
+        return write("subscriptions.cancel", "cancel-" + subscriptionId,
+                options -> stripeClient.subscriptions().cancel(subscriptionId, options));
     }
     
     public Session createCheckoutSession(String customerId, String priceId, String successUrl, 
@@ -82,11 +171,14 @@ public class StripeService {
                         .build())
                 .build();
         
-        return Session.create(params);
+        return write("checkout.sessions.create", null, options -> stripeClient.checkout().sessions().create(params, options));
+    }
+    
+    public Event constructEvent(String payload, String sigHeader) throws SignatureVerificationException {
+        return Webhook.constructEvent(payload, sigHeader, webhookSecret);
     }
     
-    public Event constructEvent(String payload, String sigHeader) throws StripeException {
-//        return Event.constructFrom(payload, sigHeader, webhookSecret);
-        return null; // Placeholder as Stripe Java SDK does not have this exact method
+    private <T> T write(String operation, String idempotencyKey, StripeCall<T> call) throws StripeException {
+        return idempotencyKey != null ? gateway.write(operation, idempotencyKey, call) : gateway.write(operation, call);
     }
 }
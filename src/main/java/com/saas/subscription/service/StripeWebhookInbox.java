@@ -0,0 +1,51 @@
+package com.saas.subscription.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saas.subscription.repository.StripeWebhookInboxRepository;
+import com.stripe.exception.SignatureVerificationException;
+import com.stripe.model.Event;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Receiving side of Stripe webhooks: verifies the signature and stores the raw event,
+ * nothing else. Processing happens in {@link StripeWebhookProcessor}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StripeWebhookInbox {
+
+    private final StripeService stripeService;
+    private final StripeWebhookInboxRepository inboxRepository;
+    private final ObjectMapper objectMapper;
+
+    public void receive(String payload, String signature) throws SignatureVerificationException {
+        Event event = stripeService.constructEvent(payload, signature);
+
+        boolean stored = inboxRepository.insert(event.getId(), event.getType(), customerId(event),
+                Instant.ofEpochSecond(event.getCreated()), payload);
+        if (!stored) {
+            log.debug("Ignoring duplicate Stripe event {}", event.getId());
+        }
+    }
+
+    // Customer the event belongs to, used to keep each customer's events in order
+    private String customerId(Event event) {
+        try {
+            JsonNode object = objectMapper.readTree(event.getDataObjectDeserializer().getRawJson());
+            if ("customer".equals(object.path("object").asText())) {
+                return object.path("id").asText(null);
+            }
+            JsonNode customer = object.path("customer");
+            return customer.isTextual() ? customer.asText() : customer.path("id").asText(null);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+}
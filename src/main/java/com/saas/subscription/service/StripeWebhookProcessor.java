@@ -0,0 +1,146 @@
+package com.saas.subscription.service;
+
+import com.saas.subscription.dto.InboxEvent;
+import com.saas.subscription.repository.StripeWebhookInboxRepository;
+import com.stripe.model.Event;
+import com.stripe.net.ApiResource;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Works off the Stripe webhook inbox on a dedicated pool. The dispatcher leases no more
+ * events than there are idle workers; each event is handled and marked done in one
+ * transaction, failures are retried with exponential backoff and end up {@code DEAD}
+ * after {@code stripe.webhooks.max-attempts}. A lease that outlives a crashed worker
+ * simply expires and the event is picked up again.
+ */
+@Component
+@Slf4j
+public class StripeWebhookProcessor {
+
+    private final StripeWebhookInboxRepository inboxRepository;
+    private final SubscriptionService subscriptionService;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService workers;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final int workerCount;
+    private final String owner;
+
+    @Value("${stripe.webhooks.lease:2m}")
+    private Duration lease;
+
+    @Value("${stripe.webhooks.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${stripe.webhooks.initial-backoff:5s}")
+    private Duration initialBackoff;
+
+    @Value("${stripe.webhooks.max-backoff:1h}")
+    private Duration maxBackoff;
+
+    @Value("${stripe.webhooks.retention:30d}")
+    private Duration retention;
+
+    public StripeWebhookProcessor(StripeWebhookInboxRepository inboxRepository,
+                                  SubscriptionService subscriptionService,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${stripe.webhooks.workers:4}") int workerCount) {
+        this.inboxRepository = inboxRepository;
+        this.subscriptionService = subscriptionService;
+        this.transactionTemplate = transactionTemplate;
+        this.workerCount = workerCount;
+        this.workers = Executors.newFixedThreadPool(workerCount, new CustomizableThreadFactory("stripe-webhook-"));
+        this.owner = hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @Scheduled(fixedDelayString = "${stripe.webhooks.poll-interval-ms:250}")
+    public void dispatch() {
+        int idle = workerCount - inFlight.get();
+        if (idle <= 0) {
+            return;
+        }
+
+        List<InboxEvent> claimed = inboxRepository.claim(idle, lease, owner);
+        for (InboxEvent event : claimed) {
+            inFlight.incrementAndGet();
+            workers.execute(() -> {
+                try {
+                    process(event);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    @Scheduled(cron = "${stripe.webhooks.cleanup-cron:0 45 * * * *}")
+    public void deleteProcessed() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        while (inboxRepository.deleteProcessedBefore(cutoff, 1000) == 1000) {
+            // keep deleting in bounded chunks
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+            // Unfinished events keep their lease and are retried after it expires
+            workers.shutdownNow();
+        }
+    }
+
+    private void process(InboxEvent inboxEvent) {
+        try {
+            Event event = ApiResource.GSON.fromJson(inboxEvent.payload(), Event.class);
+            transactionTemplate.executeWithoutResult(status -> {
+                subscriptionService.handleStripeEvent(event);
+                inboxRepository.markDone(inboxEvent.eventId());
+            });
+        } catch (RuntimeException e) {
+            fail(inboxEvent, e);
+        }
+    }
+
+    private void fail(InboxEvent event, RuntimeException e) {
+        String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        if (event.attempt() >= maxAttempts) {
+            log.error("Stripe event {} ({}) is dead after {} attempts: {}",
+                    event.eventId(), event.eventType(), event.attempt(), error);
+            inboxRepository.markDead(event.eventId(), error);
+            return;
+        }
+
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(event.attempt() - 1, 20));
+        if (delay.compareTo(maxBackoff) > 0) {
+            delay = maxBackoff;
+        }
+        log.warn("Stripe event {} ({}) failed on attempt {}, retrying in {}: {}",
+                event.eventId(), event.eventType(), event.attempt(), delay, error);
+        inboxRepository.markRetry(event.eventId(), LocalDateTime.now().plus(delay), error);
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,434 @@
+package com.saas.subscription.service;
+
+import com.saas.outbox.service.OutboxPublisher;
+import com.saas.subscription.dto.ReconciliationChange;
+import com.saas.subscription.dto.ReconciliationReport;
+import com.saas.subscription.dto.SubscriptionChange;
+import com.saas.tenant.service.TenantVersionCache;
+import com.stripe.exception.StripeException;
+import com.stripe.model.StripeCollection;
+import com.stripe.model.Subscription;
+import com.stripe.param.SubscriptionListParams;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+/**
+ * Brings the subscription columns of {@code tenants} back in line with Stripe, for
+ * events that were missed or applied out of order.
+ * <p>
+ * Stripe only pages subscriptions sequentially, so the creation-time range is split into
+ * windows that are paged concurrently by {@code reconciliation.parallelism} workers, all
+ * sharing one rate limiter. Tenants are then read in keyset pages and corrections are
+ * written in batches. Each update only applies if the row is unchanged since it was read,
+ * so a webhook arriving meanwhile always wins. {@code tenants} is read from the shared
+ * schema, {@code tenancy.shared-schema}, which is also where JPA resolves it outside a
+ * tenant (webhooks, {@link EntitlementStore}, usage reporting).
+ */
+@Service
+@Slf4j
+public class SubscriptionReconciliationService {
+
+    // Statuses that mean the subscription still governs the tenant's plan
+    private static final Set<String> LIVE_STATUSES = Set.of("active", "trialing", "past_due", "unpaid", "incomplete");
+
+    private static final Pattern SCHEMA_NAME = Pattern.compile("[a-z0-9_]+");
+
+    private static final String EARLIEST_CUSTOMER =
+            "SELECT min(created_at) FROM %1$s.tenants WHERE stripe_customer_id IS NOT NULL";
+
+    private static final String TENANT_PAGE = """
+            SELECT id, stripe_customer_id, stripe_subscription_id, subscription_status, subscription_plan,
+                   subscription_end_date, updated_at
+              FROM %1$s.tenants
+             WHERE stripe_customer_id IS NOT NULL AND deleted = false AND id > ?
+             ORDER BY id
+             LIMIT ?
+            """;
+
+    private static final String APPLY = """
+            UPDATE %1$s.tenants
+               SET subscription_status = ?, subscription_plan = ?, subscription_end_date = ?,
+                   stripe_subscription_id = ?, updated_at = CURRENT_TIMESTAMP
+             WHERE id = ? AND updated_at = ?
+            """;
+
+    private final StripeService stripeService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxPublisher outboxPublisher;
+    private final TenantVersionCache tenantVersionCache;
+    private final EntitlementStore entitlementStore;
+    private final RateLimiter rateLimiter;
+    private final String earliestCustomerSql;
+    private final String tenantPageSql;
+    private final String applySql;
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("reconciliation-"));
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicReference<ReconciliationReport> latest = new AtomicReference<>();
+
+    @Value("${reconciliation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${reconciliation.parallelism:4}")
+    private int parallelism;
+
+    @Value("${reconciliation.windows-per-worker:4}")
+    private int windowsPerWorker;
+
+    @Value("${reconciliation.tenant-page-size:1000}")
+    private int tenantPageSize;
+
+    @Value("${reconciliation.batch-size:500}")
+    private int batchSize;
+
+    @Value("${reconciliation.max-reported-changes:1000}")
+    private int maxReportedChanges;
+
+    public SubscriptionReconciliationService(StripeService stripeService,
+                                             JdbcTemplate jdbcTemplate,
+                                             TransactionTemplate transactionTemplate,
+                                             OutboxPublisher outboxPublisher,
+                                             TenantVersionCache tenantVersionCache,
+                                             EntitlementStore entitlementStore,
+                                             @Value("${reconciliation.requests-per-second:50}") int requestsPerSecond,
+                                             @Value("${tenancy.shared-schema:public}") String sharedSchema) {
+        this.stripeService = stripeService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.outboxPublisher = outboxPublisher;
+        this.tenantVersionCache = tenantVersionCache;
+        this.entitlementStore = entitlementStore;
+        this.rateLimiter = RateLimiter.of("stripe-reconciliation", RateLimiterConfig.custom()
+                .limitForPeriod(requestsPerSecond)
+                .limitRefreshPeriod(Duration.ofSeconds(1))
+                .timeoutDuration(Duration.ofMinutes(1))
+                .build());
+        if (!SCHEMA_NAME.matcher(sharedSchema).matches()) {
+            throw new IllegalArgumentException("Invalid schema name: " + sharedSchema);
+        }
+        String schema = "\"" + sharedSchema + "\"";
+        this.earliestCustomerSql = EARLIEST_CUSTOMER.formatted(schema);
+        this.tenantPageSql = TENANT_PAGE.formatted(schema);
+        this.applySql = APPLY.formatted(schema);
+    }
+
+    /**
+     * Starts a pass in the background. Returns {@code false} if one is already running.
+     */
+    public boolean start(boolean dryRun) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        // Shown until the pass finishes; the pass fills in its own copy, which is published once
+        latest.set(ReconciliationReport.builder().dryRun(dryRun).running(true).startedAt(startedAt).build());
+        runner.execute(() -> {
+            try {
+                run(dryRun, startedAt);
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    public Optional<ReconciliationReport> latestReport() {
+        return Optional.ofNullable(latest.get());
+    }
+
+    @Scheduled(cron = "${reconciliation.cron:0 0 4 * * *}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        if (!start(false)) {
+            log.info("Skipping scheduled reconciliation, a pass is already running");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+    }
+
+    private void run(boolean dryRun, LocalDateTime startedAt) {
+        ReconciliationReport report = ReconciliationReport.builder()
+                .dryRun(dryRun)
+                .running(true)
+                .startedAt(startedAt)
+                .build();
+        long started = System.nanoTime();
+        try {
+            StripeSnapshot snapshot = loadStripeSubscriptions();
+            report.setStripeRequests(snapshot.requests());
+            report.setSubscriptionsScanned(snapshot.scanned());
+            report.setComplete(snapshot.complete());
+            diffAndApply(snapshot, report);
+            if (report.getCorrected() > 0) {
+                entitlementStore.resync();
+            }
+        } catch (RuntimeException e) {
+            log.error("Subscription reconciliation failed", e);
+            report.setError(e.getMessage());
+        } finally {
+            report.setFinishedAt(LocalDateTime.now());
+            report.setDurationMs(Duration.ofNanos(System.nanoTime() - started).toMillis());
+            report.setRunning(false);
+            latest.set(report);
+            log.info("Subscription reconciliation{} finished in {} ms: {} subscriptions, {} tenants, {} drifted, "
+                            + "{} corrected, {} skipped, {} orphaned",
+                    dryRun ? " (dry run)" : "", report.getDurationMs(), report.getSubscriptionsScanned(),
+                    report.getTenantsChecked(), report.getDrifted(), report.getCorrected(), report.getSkipped(),
+                    report.getOrphaned());
+        }
+    }
+
+    private StripeSnapshot loadStripeSubscriptions() {
+        Timestamp earliest = jdbcTemplate.queryForObject(earliestCustomerSql, Timestamp.class);
+        Map<String, Subscription> byCustomer = new HashMap<>();
+        if (earliest == null) {
+            return new StripeSnapshot(byCustomer, 0, 0, true);
+        }
+
+        // A subscription is never older than its tenant; allow for clock skew on both ends
+        long from = earliest.toLocalDateTime().toEpochSecond(ZoneOffset.UTC) - Duration.ofDays(1).toSeconds();
+        long to = Instant.now().plus(1, ChronoUnit.HOURS).getEpochSecond();
+        int windows = Math.max(1, parallelism * windowsPerWorker);
+        long step = Math.max(1, (to - from + windows - 1) / windows);
+
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, new CustomizableThreadFactory("reconciliation-page-"));
+        try {
+            List<Future<WindowResult>> pages = new ArrayList<>();
+            for (long start = from; start < to; start += step) {
+                long windowStart = start;
+                long windowEnd = Math.min(start + step, to);
+                pages.add(workers.submit(() -> pageWindow(windowStart, windowEnd)));
+            }
+
+            // Each worker fills only its own result; they are combined here, on this thread
+            boolean complete = true;
+            long requests = 0;
+            long scanned = 0;
+            for (Future<WindowResult> page : pages) {
+                try {
+                    WindowResult window = page.get();
+                    window.byCustomer().forEach((customer, subscription) ->
+                            byCustomer.merge(customer, subscription, SubscriptionReconciliationService::preferred));
+                    requests += window.requests();
+                    scanned += window.scanned();
+                } catch (ExecutionException e) {
+                    log.warn("Reconciliation window failed: {}", e.getCause().getMessage());
+                    complete = false;
+                }
+            }
+            return new StripeSnapshot(byCustomer, requests, scanned, complete);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading Stripe subscriptions", e);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private WindowResult pageWindow(long from, long to) throws StripeException {
+        Map<String, Subscription> byCustomer = new HashMap<>();
+        long requests = 0;
+        long scanned = 0;
+        String cursor = null;
+        StripeCollection<Subscription> page;
+        do {
+            SubscriptionListParams.Builder params = SubscriptionListParams.builder()
+                    .setStatus(SubscriptionListParams.Status.ALL)
+                    .setCreated(SubscriptionListParams.Created.builder().setGte(from).setLt(to).build())
+                    .setLimit(100L);
+            if (cursor != null) {
+                params.setStartingAfter(cursor);
+            }
+
+            // Throws RequestNotPermitted, failing the window, if no permit comes within the timeout
+            RateLimiter.waitForPermission(rateLimiter);
+            page = stripeService.listSubscriptions(params.build());
+            requests++;
+            for (Subscription subscription : page.getData()) {
+                scanned++;
+                byCustomer.merge(subscription.getCustomer(), subscription, SubscriptionReconciliationService::preferred);
+                cursor = subscription.getId();
+            }
+        } while (Boolean.TRUE.equals(page.getHasMore()) && cursor != null);
+        return new WindowResult(byCustomer, requests, scanned);
+    }
+
+    // The tenant follows its live subscription; among equals, the most recently created one
+    private static Subscription preferred(Subscription a, Subscription b) {
+        boolean aLive = LIVE_STATUSES.contains(a.getStatus());
+        boolean bLive = LIVE_STATUSES.contains(b.getStatus());
+        if (aLive != bLive) {
+            return aLive ? a : b;
+        }
+        return a.getCreated() >= b.getCreated() ? a : b;
+    }
+
+    private void diffAndApply(StripeSnapshot snapshot, ReconciliationReport report) {
+        long lastId = 0;
+        List<TenantRow> page;
+        List<Correction> pending = new ArrayList<>();
+        do {
+            page = jdbcTemplate.query(tenantPageSql, (rs, rowNum) -> new TenantRow(
+                    rs.getLong("id"),
+                    rs.getString("stripe_customer_id"),
+                    rs.getString("stripe_subscription_id"),
+                    rs.getString("subscription_status"),
+                    rs.getString("subscription_plan"),
+                    toLocal(rs.getTimestamp("subscription_end_date")),
+                    rs.getTimestamp("updated_at")), lastId, tenantPageSize);
+
+            for (TenantRow tenant : page) {
+                lastId = tenant.id();
+                report.setTenantsChecked(report.getTenantsChecked() + 1);
+                Subscription subscription = snapshot.byCustomer().get(tenant.customerId());
+                if (subscription == null) {
+                    if (snapshot.complete() && tenant.subscriptionId() != null) {
+                        report.setOrphaned(report.getOrphaned() + 1);
+                    }
+                    continue;
+                }
+
+                Correction correction = diff(tenant, subscription);
+                if (correction != null) {
+                    report.setDrifted(report.getDrifted() + 1);
+                    pending.add(correction);
+                    if (pending.size() >= batchSize) {
+                        apply(pending, report);
+                        pending.clear();
+                    }
+                }
+            }
+        } while (page.size() == tenantPageSize);
+
+        if (!pending.isEmpty()) {
+            apply(pending, report);
+        }
+    }
+
+    private Correction diff(TenantRow tenant, Subscription subscription) {
+        String status = StripeService.tenantStatus(subscription);
+        String plan = StripeService.planPriceId(subscription).orElse(tenant.plan());
+        LocalDateTime endDate = subscription.getCurrentPeriodEnd() != null
+                ? LocalDateTime.ofEpochSecond(subscription.getCurrentPeriodEnd(), 0, ZoneOffset.UTC)
+                : tenant.endDate();
+
+        boolean same = Objects.equals(status, tenant.status())
+                && Objects.equals(plan, tenant.plan())
+                && Objects.equals(subscription.getId(), tenant.subscriptionId())
+                && Objects.equals(truncate(endDate), truncate(tenant.endDate()));
+        if (same) {
+            return null;
+        }
+        return new Correction(tenant, subscription.getId(), status, plan, endDate);
+    }
+
+    private void apply(List<Correction> corrections, ReconciliationReport report) {
+        boolean[] applied = new boolean[corrections.size()];
+        if (!report.isDryRun()) {
+            transactionTemplate.executeWithoutResult(status -> {
+                int[][] counts = jdbcTemplate.batchUpdate(applySql, corrections, corrections.size(), (ps, correction) -> {
+                    ps.setString(1, correction.status());
+                    ps.setString(2, correction.plan());
+                    ps.setTimestamp(3, correction.endDate() != null ? Timestamp.valueOf(correction.endDate()) : null);
+                    ps.setString(4, correction.subscriptionId());
+                    ps.setLong(5, correction.tenant().id());
+                    ps.setTimestamp(6, correction.tenant().updatedAt());
+                });
+                for (int i = 0; i < corrections.size(); i++) {
+                    applied[i] = counts[0][i] != 0;
+                    if (applied[i]) {
+                        Correction correction = corrections.get(i);
+                        outboxPublisher.publish(OutboxPublisher.SUBSCRIPTION, correction.tenant().id(),
+                                "subscription.reconciled", correction.tenant().id(),
+                                new SubscriptionChange(correction.tenant().id(), correction.subscriptionId(),
+                                        correction.status(), correction.plan()));
+                        tenantVersionCache.evict(correction.tenant().id());
+                    }
+                }
+            });
+        }
+
+        for (int i = 0; i < corrections.size(); i++) {
+            if (applied[i]) {
+                report.setCorrected(report.getCorrected() + 1);
+            } else if (!report.isDryRun()) {
+                report.setSkipped(report.getSkipped() + 1);
+            }
+            if (report.getChanges().size() < maxReportedChanges) {
+                report.getChanges().add(toChange(corrections.get(i), applied[i]));
+            }
+        }
+    }
+
+    private static ReconciliationChange toChange(Correction correction, boolean applied) {
+        TenantRow tenant = correction.tenant();
+        return ReconciliationChange.builder()
+                .tenantId(tenant.id())
+                .stripeCustomerId(tenant.customerId())
+                .subscriptionId(correction.subscriptionId())
+                .statusBefore(tenant.status())
+                .statusAfter(correction.status())
+                .planBefore(tenant.plan())
+                .planAfter(correction.plan())
+                .endDateBefore(tenant.endDate())
+                .endDateAfter(correction.endDate())
+                .applied(applied)
+                .build();
+    }
+
+    private static LocalDateTime toLocal(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private static LocalDateTime truncate(LocalDateTime value) {
+        return value != null ? value.truncatedTo(ChronoUnit.SECONDS) : null;
+    }
+
+    private record WindowResult(Map<String, Subscription> byCustomer, long requests, long scanned) {
+    }
+
+    private record StripeSnapshot(Map<String, Subscription> byCustomer, long requests, long scanned, boolean complete) {
+    }
+
+    private record TenantRow(long id, String customerId, String subscriptionId, String status, String plan,
+                             LocalDateTime endDate, Timestamp updatedAt) {
+    }
+
+    private record Correction(TenantRow tenant, String subscriptionId, String status, String plan,
+                              LocalDateTime endDate) {
+    }
+}
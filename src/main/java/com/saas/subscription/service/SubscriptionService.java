@@ -1,5 +1,9 @@
 package com.saas.subscription.service;
 
+import com.saas.common.exception.ConflictException;
+import com.saas.common.exception.NotFoundException;
+import com.saas.outbox.service.OutboxPublisher;
+import com.saas.subscription.dto.SubscriptionChange;
 import com.saas.subscription.dto.SubscriptionRequest;
 import com.saas.tenant.config.TenantContext;
 import com.saas.tenant.entity.Tenant;
@@ -7,7 +11,10 @@ import com.saas.tenant.repository.TenantRepository;
 import com.saas.user.entity.User;
 import com.saas.user.repository.UserRepository;
 import com.stripe.exception.StripeException;
+import com.stripe.exception.EventDataObjectDeserializationException;
 import com.stripe.model.Customer;
+import com.stripe.model.Event;
+import com.stripe.model.EventDataObjectDeserializer;
 import com.stripe.model.Subscription;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,6 +22,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -26,35 +35,40 @@ public class SubscriptionService {
     private final StripeService stripeService;
     private final TenantRepository tenantRepository;
     private final UserRepository userRepository;
+    private final OutboxPublisher outboxPublisher;
+    private final EntitlementStore entitlementStore;
     
     @Transactional
     public Subscription createSubscription(Long tenantId, SubscriptionRequest request) throws StripeException {
         Tenant tenant = tenantRepository.findById(tenantId)
-                .orElseThrow(() -> new RuntimeException("Tenant not found"));
+                .orElseThrow(() -> new NotFoundException("Tenant not found"));
         
-        // Create or get Stripe customer
-        Customer customer;
+        // Keys derived from the tenant make a retried request return the original object
+        // instead of creating a second customer or subscription
         if (tenant.getStripeCustomerId() == null) {
-            customer = stripeService.createCustomer(
+            Customer customer = stripeService.createCustomer(
                     "tenant_" + tenant.getTenantId() + "@example.com",
-                    tenant.getName()
+                    tenant.getName(),
+                    "tenant-" + tenant.getId() + "-customer"
             );
             tenant.setStripeCustomerId(customer.getId());
             tenantRepository.save(tenant);
-        } else {
-            customer = Customer.retrieve(tenant.getStripeCustomerId());
         }
         
         // Create subscription
         Subscription subscription = stripeService.createSubscription(
-                customer.getId(), 
-                request.getPlanId()
+                tenant.getStripeCustomerId(),
+                request.getPlanId(),
+                "tenant-" + tenant.getId() + "-subscribe-" + request.getPlanId() + "-after-" + tenant.getStripeSubscriptionId()
         );
         
         // Update tenant with subscription info
         tenant.setSubscriptionStatus("pending");
         tenant.setSubscriptionPlan(request.getPlanId());
+        tenant.setStripeSubscriptionId(subscription.getId());
         tenantRepository.save(tenant);
+        entitlementStore.refresh(tenant);
+        publishChange(tenant, subscription, "subscription.created");
         
         return subscription;
     }
@@ -62,53 +76,89 @@ public class SubscriptionService {
     @Transactional
     public Subscription cancelSubscription(Long tenantId) throws StripeException {
         Tenant tenant = tenantRepository.findById(tenantId)
-                .orElseThrow(() -> new RuntimeException("Tenant not found"));
+                .orElseThrow(() -> new NotFoundException("Tenant not found"));
         
         if (tenant.getStripeCustomerId() == null) {
-            throw new RuntimeException("Tenant has no active Stripe subscription");
+            throw new ConflictException("Tenant has no active Stripe subscription");
         }
         
-        // Get active subscription
-        Customer customer = Customer.retrieve(tenant.getStripeCustomerId());
-        Subscription subscription = customer.getSubscriptions().getData().stream()
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("No active subscription found"));
+        // Tenants subscribed before the id was stored still need the lookup
+        String subscriptionId = tenant.getStripeSubscriptionId();
+        if (subscriptionId == null) {
+            subscriptionId = stripeService.findSubscriptionId(tenant.getStripeCustomerId())
+                    .orElseThrow(() -> new NotFoundException("No active subscription found"));
+        }
         
         // Cancel subscription
-        subscription = stripeService.cancelSubscription(subscription.getId());
+        Subscription subscription = stripeService.cancelSubscription(subscriptionId);
         
         tenant.setSubscriptionStatus("cancelled");
         tenantRepository.save(tenant);
+        entitlementStore.refresh(tenant);
+        publishChange(tenant, subscription, "subscription.cancelled");
         
         return subscription;
     }
     
-    public void handleStripeWebhook(String payload, String signature) throws StripeException {
-        var event = stripeService.constructEvent(payload, signature);
-        
-        log.info("Received Stripe webhook event: {}", event.getType());
-        
+    /**
+     * Applies a verified Stripe event. Called by the webhook processor inside the same
+     * transaction that marks the inbox row done, so it must be safe to run again.
+     */
+    @Transactional
+    public void handleStripeEvent(Event event) {
         switch (event.getType()) {
-            case "customer.subscription.created":
-            case "customer.subscription.updated":
-                handleSubscriptionUpdate(event.getDataObjectDeserializer().getRawJson());
-                break;
-            case "customer.subscription.deleted":
-                handleSubscriptionDeleted(event.getDataObjectDeserializer().getRawJson());
-                break;
-            default:
-                log.debug("Unhandled event type: {}", event.getType());
+            case "customer.subscription.created", "customer.subscription.updated" ->
+                    handleSubscriptionUpdate(subscriptionOf(event));
+            case "customer.subscription.deleted" -> handleSubscriptionDeleted(subscriptionOf(event));
+            default -> log.debug("Unhandled event type: {}", event.getType());
+        }
+    }
+    
+    private void publishChange(Tenant tenant, Subscription subscription, String eventType) {
+        outboxPublisher.publish(OutboxPublisher.SUBSCRIPTION, tenant.getId(), eventType, tenant.getId(),
+                new SubscriptionChange(tenant.getId(), subscription.getId(), subscription.getStatus(),
+                        tenant.getSubscriptionPlan()));
+    }
+    
+    private Subscription subscriptionOf(Event event) {
+        EventDataObjectDeserializer deserializer = event.getDataObjectDeserializer();
+        if (deserializer.getObject().isPresent()) {
+            return (Subscription) deserializer.getObject().get();
+        }
+        try {
+            // The event was rendered with a different API version than the SDK pins
+            return (Subscription) deserializer.deserializeUnsafe();
+        } catch (EventDataObjectDeserializationException e) {
+            throw new IllegalStateException("Cannot deserialize subscription of event " + event.getId(), e);
         }
     }
     
-    private void handleSubscriptionUpdate(String json) {
-        // Parse and update tenant subscription
-        // Implementation depends on your specific needs
-        log.info("Handling subscription update");
+    private void handleSubscriptionUpdate(Subscription subscription) {
+        Tenant tenant = tenantFor(subscription);
+        
+        tenant.setSubscriptionStatus(StripeService.tenantStatus(subscription));
+        tenant.setStripeSubscriptionId(subscription.getId());
+        StripeService.planPriceId(subscription).ifPresent(tenant::setSubscriptionPlan);
+        if (subscription.getCurrentPeriodEnd() != null) {
+            tenant.setSubscriptionEndDate(LocalDateTime.ofEpochSecond(subscription.getCurrentPeriodEnd(), 0, ZoneOffset.UTC));
+        }
+        tenantRepository.save(tenant);
+        entitlementStore.refresh(tenant);
+        publishChange(tenant, subscription, "subscription.updated");
+    }
+    
+    private void handleSubscriptionDeleted(Subscription subscription) {
+        Tenant tenant = tenantFor(subscription);
+        
+        tenant.setSubscriptionStatus("cancelled");
+        tenantRepository.save(tenant);
+        entitlementStore.refresh(tenant);
+        publishChange(tenant, subscription, "subscription.deleted");
     }
     
-    private void handleSubscriptionDeleted(String json) {
-        // Handle subscription cancellation
-        log.info("Handling subscription deletion");
+    // The event can overtake the commit that stored the customer id; failing lets the inbox retry it
+    private Tenant tenantFor(Subscription subscription) {
+        return tenantRepository.findByStripeCustomerId(subscription.getCustomer())
+                .orElseThrow(() -> new IllegalStateException("No tenant for Stripe customer " + subscription.getCustomer()));
     }
 }
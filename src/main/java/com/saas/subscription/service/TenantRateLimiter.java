@@ -0,0 +1,41 @@
+package com.saas.subscription.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.saas.subscription.config.RateLimitProperties;
+import org.springframework.stereotype.Service;
+
+/**
+ * One {@link RateLimitBucket} per tenant, sized by the tenant's current plan. Buckets are
+ * held in a bounded cache, so memory stays flat however many tenants call the API; a
+ * dropped bucket simply starts over full.
+ */
+@Service
+public class TenantRateLimiter {
+
+    private final EntitlementStore entitlementStore;
+    private final RateLimitProperties properties;
+    private final Cache<Long, RateLimitBucket> buckets;
+
+    public TenantRateLimiter(EntitlementStore entitlementStore, RateLimitProperties properties) {
+        this.entitlementStore = entitlementStore;
+        this.properties = properties;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxTenants())
+                .expireAfterAccess(properties.getIdleExpiry())
+                .build();
+    }
+
+    public RateLimitDecision tryAcquire(Long tenantId) {
+        RateLimitProperties.Limit limit = properties.limitFor(entitlementStore.get(tenantId).plan());
+        long now = System.nanoTime();
+        RateLimitBucket bucket = buckets.get(tenantId, id -> new RateLimitBucket(limit, now));
+        if (bucket.limit() != limit) {
+            // The plan changed; carry the usage over instead of handing out a fresh burst
+            bucket = buckets.asMap().compute(tenantId, (id, current) -> current == null
+                    ? new RateLimitBucket(limit, now)
+                    : current.limit() == limit ? current : current.withLimit(limit));
+        }
+        return bucket.tryAcquire(now);
+    }
+}
@@ -0,0 +1,127 @@
+package com.saas.subscription.service;
+
+import com.saas.subscription.dto.UsageDelta;
+import com.saas.subscription.repository.UsageCounterRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts metered usage in memory and periodically adds the deltas to
+ * {@code public.usage_counters}. Counting is a map lookup plus a {@link LongAdder}
+ * increment, so concurrent requests of the same tenant do not contend on one counter.
+ * <p>
+ * A flush swaps each counter for a fresh one and drains the detached instance, so
+ * increments never race a reset. A writer that looked up a counter just before the swap
+ * may still add to the detached one; detached counters are therefore drained once more on
+ * the next flush before they are dropped.
+ * <p>
+ * Each flush carries an id that the upsert records, and a failed flush is retried as is,
+ * with the same id, on the next run. An error does not tell whether the upsert committed,
+ * so the retry must not add the deltas again if it did. Only usage counted since the last
+ * successful flush is lost if the JVM dies, which bounds the loss to
+ * {@code metering.flush-interval-ms}. Reporting to Stripe happens separately from the
+ * database, see {@link UsageReporter}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UsageMeter {
+
+    public static final String API_REQUESTS = "api_requests";
+
+    private static final long HOUR_MS = 3_600_000L;
+
+    private final UsageCounterRepository usageCounterRepository;
+    private final Map<Key, LongAdder> counters = new ConcurrentHashMap<>();
+    // Counters detached by the previous drain, drained again for late increments
+    private List<Detached> detached = List.of();
+    // Flushes not known to be applied, oldest first
+    private final Deque<PendingFlush> pending = new ArrayDeque<>();
+
+    public void increment(Long tenantId, String metric) {
+        add(tenantId, metric, 1);
+    }
+
+    public void add(Long tenantId, String metric, long quantity) {
+        Key key = new Key(tenantId, metric, System.currentTimeMillis() / HOUR_MS);
+        LongAdder counter = counters.get(key);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(key, k -> new LongAdder());
+        }
+        counter.add(quantity);
+    }
+
+    @Scheduled(fixedDelayString = "${metering.flush-interval-ms:10000}")
+    @PreDestroy
+    public synchronized void flush() {
+        List<UsageDelta> deltas = drain();
+        if (!deltas.isEmpty()) {
+            pending.addLast(new PendingFlush(UUID.randomUUID(), deltas));
+        }
+        while (!pending.isEmpty()) {
+            PendingFlush next = pending.peekFirst();
+            try {
+                usageCounterRepository.add(next.id(), next.deltas());
+            } catch (DataAccessException e) {
+                log.warn("Usage flush of {} counters failed, retrying it on the next run: {}",
+                        next.deltas().size(), e.getMessage());
+                return;
+            }
+            pending.removeFirst();
+            log.debug("Flushed {} usage counters", next.deltas().size());
+        }
+    }
+
+    private List<UsageDelta> drain() {
+        long currentHour = System.currentTimeMillis() / HOUR_MS;
+        Map<Key, Long> quantities = new HashMap<>();
+        for (Detached previous : detached) {
+            quantities.merge(previous.key(), previous.counter().sumThenReset(), Long::sum);
+        }
+
+        List<Detached> drained = new ArrayList<>();
+        for (Key key : counters.keySet()) {
+            // Past hours receive no new increments, so their counters are dropped rather than replaced
+            LongAdder counter = key.hour() < currentHour ? counters.remove(key) : counters.replace(key, new LongAdder());
+            if (counter != null) {
+                drained.add(new Detached(key, counter));
+                quantities.merge(key, counter.sumThenReset(), Long::sum);
+            }
+        }
+        detached = drained;
+
+        List<UsageDelta> deltas = new ArrayList<>();
+        quantities.forEach((key, quantity) -> {
+            if (quantity > 0) {
+                deltas.add(new UsageDelta(key.tenantId(), key.metric(),
+                        LocalDateTime.ofEpochSecond(key.hour() * 3600, 0, ZoneOffset.UTC), quantity));
+            }
+        });
+        return deltas;
+    }
+
+    private record Key(Long tenantId, String metric, long hour) {
+    }
+
+    private record Detached(Key key, LongAdder counter) {
+    }
+
+    private record PendingFlush(UUID id, List<UsageDelta> deltas) {
+    }
+}
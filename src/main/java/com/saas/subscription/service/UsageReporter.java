@@ -0,0 +1,127 @@
+package com.saas.subscription.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.saas.subscription.config.MeteringProperties;
+import com.saas.subscription.dto.UsageReport;
+import com.saas.subscription.repository.UsageCounterRepository;
+import com.saas.tenant.entity.Tenant;
+import com.saas.tenant.repository.TenantRepository;
+import com.stripe.exception.StripeException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sends unreported usage to Stripe as usage-record increments. Each counter row is
+ * leased, and the increment it reports is pinned in {@code reporting_quantity}; the
+ * idempotency key is derived from that range, so a report retried after a crash or a
+ * lost response is applied by Stripe only once.
+ * <p>
+ * A row whose report fails keeps its lease, so it is retried once {@code metering.report.lease}
+ * has passed, and the run ends after the batch: during a Stripe outage or while the circuit
+ * is open the reporter backs off instead of claiming the same rows again.
+ */
+@Component
+@Slf4j
+public class UsageReporter {
+
+    private final UsageCounterRepository usageCounterRepository;
+    private final TenantRepository tenantRepository;
+    private final StripeService stripeService;
+    private final MeteringProperties properties;
+    // Subscription item per (subscription, price); empty when the subscription has no metered item
+    private final Cache<String, Optional<String>> subscriptionItems;
+
+    @Value("${metering.report.batch-size:200}")
+    private int batchSize;
+
+    @Value("${metering.report.lease:5m}")
+    private Duration lease;
+
+    @Value("${metering.retention:90d}")
+    private Duration retention;
+
+    public UsageReporter(UsageCounterRepository usageCounterRepository,
+                         TenantRepository tenantRepository,
+                         StripeService stripeService,
+                         MeteringProperties properties,
+                         @Value("${metering.report.item-cache-ttl:1h}") Duration itemCacheTtl) {
+        this.usageCounterRepository = usageCounterRepository;
+        this.tenantRepository = tenantRepository;
+        this.stripeService = stripeService;
+        this.properties = properties;
+        this.subscriptionItems = Caffeine.newBuilder().maximumSize(100_000).expireAfterWrite(itemCacheTtl).build();
+    }
+
+    @Scheduled(fixedDelayString = "${metering.report.interval:PT5M}")
+    public void report() {
+        List<UsageReport> reports;
+        boolean failed = false;
+        do {
+            reports = usageCounterRepository.claim(batchSize, lease);
+            Map<Long, Tenant> tenants = tenantRepository.findAllById(reports.stream().map(UsageReport::tenantId).toList())
+                    .stream()
+                    .collect(Collectors.toMap(Tenant::getId, Function.identity()));
+            for (UsageReport report : reports) {
+                failed |= !send(report, tenants.get(report.tenantId()));
+            }
+        } while (!failed && reports.size() == batchSize);
+    }
+
+    @Scheduled(cron = "${metering.cleanup-cron:0 30 3 * * *}")
+    public void deleteReported() {
+        LocalDateTime cutoff = LocalDateTime.now(ZoneOffset.UTC).minus(retention);
+        int deleted = usageCounterRepository.deleteReportedBefore(cutoff);
+        if (deleted > 0) {
+            log.info("Deleted {} reported usage counters", deleted);
+        }
+        // Flush ids only guard retries, which happen within minutes of the first attempt
+        usageCounterRepository.deleteFlushesBefore(cutoff);
+    }
+
+    // False when the report failed; its row stays leased until the lease runs out
+    private boolean send(UsageReport report, Tenant tenant) {
+        try {
+            Optional<String> item = meteredItem(report.metric(), tenant);
+            if (item.isPresent()) {
+                String key = "usage-" + report.tenantId() + "-" + report.metric() + "-"
+                        + report.periodStart().toEpochSecond(ZoneOffset.UTC) + "-"
+                        + report.reportedQuantity() + "-" + report.quantity();
+                stripeService.reportUsage(item.get(), report.increment(), key);
+            }
+            // Usage of unmetered plans is kept in the table but never billed
+            usageCounterRepository.markReported(report);
+            return true;
+        } catch (StripeException | RuntimeException e) {
+            log.warn("Reporting {} {} of tenant {} failed, will retry in {}: {}",
+                    report.increment(), report.metric(), report.tenantId(), lease, e.getMessage());
+            return false;
+        }
+    }
+
+    private Optional<String> meteredItem(String metric, Tenant tenant) throws StripeException {
+        String priceId = properties.getPrices().get(metric);
+        if (priceId == null || tenant == null || tenant.getStripeSubscriptionId() == null) {
+            return Optional.empty();
+        }
+        String cacheKey = tenant.getStripeSubscriptionId() + "/" + priceId;
+        Optional<String> cached = subscriptionItems.getIfPresent(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        Optional<String> item = stripeService.findSubscriptionItemId(tenant.getStripeSubscriptionId(), priceId);
+        subscriptionItems.put(cacheKey, item);
+        return item;
+    }
+}
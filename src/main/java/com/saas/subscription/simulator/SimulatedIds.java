@@ -0,0 +1,21 @@
+package com.saas.subscription.simulator;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+final class SimulatedIds {
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+
+    private SimulatedIds() {
+    }
+
+    /** Stripe-style id such as {@code cus_4QFJOjw2pOmAGJ}. */
+    static String next(String prefix) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder id = new StringBuilder(prefix).append('_');
+        for (int i = 0; i < 14; i++) {
+            id.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+        }
+        return id.toString();
+    }
+}
@@ -0,0 +1,124 @@
+package com.saas.subscription.simulator;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stripe.Stripe;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends Stripe-shaped events to the application's webhook endpoint, signed the way Stripe
+ * does it ({@code Stripe-Signature: t=<timestamp>,v1=<HMAC-SHA256 of "t.payload">}).
+ * Failed deliveries are retried with a doubling delay, like Stripe's own retries.
+ */
+@Component
+@Profile("stripe-sim")
+@Slf4j
+public class SimulatedWebhookSender {
+
+    private final StripeSimulatorProperties properties;
+    private final ObjectMapper objectMapper;
+    private final String webhookSecret;
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+    private final ScheduledExecutorService scheduler =
+            Executors.newScheduledThreadPool(2, new CustomizableThreadFactory("stripe-sim-webhook-"));
+
+    public SimulatedWebhookSender(StripeSimulatorProperties properties, ObjectMapper objectMapper,
+                                  @Value("${stripe.webhook-secret}") String webhookSecret) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.webhookSecret = webhookSecret;
+    }
+
+    public void send(String type, Map<String, Object> object, Duration delay) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("id", SimulatedIds.next("evt"));
+        event.put("object", "event");
+        event.put("api_version", Stripe.API_VERSION);
+        event.put("created", Instant.now().getEpochSecond());
+        event.put("livemode", false);
+        event.put("pending_webhooks", 1);
+        event.put("type", type);
+        event.put("data", Map.of("object", object));
+
+        try {
+            String payload = objectMapper.writeValueAsString(event);
+            scheduler.schedule(() -> deliver(payload, 1), delay.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (JsonProcessingException e) {
+            log.error("Cannot serialize simulated {} event", type, e);
+        }
+    }
+
+    /**
+     * Runs a simulated state change later on the sender's scheduler.
+     */
+    public void schedule(Runnable task, Duration delay) {
+        scheduler.schedule(task, delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void deliver(String payload, int attempt) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(properties.getWebhookUrl()))
+                    .timeout(Duration.ofSeconds(10))
+                    .header("Content-Type", "application/json")
+                    .header("Stripe-Signature", signature(payload))
+                    .POST(HttpRequest.BodyPublishers.ofString(payload))
+                    .build();
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() / 100 == 2) {
+                return;
+            }
+            retry(payload, attempt, "HTTP " + response.statusCode());
+        } catch (IOException e) {
+            retry(payload, attempt, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (GeneralSecurityException e) {
+            log.error("Cannot sign simulated webhook", e);
+        }
+    }
+
+    private void retry(String payload, int attempt, String reason) {
+        if (attempt >= properties.getWebhookMaxAttempts()) {
+            log.warn("Giving up on simulated webhook after {} attempts: {}", attempt, reason);
+            return;
+        }
+        long delayMs = properties.getWebhookDelay().toMillis() << attempt;
+        scheduler.schedule(() -> deliver(payload, attempt + 1), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private String signature(String payload) throws GeneralSecurityException {
+        long timestamp = Instant.now().getEpochSecond();
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(webhookSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        byte[] digest = mac.doFinal((timestamp + "." + payload).getBytes(StandardCharsets.UTF_8));
+        return "t=" + timestamp + ",v1=" + HexFormat.of().formatHex(digest);
+    }
+}
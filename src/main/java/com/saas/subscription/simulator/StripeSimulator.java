@@ -0,0 +1,421 @@
+package com.saas.subscription.simulator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local stand-in for the parts of the Stripe API that {@code StripeService} uses:
+ * customers, subscriptions, subscription items with usage records and checkout sessions. Objects live in memory, idempotency
+ * keys are honoured, latency and 500/429 failures can be injected, and state changes
+ * are reported back through signed webhooks.
+ * <p>
+ * Enabled by the {@code stripe-sim} profile, which also points {@code stripe.client.api-base}
+ * at it.
+ */
+@Component
+@Profile("stripe-sim")
+@Slf4j
+public class StripeSimulator {
+
+    private final StripeSimulatorProperties properties;
+    private final SimulatedWebhookSender webhooks;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Map<String, Object>> customers = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Object>> subscriptions = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Object>> subscriptionItems = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> usage = new ConcurrentHashMap<>();
+    private final Cache<String, Reply> idempotentReplies = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(Duration.ofHours(24))
+            .build();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public StripeSimulator(StripeSimulatorProperties properties, SimulatedWebhookSender webhooks,
+                           ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.webhooks = webhooks;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        executor = Executors.newFixedThreadPool(properties.getThreads(), new CustomizableThreadFactory("stripe-sim-"));
+        server = HttpServer.create(new InetSocketAddress("localhost", properties.getPort()), 0);
+        server.createContext("/v1/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+        log.info("Stripe simulator listening on http://localhost:{}", properties.getPort());
+    }
+
+    @PreDestroy
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            simulateLatency();
+            Reply reply = injectedFailure();
+            if (reply == null) {
+                String idempotencyKey = exchange.getRequestHeaders().getFirst("Idempotency-Key");
+                if (idempotencyKey != null && !exchange.getRequestMethod().equals("GET")) {
+                    reply = idempotentReplies.get(idempotencyKey, key -> route(exchange));
+                } else {
+                    reply = route(exchange);
+                }
+            }
+            send(exchange, reply);
+        }
+    }
+
+    private Reply route(HttpExchange exchange) {
+        String method = exchange.getRequestMethod();
+        List<String> path = List.of(exchange.getRequestURI().getPath().substring("/v1/".length()).split("/"));
+        Map<String, String> params = method.equals("GET")
+                ? parseForm(exchange.getRequestURI().getRawQuery())
+                : parseForm(readBody(exchange));
+
+        return switch (path.get(0)) {
+            case "customers" -> path.size() == 1
+                    ? createCustomer(params)
+                    : method.equals("GET") ? found("customer", customers.get(path.get(1)), path.get(1)) : updateCustomer(path.get(1), params);
+            case "subscriptions" -> {
+                if (path.size() == 1) {
+                    yield method.equals("GET") ? listSubscriptions(params) : createSubscription(params);
+                }
+                yield method.equals("DELETE")
+                        ? cancelSubscription(path.get(1))
+                        : found("subscription", subscriptions.get(path.get(1)), path.get(1));
+            }
+            case "subscription_items" -> path.size() == 1
+                    ? listSubscriptionItems(params)
+                    : createUsageRecord(path.get(1), params);
+            case "checkout" -> createCheckoutSession(params);
+            default -> error(404, "invalid_request_error", "Unrecognized request URL: " + exchange.getRequestURI());
+        };
+    }
+
+    private Reply createCustomer(Map<String, String> params) {
+        Map<String, Object> customer = new LinkedHashMap<>();
+        customer.put("id", SimulatedIds.next("cus"));
+        customer.put("object", "customer");
+        customer.put("created", Instant.now().getEpochSecond());
+        customer.put("email", params.get("email"));
+        customer.put("name", params.get("name"));
+        customer.put("livemode", false);
+        customer.put("metadata", metadata(params));
+        customers.put((String) customer.get("id"), customer);
+        webhooks.send("customer.created", copy(customer), properties.getWebhookDelay());
+        return ok(copy(customer));
+    }
+
+    private Reply updateCustomer(String id, Map<String, String> params) {
+        Map<String, Object> customer = customers.get(id);
+        if (customer == null) {
+            return missing("customer", id);
+        }
+        synchronized (customer) {
+            params.forEach((key, value) -> {
+                if (key.equals("email") || key.equals("name")) {
+                    customer.put(key, value);
+                }
+            });
+            @SuppressWarnings("unchecked")
+            Map<String, Object> metadata = (Map<String, Object>) customer.get("metadata");
+            metadata.putAll(metadata(params));
+        }
+        Map<String, Object> updated = copy(customer);
+        webhooks.send("customer.updated", updated, properties.getWebhookDelay());
+        return ok(updated);
+    }
+
+    private Reply createSubscription(Map<String, String> params) {
+        String customerId = params.get("customer");
+        if (customerId == null || !customers.containsKey(customerId)) {
+            return missing("customer", customerId);
+        }
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (int i = 0; params.containsKey("items[" + i + "][price]"); i++) {
+            String priceId = params.get("items[" + i + "][price]");
+            Map<String, Object> price = Map.of("id", priceId, "object", "price", "currency", "usd", "recurring",
+                    Map.of("interval", "month", "interval_count", 1));
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("id", SimulatedIds.next("si"));
+            item.put("object", "subscription_item");
+            item.put("price", price);
+            item.put("quantity", 1);
+            items.add(item);
+        }
+        if (items.isEmpty()) {
+            return error(400, "invalid_request_error", "Missing required param: items[0][price].");
+        }
+
+        Instant now = Instant.now();
+        Map<String, Object> subscription = new LinkedHashMap<>();
+        subscription.put("id", SimulatedIds.next("sub"));
+        subscription.put("object", "subscription");
+        subscription.put("customer", customerId);
+        subscription.put("created", now.getEpochSecond());
+        subscription.put("current_period_start", now.getEpochSecond());
+        subscription.put("current_period_end", now.plus(30, ChronoUnit.DAYS).getEpochSecond());
+        subscription.put("cancel_at_period_end", false);
+        subscription.put("livemode", false);
+        // default_incomplete: the subscription waits for its first invoice to be paid
+        subscription.put("status", "incomplete");
+        subscription.put("items", Map.of("object", "list", "data", items, "has_more", false,
+                "url", "/v1/subscription_items"));
+        subscriptions.put((String) subscription.get("id"), subscription);
+        items.forEach(item -> {
+            item.put("subscription", subscription.get("id"));
+            subscriptionItems.put((String) item.get("id"), item);
+        });
+
+        Reply reply = ok(subscription);
+        webhooks.send("customer.subscription.created", copy(subscription), properties.getWebhookDelay());
+        activateLater(subscription);
+        return reply;
+    }
+
+    private void activateLater(Map<String, Object> subscription) {
+        webhooks.schedule(() -> {
+            Map<String, Object> activated;
+            synchronized (subscription) {
+                if (!"incomplete".equals(subscription.get("status"))) {
+                    return;
+                }
+                subscription.put("status", "active");
+                activated = copy(subscription);
+            }
+            webhooks.send("customer.subscription.updated", activated, properties.getWebhookDelay());
+        }, properties.getActivationDelay());
+    }
+
+    private Reply listSubscriptions(Map<String, String> params) {
+        String customerId = params.get("customer");
+        String status = params.get("status");
+        long createdGte = Long.parseLong(params.getOrDefault("created[gte]", String.valueOf(Long.MIN_VALUE)));
+        long createdLt = Long.parseLong(params.getOrDefault("created[lt]", String.valueOf(Long.MAX_VALUE)));
+        String startingAfter = params.get("starting_after");
+        int limit = Integer.parseInt(params.getOrDefault("limit", "10"));
+
+        // Newest first with the id as tie-breaker, so cursors are stable like Stripe's
+        List<Map<String, Object>> matching = subscriptions.values().stream()
+                .filter(subscription -> customerId == null || customerId.equals(subscription.get("customer")))
+                .filter(subscription -> status == null
+                        ? !"canceled".equals(subscription.get("status"))
+                        : status.equals("all") || status.equals(subscription.get("status")))
+                .filter(subscription -> (Long) subscription.get("created") >= createdGte
+                        && (Long) subscription.get("created") < createdLt)
+                .sorted(Comparator.<Map<String, Object>, Long>comparing(subscription -> (Long) subscription.get("created"))
+                        .thenComparing(subscription -> (String) subscription.get("id"))
+                        .reversed())
+                .toList();
+
+        int from = 0;
+        if (startingAfter != null) {
+            for (int i = 0; i < matching.size(); i++) {
+                if (startingAfter.equals(matching.get(i).get("id"))) {
+                    from = i + 1;
+                    break;
+                }
+            }
+        }
+        int to = Math.min(matching.size(), from + limit);
+        List<Map<String, Object>> data = matching.subList(from, to).stream().map(StripeSimulator::copy).toList();
+        return ok(Map.of("object", "list", "data", data, "has_more", to < matching.size(), "url", "/v1/subscriptions"));
+    }
+
+    private Reply listSubscriptionItems(Map<String, String> params) {
+        String subscriptionId = params.get("subscription");
+        if (subscriptionId == null || !subscriptions.containsKey(subscriptionId)) {
+            return missing("subscription", subscriptionId);
+        }
+        List<Map<String, Object>> data = subscriptionItems.values().stream()
+                .filter(item -> subscriptionId.equals(item.get("subscription")))
+                .toList();
+        return ok(Map.of("object", "list", "data", data, "has_more", false, "url", "/v1/subscription_items"));
+    }
+
+    private Reply createUsageRecord(String itemId, Map<String, String> params) {
+        Map<String, Object> item = subscriptionItems.get(itemId);
+        if (item == null) {
+            return missing("subscription_item", itemId);
+        }
+        long quantity = Long.parseLong(params.getOrDefault("quantity", "0"));
+        long total = usage.computeIfAbsent(itemId, id -> new LongAdder()).sum();
+        if ("set".equals(params.get("action"))) {
+            usage.get(itemId).add(quantity - total);
+        } else {
+            usage.get(itemId).add(quantity);
+        }
+
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("id", SimulatedIds.next("mbur"));
+        record.put("object", "usage_record");
+        record.put("subscription_item", itemId);
+        record.put("quantity", quantity);
+        record.put("timestamp", Instant.now().getEpochSecond());
+        record.put("livemode", false);
+        return ok(record);
+    }
+
+    private Reply cancelSubscription(String id) {
+        Map<String, Object> subscription = subscriptions.get(id);
+        if (subscription == null) {
+            return missing("subscription", id);
+        }
+        Map<String, Object> cancelled;
+        synchronized (subscription) {
+            if ("canceled".equals(subscription.get("status"))) {
+                return error(400, "invalid_request_error", "No such subscription: '" + id + "' is already canceled.");
+            }
+            subscription.put("status", "canceled");
+            subscription.put("canceled_at", Instant.now().getEpochSecond());
+            cancelled = copy(subscription);
+        }
+        webhooks.send("customer.subscription.deleted", cancelled, properties.getWebhookDelay());
+        return ok(cancelled);
+    }
+
+    private Reply createCheckoutSession(Map<String, String> params) {
+        String id = SimulatedIds.next("cs_test");
+        Map<String, Object> session = new LinkedHashMap<>();
+        session.put("id", id);
+        session.put("object", "checkout.session");
+        session.put("mode", params.getOrDefault("mode", "subscription"));
+        session.put("customer", params.get("customer"));
+        session.put("status", "open");
+        session.put("success_url", params.get("success_url"));
+        session.put("cancel_url", params.get("cancel_url"));
+        session.put("url", "http://localhost:" + properties.getPort() + "/checkout/" + id);
+        session.put("metadata", metadata(params));
+        session.put("livemode", false);
+        return ok(session);
+    }
+
+    private void simulateLatency() {
+        long base = properties.getLatency().toMillis();
+        long jitter = properties.getLatencyJitter().toMillis();
+        long delay = base + (jitter > 0 ? ThreadLocalRandom.current().nextLong(jitter + 1) : 0);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private Reply injectedFailure() {
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < properties.getFailureRate()) {
+            return error(500, "api_error", "Simulated internal error.");
+        }
+        if (roll < properties.getFailureRate() + properties.getRateLimitRate()) {
+            return error(429, "invalid_request_error", "Simulated rate limit.");
+        }
+        return null;
+    }
+
+    private Reply found(String type, Map<String, Object> object, String id) {
+        return object != null ? ok(copy(object)) : missing(type, id);
+    }
+
+    private Reply ok(Map<String, Object> body) {
+        return new Reply(200, body);
+    }
+
+    private Reply missing(String type, String id) {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("type", "invalid_request_error");
+        error.put("code", "resource_missing");
+        error.put("message", "No such " + type + ": '" + id + "'");
+        return new Reply(404, Map.of("error", error));
+    }
+
+    private Reply error(int status, String type, String message) {
+        return new Reply(status, Map.of("error", Map.of("type", type, "message", message)));
+    }
+
+    private void send(HttpExchange exchange, Reply reply) throws IOException {
+        byte[] body = objectMapper.writeValueAsBytes(reply.body());
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.getResponseHeaders().set("Request-Id", SimulatedIds.next("req"));
+        exchange.sendResponseHeaders(reply.status(), body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String readBody(HttpExchange exchange) {
+        try {
+            return new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    // Stripe's form encoding: nested params arrive as flat bracketed keys, e.g. items[0][price]
+    private static Map<String, String> parseForm(String encoded) {
+        Map<String, String> params = new LinkedHashMap<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return params;
+        }
+        for (String pair : encoded.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.put(key, value);
+        }
+        return params;
+    }
+
+    private static Map<String, Object> metadata(Map<String, String> params) {
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        params.forEach((key, value) -> {
+            if (key.startsWith("metadata[") && key.endsWith("]")) {
+                metadata.put(key.substring("metadata[".length(), key.length() - 1), value);
+            }
+        });
+        return metadata;
+    }
+
+    private static Map<String, Object> copy(Map<String, Object> object) {
+        synchronized (object) {
+            return new LinkedHashMap<>(object);
+        }
+    }
+
+    private record Reply(int status, Map<String, Object> body) {
+    }
+}
@@ -0,0 +1,40 @@
+package com.saas.subscription.simulator;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Profile("stripe-sim")
+@ConfigurationProperties(prefix = "stripe.simulator")
+@Data
+public class StripeSimulatorProperties {
+
+    private int port = 12111;
+
+    private int threads = 16;
+
+    /** Added to every response; the jitter is uniformly distributed on top. */
+    private Duration latency = Duration.ofMillis(50);
+
+    private Duration latencyJitter = Duration.ofMillis(25);
+
+    /** Share of requests answered with a 500 api_error, 0.0 to 1.0. */
+    private double failureRate = 0.0;
+
+    /** Share of requests answered with a 429 rate_limit error, 0.0 to 1.0. */
+    private double rateLimitRate = 0.0;
+
+    private String webhookUrl = "http://localhost:8085/saas/api/v1/webhooks/stripe";
+
+    /** Delay between an API call and the webhook events it causes. */
+    private Duration webhookDelay = Duration.ofMillis(200);
+
+    /** Delay before an incomplete subscription turns active, as if the first invoice was paid. */
+    private Duration activationDelay = Duration.ofSeconds(1);
+
+    private int webhookMaxAttempts = 5;
+}
@@ -1,7 +1,10 @@
 package com.saas.tenant.config;
 
+import com.saas.common.metrics.TenantMetricTags;
 import com.saas.tenant.hibernate.SchemaPerTenantConnectionProvider;
 import com.saas.tenant.hibernate.TenantIdentifierResolver;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -11,9 +14,16 @@ import javax.sql.DataSource;
 @Configuration
 public class HibernateMultitenancyConfig {
 
+    // JPA sessions without a tenant use the same schema as Flyway and the JDBC jobs
+    public HibernateMultitenancyConfig(@Value("${tenancy.shared-schema:public}") String sharedSchema) {
+        TenantContext.setSharedSchema(sharedSchema);
+    }
+
     @Bean
-    public SchemaPerTenantConnectionProvider schemaPerTenantConnectionProvider(DataSource dataSource) {
-        return new SchemaPerTenantConnectionProvider(dataSource);
+    public SchemaPerTenantConnectionProvider schemaPerTenantConnectionProvider(DataSource dataSource,
+                                                                               MeterRegistry meterRegistry,
+                                                                               TenantMetricTags tenantMetricTags) {
+        return new SchemaPerTenantConnectionProvider(dataSource, meterRegistry, tenantMetricTags);
     }
 
     @Bean
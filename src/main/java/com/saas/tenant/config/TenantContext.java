@@ -4,6 +4,9 @@ public class TenantContext {
     
     private static final ThreadLocal<TenantInfo> currentTenant = new ThreadLocal<>();
     
+    // tenancy.shared-schema, set once at startup by HibernateMultitenancyConfig
+    private static volatile String sharedSchema = "public";
+    
     public static void setCurrentTenant(String tenantId, Long tenantDbId) {
         currentTenant.set(new TenantInfo(tenantId, tenantDbId));
     }
@@ -20,7 +23,18 @@ public class TenantContext {
     
     public static String getSchemaName() {
         String tenantId = getCurrentTenantId();
-        return tenantId != null ? "tenant_" + tenantId.toLowerCase() : "public";
+        return tenantId != null ? "tenant_" + tenantId.toLowerCase() : sharedSchema;
+    }
+    
+    /**
+     * Schema holding the shared tables, used whenever no tenant is set.
+     */
+    public static String getSharedSchema() {
+        return sharedSchema;
+    }
+    
+    public static void setSharedSchema(String schema) {
+        sharedSchema = schema;
     }
     
     public static void clear() {
@@ -0,0 +1,8 @@
+package com.saas.tenant.dto;
+
+/**
+ * Application event: data of a tenant, or of one of its users, has changed. Raised on the
+ * node making the change and again on every node when the outbox event is relayed.
+ */
+public record TenantChangedEvent(Long tenantId) {
+}
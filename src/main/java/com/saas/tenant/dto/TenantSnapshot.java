@@ -0,0 +1,15 @@
+package com.saas.tenant.dto;
+
+import com.saas.tenant.entity.Tenant;
+
+/**
+ * Public view of a tenant as carried in domain events.
+ */
+public record TenantSnapshot(Long id, String tenantId, String name, String domain, Boolean active,
+                             String subscriptionPlan, String subscriptionStatus) {
+
+    public static TenantSnapshot from(Tenant tenant) {
+        return new TenantSnapshot(tenant.getId(), tenant.getTenantId(), tenant.getName(), tenant.getDomain(),
+                tenant.getActive(), tenant.getSubscriptionPlan(), tenant.getSubscriptionStatus());
+    }
+}
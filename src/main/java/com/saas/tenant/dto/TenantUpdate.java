@@ -0,0 +1,10 @@
+package com.saas.tenant.dto;
+
+import com.saas.tenant.entity.Tenant;
+
+/**
+ * A change to a tenant as pushed to GraphQL subscribers: the event type and the tenant
+ * as it was read right after.
+ */
+public record TenantUpdate(String event, Tenant tenant) {
+}
@@ -12,6 +12,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "tenants")
+@EntityListeners(TenantEntityListener.class)
 @Data
 @Builder
 @NoArgsConstructor
@@ -40,6 +41,8 @@ public class Tenant {
     private String subscriptionStatus; // active, cancelled, past_due
 
     private String stripeCustomerId;
+    
+    private String stripeSubscriptionId;
 
     private LocalDateTime subscriptionEndDate;
 
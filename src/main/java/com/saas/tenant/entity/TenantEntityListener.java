@@ -0,0 +1,34 @@
+package com.saas.tenant.entity;
+
+import com.saas.tenant.dto.TenantChangedEvent;
+import com.saas.tenant.service.TenantVersionCache;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Instantiated by Hibernate through Spring's bean container. Collaborators are resolved
+ * lazily because the entity manager factory is still being built when this is created.
+ */
+@Component
+public class TenantEntityListener {
+    
+    private final ObjectProvider<TenantVersionCache> versionCache;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    public TenantEntityListener(ObjectProvider<TenantVersionCache> versionCache, ApplicationEventPublisher eventPublisher) {
+        this.versionCache = versionCache;
+        this.eventPublisher = eventPublisher;
+    }
+    
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Tenant tenant) {
+        versionCache.getObject().evict(tenant.getId());
+        eventPublisher.publishEvent(new TenantChangedEvent(tenant.getId()));
+    }
+}
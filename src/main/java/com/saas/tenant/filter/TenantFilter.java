@@ -1,55 +1,89 @@
 package com.saas.tenant.filter;
 
+import com.saas.common.logging.RateLimitedLog;
+import com.saas.common.metrics.RequestTimings;
+import com.saas.common.metrics.TenantMetricTags;
 import com.saas.tenant.config.TenantContext;
 import com.saas.tenant.service.TenantService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Duration;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class TenantFilter extends OncePerRequestFilter {
     
+    /** MDC key holding the resolved tenant identifier. */
+    public static final String TENANT_MDC_KEY = "tenant";
+    
+    private static final RateLimitedLog MISSING_TENANT_LOG = new RateLimitedLog(Duration.ofMinutes(1));
+    
     private final TenantService tenantService;
+    private final MeterRegistry meterRegistry;
+    private final TenantMetricTags tenantMetricTags;
     
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
                                     FilterChain filterChain) throws ServletException, IOException {
         
         try {
+            Timer.Sample sample = Timer.start(meterRegistry);
             String tenantId = extractTenantId(request);
             
             if (tenantId != null) {
                 tenantService.setTenantContext(tenantId);
+                Long tenantDbId = TenantContext.getCurrentTenantDbId();
+                if (tenantDbId != null) {
+                    MDC.put(TENANT_MDC_KEY, tenantId);
+                }
+                RequestTimings.record(RequestTimings.Stage.TENANT,
+                        sample.stop(resolutionTimer(tenantDbId != null ? "resolved" : "unknown", tenantDbId)));
             } else {
+                RequestTimings.record(RequestTimings.Stage.TENANT, sample.stop(resolutionTimer("absent", null)));
                 // Allow public endpoints (auth endpoints) without tenant
                 String path = request.getRequestURI();
                 if (!path.startsWith("/api/v1/auth/") && !path.startsWith("/actuator/")) {
-                    log.warn("Tenant not found for path: {}", path);
+                    long suppressed = MISSING_TENANT_LOG.tryAcquire();
+                    if (suppressed >= 0) {
+                        log.warn("Tenant not found for path: {} ({} similar suppressed)", path, suppressed);
+                    }
                 }
             }
             
             filterChain.doFilter(request, response);
         } finally {
             TenantContext.clear();
+            MDC.remove(TENANT_MDC_KEY);
         }
     }
     
+    // Time to resolve the tenant, excluding the rest of the chain
+    private Timer resolutionTimer(String outcome, Long tenantDbId) {
+        return tenantMetricTags.timer("tenant.resolution", tenantDbId, "outcome", outcome);
+    }
+    
     private String extractTenantId(HttpServletRequest request) {
+        return extractTenantId(request.getHeader("X-Tenant-ID"), request.getHeader("Host"));
+    }
+    
+    static String extractTenantId(String tenantHeader, String host) {
         // Try to get tenant from header first
-        String tenantId = request.getHeader("X-Tenant-ID");
+        String tenantId = tenantHeader;
         
         if (tenantId == null || tenantId.isBlank()) {
             // Try to extract from subdomain
-            String host = request.getHeader("Host");
             if (host != null && host.contains(".")) {
                 String subdomain = host.split("\\.")[0];
                 if (!subdomain.equals("www") && !subdomain.equals("localhost")) {
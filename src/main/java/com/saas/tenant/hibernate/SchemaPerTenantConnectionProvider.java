@@ -1,6 +1,9 @@
 package com.saas.tenant.hibernate;
 
+import com.saas.common.metrics.TenantMetricTags;
 import com.saas.tenant.config.TenantContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.hibernate.engine.jdbc.connections.spi.MultiTenantConnectionProvider;
 import org.hibernate.service.spi.Stoppable;
 
@@ -11,9 +14,14 @@ import java.sql.SQLException;
 public class SchemaPerTenantConnectionProvider implements MultiTenantConnectionProvider, Stoppable {
 
     private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+    private final TenantMetricTags tenantMetricTags;
 
-    public SchemaPerTenantConnectionProvider(DataSource dataSource) {
+    public SchemaPerTenantConnectionProvider(DataSource dataSource, MeterRegistry meterRegistry,
+                                             TenantMetricTags tenantMetricTags) {
         this.dataSource = dataSource;
+        this.meterRegistry = meterRegistry;
+        this.tenantMetricTags = tenantMetricTags;
     }
 
     @Override
@@ -29,14 +37,18 @@ public class SchemaPerTenantConnectionProvider implements MultiTenantConnectionP
     @Override
     public Connection getConnection(String tenantIdentifier) throws SQLException {
         final Connection connection = getAnyConnection();
+        Timer.Sample sample = Timer.start(meterRegistry);
         setSchema(connection, tenantIdentifier);
+        sample.stop(schemaSwitchTimer("acquire"));
         return connection;
     }
 
     @Override
     public void releaseConnection(String tenantIdentifier, Connection connection) throws SQLException {
         try {
-            setSchema(connection, "public");
+            Timer.Sample sample = Timer.start(meterRegistry);
+            setSchema(connection, TenantContext.getSharedSchema());
+            sample.stop(schemaSwitchTimer("release"));
         } finally {
             connection.close();
         }
@@ -62,10 +74,14 @@ public class SchemaPerTenantConnectionProvider implements MultiTenantConnectionP
         // no-op
     }
 
+    private Timer schemaSwitchTimer(String phase) {
+        return tenantMetricTags.timer("tenant.schema.switch", TenantContext.getCurrentTenantDbId(), "phase", phase);
+    }
+
     private void setSchema(Connection connection, Object tenantIdentifier) throws SQLException {
         String schema = tenantIdentifier != null ? String.valueOf(tenantIdentifier) : TenantContext.getSchemaName();
         if (schema == null || schema.isBlank()) {
-            schema = "public";
+            schema = TenantContext.getSharedSchema();
         }
         try {
             connection.setSchema(schema);
@@ -8,7 +8,7 @@ public class TenantIdentifierResolver implements CurrentTenantIdentifierResolver
     @Override
     public String resolveCurrentTenantIdentifier() {
         String schema = TenantContext.getSchemaName();
-        return (schema != null && !schema.isBlank()) ? schema : "public";
+        return (schema != null && !schema.isBlank()) ? schema : TenantContext.getSharedSchema();
     }
 
     @Override
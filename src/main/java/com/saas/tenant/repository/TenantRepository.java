@@ -2,8 +2,11 @@ package com.saas.tenant.repository;
 
 import com.saas.tenant.entity.Tenant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
@@ -13,5 +16,10 @@ public interface TenantRepository extends JpaRepository<Tenant, Long> {
     
     Optional<Tenant> findByDomain(String domain);
     
+    Optional<Tenant> findByStripeCustomerId(String stripeCustomerId);
+    
     boolean existsByTenantId(String tenantId);
+    
+    @Query("select t.updatedAt from Tenant t where t.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
 }
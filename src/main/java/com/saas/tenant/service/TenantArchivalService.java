@@ -0,0 +1,139 @@
+package com.saas.tenant.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Moves soft-deleted tenants into {@code tenants_archive}. A tenant is only archived once
+ * nothing references it any more, i.e. after all of its users have been archived, both in
+ * the shared schema ({@code tenancy.shared-schema}) and in the tenant's own schema.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TenantArchivalService {
+
+    private static final Pattern SCHEMA_NAME = Pattern.compile("[a-z0-9_]+");
+
+    private static final String TENANT_COLUMNS = "id, tenant_id, name, domain, schema_name, active, subscription_plan, "
+            + "subscription_status, stripe_customer_id, subscription_end_date, created_at, updated_at";
+
+    // Keyset-paged, so tenants still held back by their own schema do not starve the rest
+    private static final String CANDIDATES = """
+            SELECT t.id, t.schema_name FROM %1$s.tenants t
+             WHERE t.deleted = true AND t.updated_at < ? AND t.id > ?
+               AND NOT EXISTS (SELECT 1 FROM %1$s.users u WHERE u.tenant_id = t.id)
+               AND NOT EXISTS (SELECT 1 FROM %1$s.refresh_tokens rt WHERE rt.tenant_id = t.id)
+             ORDER BY t.id
+             LIMIT ?
+            """;
+
+    private static final String ARCHIVE_BATCH = """
+            WITH batch AS (
+                SELECT t.id FROM %1$s.tenants t
+                 WHERE t.id = ANY(?) AND t.deleted = true
+                   AND NOT EXISTS (SELECT 1 FROM %1$s.users u WHERE u.tenant_id = t.id)
+                   AND NOT EXISTS (SELECT 1 FROM %1$s.refresh_tokens rt WHERE rt.tenant_id = t.id)
+                   FOR UPDATE SKIP LOCKED
+            ), moved AS (
+                DELETE FROM %1$s.tenants t USING batch b WHERE t.id = b.id
+                RETURNING t.*
+            )
+            INSERT INTO %1$s.tenants_archive (%2$s)
+            SELECT %2$s FROM moved
+            RETURNING id
+            """;
+
+    private static final String SCHEMA_REFERENCES = """
+            SELECT EXISTS (SELECT 1 FROM %1$s.users WHERE tenant_id = ?)
+                OR EXISTS (SELECT 1 FROM %1$s.refresh_tokens WHERE tenant_id = ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TenantVersionCache tenantVersionCache;
+
+    @Value("${tenancy.shared-schema:public}")
+    private String sharedSchema;
+
+    /**
+     * Archives tenants deleted before {@code cutoff} in batches until none are left or
+     * {@code maxBatches} is reached. Returns the number of tenants moved.
+     */
+    public int archiveDeletedTenants(LocalDateTime cutoff, int batchSize, int maxBatches) {
+        String shared = quote(sharedSchema);
+        String candidatesSql = CANDIDATES.formatted(shared);
+        String archiveSql = ARCHIVE_BATCH.formatted(shared, TENANT_COLUMNS);
+
+        long afterId = 0;
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<Candidate> candidates = jdbcTemplate.query(candidatesSql,
+                    (rs, rowNum) -> new Candidate(rs.getLong("id"), rs.getString("schema_name")),
+                    Timestamp.valueOf(cutoff), afterId, batchSize);
+            if (candidates.isEmpty()) {
+                break;
+            }
+            afterId = candidates.get(candidates.size() - 1).id();
+
+            Long[] archivable = candidates.stream()
+                    .filter(candidate -> !isReferencedInOwnSchema(candidate))
+                    .map(Candidate::id)
+                    .toArray(Long[]::new);
+            if (archivable.length > 0) {
+                List<Long> moved = transactionTemplate.execute(status -> jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(archiveSql);
+                    statement.setArray(1, connection.createArrayOf("bigint", archivable));
+                    return statement;
+                }, (rs, rowNum) -> rs.getLong("id")));
+                if (moved != null) {
+                    moved.forEach(tenantVersionCache::evict);
+                    total += moved.size();
+                }
+            }
+            if (candidates.size() < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Archived {} soft-deleted tenants", total);
+        }
+        return total;
+    }
+
+    // Users or refresh tokens left in the tenant's schema, which only has tables once migrated
+    private boolean isReferencedInOwnSchema(Candidate candidate) {
+        String schema = candidate.schemaName();
+        if (schema == null || schema.equals(sharedSchema) || !SCHEMA_NAME.matcher(schema).matches()) {
+            return false;
+        }
+        Boolean migrated = jdbcTemplate.queryForObject(
+                "SELECT to_regclass(?) IS NOT NULL AND to_regclass(?) IS NOT NULL", Boolean.class,
+                quote(schema) + ".users", quote(schema) + ".refresh_tokens");
+        if (!Boolean.TRUE.equals(migrated)) {
+            return false;
+        }
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                SCHEMA_REFERENCES.formatted(quote(schema)), Boolean.class, candidate.id(), candidate.id()));
+    }
+
+    private static String quote(String schema) {
+        if (!SCHEMA_NAME.matcher(schema).matches()) {
+            throw new IllegalArgumentException("Invalid schema name: " + schema);
+        }
+        return "\"" + schema + "\"";
+    }
+
+    private record Candidate(Long id, String schemaName) {
+    }
+}
@@ -0,0 +1,173 @@
+package com.saas.tenant.service;
+
+import com.saas.outbox.sink.PgNotifyOutboxSink;
+import com.saas.tenant.dto.TenantChangedEvent;
+import com.saas.tenant.dto.TenantUpdate;
+import com.saas.tenant.entity.Tenant;
+import com.saas.tenant.repository.TenantRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fans tenant changes out to GraphQL subscribers. Each node keeps a single connection
+ * listening on {@link PgNotifyOutboxSink#CHANNEL}; a tenant or subscription event is turned
+ * into one {@link TenantUpdate} per tenant and multicast to all of that tenant's
+ * subscribers, so the cost of an event does not depend on how many sockets are watching it.
+ * Tenants without subscribers have no channel. Every notification, user events included,
+ * is also raised locally as a {@link TenantChangedEvent}.
+ */
+@Service
+@Slf4j
+public class TenantEventBroadcaster {
+
+    private final TenantRepository tenantRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+    private final String url;
+    private final String username;
+    private final String password;
+    private final Duration pollTimeout;
+    private final Duration reconnectDelay;
+    private volatile boolean running = true;
+    private Thread listener;
+
+    public TenantEventBroadcaster(TenantRepository tenantRepository,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${spring.datasource.url}") String url,
+                                  @Value("${spring.datasource.username}") String username,
+                                  @Value("${spring.datasource.password}") String password,
+                                  @Value("${graphql.websocket.notify-poll-timeout:10s}") Duration pollTimeout,
+                                  @Value("${graphql.websocket.notify-reconnect-delay:5s}") Duration reconnectDelay) {
+        this.tenantRepository = tenantRepository;
+        this.eventPublisher = eventPublisher;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.pollTimeout = pollTimeout;
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    /**
+     * Updates of one tenant, from now on. Subscribers that fall behind miss updates rather
+     * than holding up the others; each update carries the full tenant, so the next one
+     * catches them up.
+     */
+    public Flux<TenantUpdate> updates(Long tenantId) {
+        return Flux.defer(() -> {
+            Channel channel = channels.compute(tenantId, (id, current) -> {
+                Channel subscribed = current != null ? current : new Channel();
+                subscribed.subscribers++;
+                return subscribed;
+            });
+            return channel.sink.asFlux()
+                    .doFinally(signal -> channels.computeIfPresent(tenantId,
+                            (id, current) -> --current.subscribers == 0 ? null : current));
+        });
+    }
+
+    public int subscribedTenants() {
+        return channels.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        listener = new Thread(this::listen, "tenant-events-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+        channels.values().forEach(channel -> channel.sink.tryEmitComplete());
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + PgNotifyOutboxSink.CHANNEL);
+                }
+                log.info("Listening for tenant events on {}", PgNotifyOutboxSink.CHANNEL);
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications((int) pollTimeout.toMillis());
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Tenant event listener lost its connection, reconnecting in {}: {}", reconnectDelay, e.getMessage());
+                    sleep(reconnectDelay);
+                }
+            }
+        }
+    }
+
+    private void dispatch(String payload) {
+        int separator = payload.indexOf(':');
+        if (separator < 0) {
+            return;
+        }
+        Long tenantId;
+        try {
+            tenantId = Long.valueOf(payload.substring(0, separator));
+        } catch (NumberFormatException e) {
+            return;
+        }
+        eventPublisher.publishEvent(new TenantChangedEvent(tenantId));
+
+        String event = payload.substring(separator + 1);
+        Channel channel = channels.get(tenantId);
+        if (channel == null || !(event.startsWith("tenant.") || event.startsWith("subscription."))) {
+            return;
+        }
+
+        try {
+            Optional<Tenant> tenant = tenantRepository.findById(tenantId);
+            // Emitted only from the listener thread, so emissions never overlap
+            tenant.ifPresent(current -> channel.sink.tryEmitNext(new TenantUpdate(event, current)));
+        } catch (RuntimeException e) {
+            log.warn("Could not load tenant {} for event {}: {}", tenantId, payload, e.getMessage());
+        }
+    }
+
+    private void sleep(Duration delay) {
+        try {
+            Thread.sleep(delay.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private static final class Channel {
+        private final Sinks.Many<TenantUpdate> sink = Sinks.many().multicast().directBestEffort();
+        // Only read and written inside channels.compute, which serializes per tenant
+        private int subscribers;
+    }
+}
@@ -1,5 +1,7 @@
 package com.saas.tenant.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.flywaydb.core.Flyway;
@@ -17,27 +19,48 @@ import java.sql.Statement;
 public class TenantSchemaService {
 
     private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
 
     @Value("${spring.flyway.locations:classpath:db/migration}")
     private String flywayLocations;
 
     public void ensureSchemaExists(String schemaName) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
         try (Connection conn = dataSource.getConnection(); Statement st = conn.createStatement()) {
             st.execute("CREATE SCHEMA IF NOT EXISTS \"" + schemaName + "\"");
+            outcome = "success";
             log.info("Ensured schema exists: {}", schemaName);
         } catch (SQLException e) {
             throw new RuntimeException("Failed to create schema: " + schemaName, e);
+        } finally {
+            sample.stop(timer("create", outcome));
         }
     }
 
     public void migrateSchema(String schemaName) {
-        Flyway.configure()
-                .dataSource(dataSource)
-                .schemas(schemaName)
-                .locations(flywayLocations)
-                .baselineOnMigrate(true)
-                .load()
-                .migrate();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            Flyway.configure()
+                    .dataSource(dataSource)
+                    .schemas(schemaName)
+                    .locations(flywayLocations)
+                    .baselineOnMigrate(true)
+                    .load()
+                    .migrate();
+            outcome = "success";
+        } finally {
+            sample.stop(timer("migrate", outcome));
+        }
         log.info("Flyway migration completed for schema: {}", schemaName);
     }
+
+    // Not tagged by tenant: each tenant's schema is created and migrated once
+    private Timer timer(String step, String outcome) {
+        return Timer.builder("tenant.schema.migration")
+                .tag("step", step)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 }
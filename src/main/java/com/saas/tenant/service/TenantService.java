@@ -1,6 +1,10 @@
 package com.saas.tenant.service;
 
+import com.saas.common.logging.RateLimitedLog;
+import com.saas.outbox.service.OutboxPublisher;
+import com.saas.subscription.service.EntitlementStore;
 import com.saas.tenant.config.TenantContext;
+import com.saas.tenant.dto.TenantSnapshot;
 import com.saas.tenant.entity.Tenant;
 import com.saas.tenant.repository.TenantRepository;
 import lombok.RequiredArgsConstructor;
@@ -8,6 +12,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.util.Optional;
 
 @Service
@@ -15,8 +20,12 @@ import java.util.Optional;
 @Slf4j
 public class TenantService {
 
+    private static final RateLimitedLog UNKNOWN_TENANT_LOG = new RateLimitedLog(Duration.ofMinutes(1));
+
     private final TenantRepository tenantRepository;
     private final TenantSchemaService tenantSchemaService;
+    private final OutboxPublisher outboxPublisher;
+    private final EntitlementStore entitlementStore;
 
     @Transactional(readOnly = true)
     public void setTenantContext(String tenantId) {
@@ -25,7 +34,10 @@ public class TenantService {
         if (tenant.isPresent()) {
             TenantContext.setCurrentTenant(tenantId, tenant.get().getId());
         } else {
-            log.warn("Tenant not found or inactive: {}", tenantId);
+            long suppressed = UNKNOWN_TENANT_LOG.tryAcquire();
+            if (suppressed >= 0) {
+                log.warn("Tenant not found or inactive: {} ({} similar suppressed)", tenantId, suppressed);
+            }
         }
     }
 
@@ -52,6 +64,9 @@ public class TenantService {
                 .build();
 
         Tenant saved = tenantRepository.save(tenant);
+        entitlementStore.refresh(saved);
+        outboxPublisher.publish(OutboxPublisher.TENANT, saved.getId(), "tenant.created", saved.getId(),
+                TenantSnapshot.from(saved));
 
         // Ensure schema and migrate
         tenantSchemaService.ensureSchemaExists(schemaName);
@@ -0,0 +1,54 @@
+package com.saas.tenant.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.saas.common.transaction.TransactionHooks;
+import com.saas.tenant.repository.TenantRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+/**
+ * Last-modified stamp (epoch microseconds of {@code updatedAt}) per tenant, used as the
+ * tenant's version for entity tags.
+ */
+@Component
+public class TenantVersionCache {
+
+    private final TenantRepository tenantRepository;
+    private final Cache<Long, Long> stamps;
+
+    public TenantVersionCache(TenantRepository tenantRepository,
+                              @Value("${etag.cache.max-size:100000}") long maxSize,
+                              @Value("${etag.cache.ttl:10m}") Duration ttl) {
+        this.tenantRepository = tenantRepository;
+        this.stamps = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).build();
+    }
+
+    public Optional<Long> stamp(Long tenantDbId) {
+        Long cached = stamps.getIfPresent(tenantDbId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<Long> loaded = tenantRepository.findUpdatedAtById(tenantDbId).map(TenantVersionCache::toStamp);
+        loaded.ifPresent(stamp -> stamps.put(tenantDbId, stamp));
+        return loaded;
+    }
+
+    public void evict(Long tenantDbId) {
+        if (tenantDbId != null) {
+            TransactionHooks.nowAndAfterCompletion(() -> stamps.invalidate(tenantDbId));
+        }
+    }
+
+    public static long toStamp(LocalDateTime updatedAt) {
+        if (updatedAt == null) {
+            return 0L;
+        }
+        return updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + updatedAt.getNano() / 1_000;
+    }
+}
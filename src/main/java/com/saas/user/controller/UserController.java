@@ -1,20 +1,44 @@
 package com.saas.user.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saas.common.exception.NotFoundException;
+import com.saas.common.web.EntityTags;
+import com.saas.subscription.filter.RequiresEntitlement;
+import com.saas.user.dto.ArchivedUserResponse;
+import com.saas.user.dto.BulkImportEvent;
+import com.saas.user.dto.BulkImportFormat;
+import com.saas.user.dto.UserResponse;
+import com.saas.user.dto.UserSearchResult;
+import com.saas.user.dto.UserVersion;
 import com.saas.user.entity.User;
 import com.saas.user.repository.UserRepository;
+import com.saas.user.service.BulkUserImportService;
+import com.saas.user.service.UserArchivalService;
+import com.saas.user.service.UserProfileService;
+import com.saas.user.service.UserSearchService;
+import com.saas.user.service.UserVersionCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -26,34 +50,65 @@ import java.util.Map;
 public class UserController {
     
     private final UserRepository userRepository;
+    private final BulkUserImportService bulkUserImportService;
+    private final UserProfileService userProfileService;
+    private final UserVersionCache userVersionCache;
+    private final UserSearchService userSearchService;
+    private final UserArchivalService userArchivalService;
+    private final ObjectMapper objectMapper;
     
-    @Operation(summary = "Get current user", description = "Retrieve the currently authenticated user's profile")
+    @Operation(summary = "Get current user", description = "Retrieve the currently authenticated user's profile. " +
+            "Supports If-None-Match with the returned ETag.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "User profile retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Profile unchanged since the given ETag"),
             @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
     @GetMapping("/me")
-    public ResponseEntity<User> getCurrentUser(Authentication authentication) {
-        User user = userRepository.findByEmail(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public ResponseEntity<UserResponse> getCurrentUser(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            Authentication authentication) {
+        UserVersion current = userVersionCache.byEmail(authentication.getName())
+                .orElseThrow(() -> new NotFoundException("User not found"));
+        
+        return conditionalUser(current, ifNoneMatch);
+    }
+    
+    @Operation(summary = "Search users",
+            description = "Type-ahead search over users of the caller's tenant by email, first and last name (Admin only). " +
+                    "Queries of 1-2 characters match prefixes; longer queries also match substrings.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Matches ordered by relevance"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @GetMapping("/search")
+    @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('SUPER_ADMIN')")
+    public ResponseEntity<List<UserSearchResult>> searchUsers(
+            @Parameter(description = "Search text") @RequestParam("q") String query,
+            @Parameter(description = "Maximum number of results") @RequestParam(defaultValue = "10") int limit,
+            Authentication authentication) {
+        User admin = userRepository.findByEmail(authentication.getName())
+                .orElseThrow(() -> new NotFoundException("User not found"));
         
-        return ResponseEntity.ok(user);
+        return ResponseEntity.ok(userSearchService.search(admin.getTenantId(), query, limit));
     }
     
     @Operation(summary = "Get user by ID", description = "Retrieve a user profile by ID (Admin only)")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "User retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "User unchanged since the given ETag"),
             @ApiResponse(responseCode = "403", description = "Access denied"),
             @ApiResponse(responseCode = "404", description = "User not found")
     })
     @GetMapping("/{id}")
     @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('SUPER_ADMIN')")
-    public ResponseEntity<User> getUserById(
-            @Parameter(description = "User ID") @PathVariable Long id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public ResponseEntity<UserResponse> getUserById(
+            @Parameter(description = "User ID") @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        UserVersion current = userVersionCache.byId(id)
+                .orElseThrow(() -> new NotFoundException("User not found"));
         
-        return ResponseEntity.ok(user);
+        return conditionalUser(current, ifNoneMatch);
     }
     
     @Operation(summary = "Update current user", description = "Update the currently authenticated user's profile")
@@ -62,28 +117,155 @@ public class UserController {
             @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
     @PutMapping("/me")
-    public ResponseEntity<User> updateCurrentUser(
+    public ResponseEntity<UserResponse> updateCurrentUser(
             @RequestBody Map<String, Object> updates,
             Authentication authentication) {
         
-        User user = userRepository.findByEmail(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = userProfileService.updateProfile(authentication.getName(), updates);
         
-        if (updates.containsKey("firstName")) {
-            user.setFirstName((String) updates.get("firstName"));
-        }
-        if (updates.containsKey("lastName")) {
-            user.setLastName((String) updates.get("lastName"));
-        }
-        if (updates.containsKey("phoneNumber")) {
-            user.setPhoneNumber((String) updates.get("phoneNumber"));
-        }
-        if (updates.containsKey("avatarUrl")) {
-            user.setAvatarUrl((String) updates.get("avatarUrl"));
+        return ResponseEntity.ok(UserResponse.from(user));
+    }
+    
+    @Operation(summary = "Patch current user",
+            description = "Apply an RFC 7396 JSON Merge Patch to the current user's profile. Send the ETag of the " +
+                    "last seen version in If-Match to reject concurrent modifications.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "User updated; the ETag header carries the new version"),
+            @ApiResponse(responseCode = "400", description = "Malformed patch or field not patchable"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "409", description = "Concurrent update detected while saving"),
+            @ApiResponse(responseCode = "412", description = "If-Match does not match the current version")
+    })
+    @PatchMapping(value = "/me", consumes = "application/merge-patch+json")
+    public ResponseEntity<UserResponse> patchCurrentUser(
+            @RequestBody JsonNode patch,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch,
+            Authentication authentication) {
+        
+        User user = userProfileService.applyMergePatch(
+                authentication.getName(), patch, EntityTags.parseVersion(ifMatch));
+        
+        return ResponseEntity.ok()
+                .eTag(EntityTags.of(user.getVersion()))
+                .body(UserResponse.from(user));
+    }
+    
+    @Operation(summary = "Bulk import users",
+            description = "Stream users as CSV (header row required) or NDJSON into the caller's tenant (Admin only, " +
+                    "requires the bulk-import entitlement). " +
+                    "The response is an NDJSON stream of per-row errors and progress events, ending with a summary.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import processed; see the summary event for counts"),
+            @ApiResponse(responseCode = "403", description = "Access denied or not included in the tenant's plan"),
+            @ApiResponse(responseCode = "415", description = "Body is neither text/csv nor application/x-ndjson")
+    })
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"}, produces = "application/x-ndjson")
+    @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('SUPER_ADMIN')")
+    @RequiresEntitlement("bulk-import")
+    public void importUsers(Authentication authentication,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        User admin = userRepository.findByEmail(authentication.getName())
+                .orElseThrow(() -> new NotFoundException("User not found"));
+        BulkImportFormat format = BulkImportFormat.fromContentType(request.getContentType());
+        
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        PrintWriter writer = response.getWriter();
+        
+        BulkImportEvent summary = bulkUserImportService.importUsers(
+                request.getInputStream(), format, admin.getTenantId(), event -> writeEvent(writer, event));
+        writeEvent(writer, summary);
+    }
+    
+    @Operation(summary = "Delete user",
+            description = "Soft-delete a user of the caller's tenant (Admin only). Deleted users are archived after " +
+                    "the retention period and can be restored from the archive.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "User deleted"),
+            @ApiResponse(responseCode = "403", description = "Access denied"),
+            @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('SUPER_ADMIN')")
+    public ResponseEntity<Void> deleteUser(
+            @Parameter(description = "User ID") @PathVariable Long id,
+            Authentication authentication) {
+        User admin = userRepository.findByEmail(authentication.getName())
+                .orElseThrow(() -> new NotFoundException("User not found"));
+        
+        userProfileService.softDelete(id, admin);
+        return ResponseEntity.noContent().build();
+    }
+    
+    @Operation(summary = "Find archived users", description = "Look up archived users by email (Admin only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Archived users, most recently archived first"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @GetMapping("/archived")
+    @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('SUPER_ADMIN')")
+    public ResponseEntity<List<ArchivedUserResponse>> findArchivedUsers(
+            @Parameter(description = "Email of the archived user") @RequestParam String email,
+            Authentication authentication) {
+        User admin = userRepository.findByEmail(authentication.getName())
+                .orElseThrow(() -> new NotFoundException("User not found"));
+        
+        return ResponseEntity.ok(userArchivalService.findArchived(email, scopeOf(admin)));
+    }
+    
+    @Operation(summary = "Restore archived user",
+            description = "Move an archived user back into the live users table with its roles (Admin only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "User restored"),
+            @ApiResponse(responseCode = "403", description = "Access denied"),
+            @ApiResponse(responseCode = "404", description = "Archived user not found"),
+            @ApiResponse(responseCode = "409", description = "Email taken by another user or tenant archived")
+    })
+    @PostMapping("/archived/{id}/restore")
+    @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('SUPER_ADMIN')")
+    public ResponseEntity<UserResponse> restoreArchivedUser(
+            @Parameter(description = "Archived user ID") @PathVariable Long id,
+            Authentication authentication) {
+        User admin = userRepository.findByEmail(authentication.getName())
+                .orElseThrow(() -> new NotFoundException("User not found"));
+        
+        Long restoredId = userArchivalService.restore(id, scopeOf(admin));
+        User user = userRepository.findById(restoredId)
+                .orElseThrow(() -> new NotFoundException("User not found"));
+        
+        return ResponseEntity.ok()
+                .eTag(EntityTags.of(user.getVersion()))
+                .body(UserResponse.from(user));
+    }
+    
+    // Tenant an admin is restricted to; super admins see every tenant
+    private Long scopeOf(User admin) {
+        return admin.isSuperAdmin() ? null : admin.getTenantId();
+    }
+    
+    // Answers 304 from the cached version alone; the entity is only loaded on a miss
+    private ResponseEntity<UserResponse> conditionalUser(UserVersion current, String ifNoneMatch) {
+        String etag = EntityTags.of(current.version());
+        if (EntityTags.matchesAny(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
         }
         
-        user = userRepository.save(user);
+        User user = userRepository.findById(current.id())
+                .orElseThrow(() -> new NotFoundException("User not found"));
         
-        return ResponseEntity.ok(user);
+        return ResponseEntity.ok()
+                .eTag(EntityTags.of(user.getVersion()))
+                .body(UserResponse.from(user));
+    }
+    
+    private void writeEvent(PrintWriter writer, BulkImportEvent event) {
+        try {
+            writer.write(objectMapper.writeValueAsString(event));
+            writer.write('\n');
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
@@ -0,0 +1,32 @@
+package com.saas.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedUserResponse {
+    
+    private Long id;
+    
+    private String email;
+    
+    private String firstName;
+    
+    private String lastName;
+    
+    private Long tenantId;
+    
+    private List<String> roles;
+    
+    private LocalDateTime deletedAt;
+    
+    private LocalDateTime archivedAt;
+}
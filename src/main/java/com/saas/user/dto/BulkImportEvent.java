@@ -0,0 +1,47 @@
+package com.saas.user.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of the NDJSON stream returned by the bulk import endpoint.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkImportEvent {
+    
+    public static final String ERROR = "error";
+    public static final String PROGRESS = "progress";
+    public static final String SUMMARY = "summary";
+    
+    private String type;
+    
+    private Long line;
+    
+    private String email;
+    
+    private String message;
+    
+    private Long processed;
+    
+    private Long imported;
+    
+    private Long failed;
+    
+    private Long durationMs;
+    
+    public static BulkImportEvent error(long line, String email, String message) {
+        return BulkImportEvent.builder()
+                .type(ERROR)
+                .line(line)
+                .email(email)
+                .message(message)
+                .build();
+    }
+}
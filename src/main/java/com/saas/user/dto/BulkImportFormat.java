@@ -0,0 +1,30 @@
+package com.saas.user.dto;
+
+import org.springframework.http.MediaType;
+
+public enum BulkImportFormat {
+    CSV("text/csv"),
+    NDJSON("application/x-ndjson");
+    
+    private final String mediaType;
+    
+    BulkImportFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+    
+    public String getMediaType() {
+        return mediaType;
+    }
+    
+    public static BulkImportFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            MediaType parsed = MediaType.parseMediaType(contentType);
+            for (BulkImportFormat format : values()) {
+                if (parsed.isCompatibleWith(MediaType.parseMediaType(format.mediaType))) {
+                    return format;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unsupported import content type: " + contentType);
+    }
+}
@@ -0,0 +1,40 @@
+package com.saas.user.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BulkUserRow {
+    
+    @NotBlank
+    @Email
+    private String email;
+    
+    // Optional: users without a password can only sign in through OAuth
+    @Size(min = 8, max = 100)
+    private String password;
+    
+    @NotBlank
+    @Size(min = 1, max = 50)
+    private String firstName;
+    
+    @NotBlank
+    @Size(min = 1, max = 50)
+    private String lastName;
+    
+    private List<String> roles = new ArrayList<>();
+    
+    @JsonIgnore
+    private long lineNumber;
+    
+    @JsonIgnore
+    private String parseError;
+}
@@ -0,0 +1,55 @@
+package com.saas.user.dto;
+
+import com.saas.user.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserResponse {
+    
+    private Long id;
+    
+    private String email;
+    
+    private String firstName;
+    
+    private String lastName;
+    
+    private String phoneNumber;
+    
+    private String avatarUrl;
+    
+    private Boolean emailVerified;
+    
+    private Long tenantId;
+    
+    private Set<String> roles;
+    
+    private Long version;
+    
+    private LocalDateTime updatedAt;
+    
+    public static UserResponse from(User user) {
+        return UserResponse.builder()
+                .id(user.getId())
+                .email(user.getEmail())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .phoneNumber(user.getPhoneNumber())
+                .avatarUrl(user.getAvatarUrl())
+                .emailVerified(user.getEmailVerified())
+                .tenantId(user.getTenantId())
+                .roles(Set.copyOf(user.getRoles()))
+                .version(user.getVersion())
+                .updatedAt(user.getUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,17 @@
+package com.saas.user.dto;
+
+/**
+ * A ranked user search hit. Prefix matches score at least 1; trigram similarity adds 0..1.
+ */
+public interface UserSearchResult {
+
+    Long getId();
+
+    String getEmail();
+
+    String getFirstName();
+
+    String getLastName();
+
+    Double getScore();
+}
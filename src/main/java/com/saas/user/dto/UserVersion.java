@@ -0,0 +1,7 @@
+package com.saas.user.dto;
+
+/**
+ * Identity and version of a user, loaded without the row's other columns or roles.
+ */
+public record UserVersion(Long id, String email, Long version) {
+}
@@ -6,6 +6,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -14,14 +15,18 @@ import java.util.Set;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserEntityListener.class)
+@DynamicUpdate
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class User {
     
+    // Pooled sequence ids let Hibernate batch inserts (IDENTITY forces one round trip per row)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(unique = true, nullable = false)
@@ -65,6 +70,9 @@ public class User {
     @Builder.Default
     private Boolean deleted = false;
     
+    @Version
+    private Long version;
+    
     // Helper methods
     public void addRole(String role) {
         this.roles.add(role);
@@ -0,0 +1,34 @@
+package com.saas.user.entity;
+
+import com.saas.tenant.dto.TenantChangedEvent;
+import com.saas.user.service.UserVersionCache;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Instantiated by Hibernate through Spring's bean container. Collaborators are resolved
+ * lazily because the entity manager factory is still being built when this is created.
+ */
+@Component
+public class UserEntityListener {
+    
+    private final ObjectProvider<UserVersionCache> versionCache;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    public UserEntityListener(ObjectProvider<UserVersionCache> versionCache, ApplicationEventPublisher eventPublisher) {
+        this.versionCache = versionCache;
+        this.eventPublisher = eventPublisher;
+    }
+    
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(User user) {
+        versionCache.getObject().evict(user);
+        eventPublisher.publishEvent(new TenantChangedEvent(user.getTenantId()));
+    }
+}
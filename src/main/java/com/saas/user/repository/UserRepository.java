@@ -1,14 +1,55 @@
 package com.saas.user.repository;
 
+import com.saas.user.dto.UserSearchResult;
+import com.saas.user.dto.UserVersion;
 import com.saas.user.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     
+    // Live users whose email, first or last name starts with :lower; each branch is an
+    // ordered range scan on a C-collation index (see V4__user_search_indexes.sql)
+    String PREFIX_MATCHES = """
+            (SELECT u.id FROM users u
+              WHERE u.tenant_id = :tenantId AND u.deleted = false
+                AND lower(u.email) COLLATE "C" >= :lower AND lower(u.email) COLLATE "C" < :upper
+              ORDER BY lower(u.email) COLLATE "C" LIMIT :limit)
+            UNION
+            (SELECT u.id FROM users u
+              WHERE u.tenant_id = :tenantId AND u.deleted = false
+                AND lower(u.first_name) COLLATE "C" >= :lower AND lower(u.first_name) COLLATE "C" < :upper
+              ORDER BY lower(u.first_name) COLLATE "C" LIMIT :limit)
+            UNION
+            (SELECT u.id FROM users u
+              WHERE u.tenant_id = :tenantId AND u.deleted = false
+                AND lower(u.last_name) COLLATE "C" >= :lower AND lower(u.last_name) COLLATE "C" < :upper
+              ORDER BY lower(u.last_name) COLLATE "C" LIMIT :limit)
+            """;
+    
+    // Ranks the matched ids: a prefix hit is worth 1, plus the best trigram similarity
+    String RANKED_RESULTS = """
+            SELECT u.id AS "id", u.email AS "email", u.first_name AS "firstName", u.last_name AS "lastName",
+                   CAST(CASE WHEN starts_with(lower(u.email), :lower)
+                               OR starts_with(lower(u.first_name), :lower)
+                               OR starts_with(lower(u.last_name), :lower) THEN 1 ELSE 0 END
+                        + greatest(public.similarity(lower(u.email), :lower),
+                                   public.similarity(lower(coalesce(u.first_name, '') || ' ' || coalesce(u.last_name, '')), :lower))
+                        AS double precision) AS "score"
+              FROM users u JOIN matches m ON m.id = u.id
+             ORDER BY "score" DESC, u.email
+             LIMIT :limit
+            """;
+    
+    
     Optional<User> findByEmail(String email);
     
     Optional<User> findByEmailAndDeletedFalse(String email);
@@ -16,4 +57,65 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
     
     Optional<User> findByOauthProviderAndOauthId(String provider, String oauthId);
+    
+    @Query("select u.email from User u where u.email in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+    
+    @Query("select new com.saas.user.dto.UserVersion(u.id, u.email, u.version) from User u where u.email = :email")
+    Optional<UserVersion> findVersionByEmail(@Param("email") String email);
+    
+    @Query("select new com.saas.user.dto.UserVersion(u.id, u.email, u.version) from User u where u.id = :id")
+    Optional<UserVersion> findVersionById(@Param("id") Long id);
+    
+    /**
+     * Ids of the first {@code limit} live users of each tenant, ordered by email.
+     */
+    @Query(value = """
+            SELECT ranked.id FROM (
+                SELECT u.id, row_number() OVER (PARTITION BY u.tenant_id ORDER BY u.email) AS position
+                  FROM users u
+                 WHERE u.tenant_id IN (:tenantIds) AND u.deleted = false
+            ) ranked
+             WHERE ranked.position <= :limit
+            """, nativeQuery = true)
+    List<Long> findFirstIdsPerTenant(@Param("tenantIds") Collection<Long> tenantIds, @Param("limit") int limit);
+    
+    @Query("select distinct u from User u left join fetch u.roles where u.id in :ids")
+    List<User> findAllWithRolesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Type-ahead search for 1-2 character queries, which are too short for trigrams.
+     */
+    @Query(value = "WITH matches AS (" + PREFIX_MATCHES + ") " + RANKED_RESULTS, nativeQuery = true)
+    List<UserSearchResult> searchByPrefix(@Param("tenantId") Long tenantId,
+                                          @Param("lower") String lower,
+                                          @Param("upper") String upper,
+                                          @Param("limit") int limit);
+    
+    /**
+     * Type-ahead search combining prefix matches with up to {@code candidates} trigram
+     * (substring) matches each on email and full name, so ranking never scans a whole tenant.
+     * Candidates are the closest by trigram distance, read in order from the GiST indexes
+     * (see V11__user_search_gist_indexes.sql), so the best matches always reach the ranking.
+     */
+    @Query(value = "WITH matches AS (" + PREFIX_MATCHES + """
+            UNION
+            (SELECT u.id FROM users u
+              WHERE u.tenant_id = :tenantId AND u.deleted = false
+                AND lower(u.email) LIKE :contains
+              ORDER BY lower(u.email) OPERATOR(public.<->) :lower
+              LIMIT :candidates)
+            UNION
+            (SELECT u.id FROM users u
+              WHERE u.tenant_id = :tenantId AND u.deleted = false
+                AND lower(coalesce(u.first_name, '') || ' ' || coalesce(u.last_name, '')) LIKE :contains
+              ORDER BY lower(coalesce(u.first_name, '') || ' ' || coalesce(u.last_name, '')) OPERATOR(public.<->) :lower
+              LIMIT :candidates)
+            ) """ + RANKED_RESULTS, nativeQuery = true)
+    List<UserSearchResult> searchByTrigram(@Param("tenantId") Long tenantId,
+                                           @Param("lower") String lower,
+                                           @Param("upper") String upper,
+                                           @Param("contains") String contains,
+                                           @Param("limit") int limit,
+                                           @Param("candidates") int candidates);
 }
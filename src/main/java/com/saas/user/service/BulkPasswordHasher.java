@@ -0,0 +1,74 @@
+package com.saas.user.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashes passwords for bulk imports on a bounded pool. When the queue is full the
+ * submitting thread hashes the password itself, which throttles the import instead
+ * of growing the backlog.
+ */
+@Component
+@Slf4j
+public class BulkPasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+
+    public BulkPasswordHasher(PasswordEncoder passwordEncoder,
+                              @Value("${bulk-import.hash-threads:4}") int threads,
+                              @Value("${bulk-import.hash-queue-capacity:1000}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("bulk-import-hash-"),
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+    }
+
+    /**
+     * Encodes every password in parallel, preserving order. {@code null} entries stay {@code null}.
+     */
+    public List<String> encodeAll(List<String> rawPasswords) {
+        List<Future<String>> futures = new ArrayList<>(rawPasswords.size());
+        for (String raw : rawPasswords) {
+            futures.add(raw == null ? null : executor.submit(() -> passwordEncoder.encode(raw)));
+        }
+
+        List<String> encoded = new ArrayList<>(rawPasswords.size());
+        for (Future<String> future : futures) {
+            encoded.add(future == null ? null : await(future));
+        }
+        return encoded;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private String await(Future<String> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing passwords", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.saas.user.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saas.outbox.service.OutboxPublisher;
+import com.saas.user.dto.BulkImportEvent;
+import com.saas.user.dto.BulkImportFormat;
+import com.saas.user.dto.BulkUserRow;
+import com.saas.user.entity.Role;
+import com.saas.user.entity.User;
+import com.saas.user.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Streams users from CSV or NDJSON into a tenant. Rows are validated, hashed in parallel
+ * and inserted in chunks of {@code bulk-import.batch-size}, each chunk in its own
+ * transaction so that a bad row never aborts the whole run. The persistence context is
+ * cleared after every chunk, because the upload runs inside the request's open session
+ * and would otherwise keep every imported user managed until the response completes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkUserImportService {
+
+    private final UserRepository userRepository;
+    private final BulkPasswordHasher passwordHasher;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final OutboxPublisher outboxPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${bulk-import.batch-size:500}")
+    private int batchSize;
+
+    public BulkImportEvent importUsers(InputStream in, BulkImportFormat format, Long tenantId,
+                                       Consumer<BulkImportEvent> listener) throws IOException {
+        long startedAt = System.currentTimeMillis();
+        ImportRun run = new ImportRun(tenantId, listener);
+
+        try (BulkUserRowReader reader = new BulkUserRowReader(in, format, objectMapper)) {
+            List<BulkUserRow> chunk = new ArrayList<>(batchSize);
+            BulkUserRow row;
+            while ((row = reader.next()) != null) {
+                run.processed++;
+                String error = validate(row, run);
+                if (error != null) {
+                    run.fail(row, error);
+                    continue;
+                }
+
+                chunk.add(row);
+                if (chunk.size() >= batchSize) {
+                    importChunk(chunk, run);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, run);
+            }
+        }
+
+        BulkImportEvent summary = run.snapshot(BulkImportEvent.SUMMARY);
+        summary.setDurationMs(System.currentTimeMillis() - startedAt);
+        log.info("Bulk import into tenant {} finished: {} processed, {} imported, {} failed in {} ms",
+                tenantId, run.processed, run.imported, run.failed, summary.getDurationMs());
+        return summary;
+    }
+
+    private String validate(BulkUserRow row, ImportRun run) {
+        if (row.getParseError() != null) {
+            return row.getParseError();
+        }
+
+        Set<ConstraintViolation<BulkUserRow>> violations = validator.validate(row);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<BulkUserRow> violation = violations.iterator().next();
+            return violation.getPropertyPath() + ": " + violation.getMessage();
+        }
+
+        for (String role : row.getRoles()) {
+            Role parsed;
+            try {
+                parsed = Role.fromString(role);
+            } catch (IllegalArgumentException e) {
+                return e.getMessage();
+            }
+            if (parsed == Role.SUPER_ADMIN) {
+                return "Role SUPER_ADMIN cannot be assigned through import";
+            }
+        }
+
+        if (!run.seenEmails.add(row.getEmail())) {
+            return "Duplicate email in import";
+        }
+        return null;
+    }
+
+    private void importChunk(List<BulkUserRow> rows, ImportRun run) {
+        Set<String> existing = userRepository.findExistingEmails(
+                rows.stream().map(BulkUserRow::getEmail).collect(Collectors.toSet()));
+
+        List<BulkUserRow> accepted = new ArrayList<>(rows.size());
+        for (BulkUserRow row : rows) {
+            if (existing.contains(row.getEmail())) {
+                run.fail(row, "Email already exists");
+            } else {
+                accepted.add(row);
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            List<String> hashes = passwordHasher.encodeAll(
+                    accepted.stream().map(BulkUserRow::getPassword).toList());
+            try {
+                saveAndPublish(toUsers(accepted, hashes, run.tenantId), run.tenantId);
+                run.imported += accepted.size();
+            } catch (DataAccessException e) {
+                log.warn("Batch insert of {} users failed, retrying row by row: {}", accepted.size(), e.getMessage());
+                importRowByRow(accepted, hashes, run);
+            }
+        }
+
+        run.listener.accept(run.snapshot(BulkImportEvent.PROGRESS));
+    }
+
+    private void importRowByRow(List<BulkUserRow> rows, List<String> hashes, ImportRun run) {
+        for (int i = 0; i < rows.size(); i++) {
+            BulkUserRow row = rows.get(i);
+            List<User> single = toUsers(List.of(row), Collections.singletonList(hashes.get(i)), run.tenantId);
+            try {
+                saveAndPublish(single, run.tenantId);
+                run.imported++;
+            } catch (DataAccessException e) {
+                run.fail(row, "Could not be saved: " + e.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+
+    private void saveAndPublish(List<User> users, Long tenantId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> publishImported(userRepository.saveAll(users), tenantId));
+        } finally {
+            // Also after a rollback, which leaves the failed entities in the context
+            entityManager.clear();
+        }
+    }
+
+    // One event per committed chunk rather than per user; the tenant is the aggregate
+    private void publishImported(List<User> users, Long tenantId) {
+        List<Map<String, Object>> imported = users.stream()
+                .map(user -> Map.<String, Object>of("id", user.getId(), "email", user.getEmail()))
+                .toList();
+        outboxPublisher.publish(OutboxPublisher.TENANT, tenantId, "users.imported", tenantId, Map.of("users", imported));
+    }
+
+    private List<User> toUsers(List<BulkUserRow> rows, List<String> hashes, Long tenantId) {
+        List<User> users = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            BulkUserRow row = rows.get(i);
+            User user = User.builder()
+                    .email(row.getEmail())
+                    .password(hashes.get(i))
+                    .firstName(row.getFirstName())
+                    .lastName(row.getLastName())
+                    .tenantId(tenantId)
+                    .active(true)
+                    .emailVerified(false)
+                    .build();
+
+            if (row.getRoles().isEmpty()) {
+                user.addRole(Role.USER.getValue());
+            } else {
+                row.getRoles().forEach(role -> user.addRole(Role.fromString(role).getValue()));
+            }
+            users.add(user);
+        }
+        return users;
+    }
+
+    private static class ImportRun {
+        private final Long tenantId;
+        private final Consumer<BulkImportEvent> listener;
+        private final Set<String> seenEmails = new HashSet<>();
+        private long processed;
+        private long imported;
+        private long failed;
+
+        ImportRun(Long tenantId, Consumer<BulkImportEvent> listener) {
+            this.tenantId = tenantId;
+            this.listener = listener;
+        }
+
+        void fail(BulkUserRow row, String message) {
+            failed++;
+            listener.accept(BulkImportEvent.error(row.getLineNumber(), row.getEmail(), message));
+        }
+
+        BulkImportEvent snapshot(String type) {
+            return BulkImportEvent.builder()
+                    .type(type)
+                    .processed(processed)
+                    .imported(imported)
+                    .failed(failed)
+                    .build();
+        }
+    }
+}
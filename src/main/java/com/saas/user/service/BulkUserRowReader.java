@@ -0,0 +1,183 @@
+package com.saas.user.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saas.user.dto.BulkImportFormat;
+import com.saas.user.dto.BulkUserRow;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads import rows one line at a time so that arbitrarily large uploads are never
+ * held in memory. Malformed lines come back as rows carrying a parse error.
+ */
+class BulkUserRowReader implements Closeable {
+
+    private static final Map<String, String> CSV_COLUMN_ALIASES = Map.of(
+            "email", "email",
+            "password", "password",
+            "firstname", "firstName",
+            "first_name", "firstName",
+            "lastname", "lastName",
+            "last_name", "lastName",
+            "roles", "roles"
+    );
+
+    private final BufferedReader reader;
+    private final BulkImportFormat format;
+    private final ObjectMapper objectMapper;
+    private Map<String, Integer> csvColumns;
+    private long lineNumber;
+
+    BulkUserRowReader(InputStream in, BulkImportFormat format, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Returns the next row, or {@code null} at end of input. Blank lines are skipped.
+     */
+    BulkUserRow next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            // Spreadsheet exports often start with a UTF-8 byte order mark
+            if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                line = line.substring(1);
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == BulkImportFormat.CSV && csvColumns == null) {
+                csvColumns = parseHeader(line);
+                continue;
+            }
+            return format == BulkImportFormat.CSV ? parseCsvRow(line) : parseJsonRow(line);
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private BulkUserRow parseJsonRow(String line) {
+        try {
+            BulkUserRow row = objectMapper.readValue(line, BulkUserRow.class);
+            row.setLineNumber(lineNumber);
+            if (row.getRoles() == null) {
+                row.setRoles(new ArrayList<>());
+            }
+            return row;
+        } catch (JsonProcessingException e) {
+            return failed("Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private BulkUserRow parseCsvRow(String line) {
+        List<String> fields = splitCsv(line);
+        if (fields == null) {
+            return failed("Malformed CSV: unterminated quoted field");
+        }
+
+        BulkUserRow row = new BulkUserRow();
+        row.setLineNumber(lineNumber);
+        row.setEmail(column(fields, "email"));
+        row.setPassword(column(fields, "password"));
+        row.setFirstName(column(fields, "firstName"));
+        row.setLastName(column(fields, "lastName"));
+
+        String roles = column(fields, "roles");
+        if (roles != null) {
+            Arrays.stream(roles.split("[;|]"))
+                    .map(String::trim)
+                    .filter(role -> !role.isEmpty())
+                    .forEach(row.getRoles()::add);
+        }
+        return row;
+    }
+
+    private Map<String, Integer> parseHeader(String line) throws IOException {
+        List<String> names = splitCsv(line);
+        if (names == null) {
+            throw new IOException("Malformed CSV header");
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            String property = CSV_COLUMN_ALIASES.get(names.get(i).trim().toLowerCase(Locale.ROOT));
+            if (property != null) {
+                columns.put(property, i);
+            }
+        }
+        if (!columns.containsKey("email")) {
+            throw new IOException("CSV header must contain an 'email' column");
+        }
+        return columns;
+    }
+
+    private String column(List<String> fields, String property) {
+        Integer index = csvColumns.get(property);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private BulkUserRow failed(String error) {
+        BulkUserRow row = new BulkUserRow();
+        row.setLineNumber(lineNumber);
+        row.setParseError(error);
+        return row;
+    }
+
+    // RFC 4180 field splitting for a single physical line; returns null on an unterminated quote
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+
+        if (quoted) {
+            return null;
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
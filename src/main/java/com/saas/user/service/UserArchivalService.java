@@ -0,0 +1,240 @@
+package com.saas.user.service;
+
+import com.saas.common.exception.ConflictException;
+import com.saas.common.exception.NotFoundException;
+import com.saas.outbox.service.OutboxPublisher;
+import com.saas.tenant.config.TenantContext;
+import com.saas.tenant.service.TenantArchivalService;
+import com.saas.user.dto.ArchivedUserResponse;
+import com.saas.user.dto.UserResponse;
+import com.saas.user.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Moves users that have been soft-deleted for longer than {@code archival.retention} out of
+ * the hot {@code users} table into {@code users_archive}, and restores them on demand.
+ * Batches are claimed with {@code SKIP LOCKED}, so runs on several nodes split the work
+ * instead of blocking each other or request threads.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserArchivalService {
+
+    private static final Pattern SCHEMA_NAME = Pattern.compile("[a-z0-9_]+");
+
+    private static final String USER_COLUMNS = "id, email, password, first_name, last_name, phone_number, avatar_url, "
+            + "oauth_provider, oauth_id, email_verified, active, tenant_id, created_at, updated_at, version";
+
+    // Roles are folded into an array; the snapshot still sees them although the delete cascades
+    private static final String ARCHIVE_BATCH = """
+            WITH batch AS (
+                SELECT id FROM %1$s.users
+                 WHERE deleted = true AND updated_at < ?
+                 ORDER BY updated_at
+                 LIMIT ?
+                   FOR UPDATE SKIP LOCKED
+            ), moved AS (
+                DELETE FROM %1$s.users u USING batch b WHERE u.id = b.id
+                RETURNING u.*
+            )
+            INSERT INTO %1$s.users_archive (%2$s, roles)
+            SELECT %2$s,
+                   coalesce((SELECT array_agg(r.role ORDER BY r.role) FROM %1$s.user_roles r WHERE r.user_id = moved.id), '{}')
+              FROM moved
+            RETURNING id, email
+            """;
+
+    private static final String RESTORE = """
+            WITH restored AS (
+                DELETE FROM %1$s.users_archive WHERE id = ? %3$s
+                RETURNING *
+            ), revived AS (
+                INSERT INTO %1$s.users (%2$s, deleted)
+                SELECT id, email, password, first_name, last_name, phone_number, avatar_url, oauth_provider, oauth_id,
+                       email_verified, active, tenant_id, created_at, CURRENT_TIMESTAMP, version + 1, false
+                  FROM restored
+                RETURNING id, email
+            ), revived_roles AS (
+                INSERT INTO %1$s.user_roles (user_id, role)
+                SELECT r.id, unnest(r.roles) FROM restored r
+            )
+            SELECT id, email FROM revived
+            """;
+
+    private static final String FIND_BY_EMAIL = """
+            SELECT id, email, first_name, last_name, tenant_id, roles, updated_at, archived_at
+              FROM %1$s.users_archive
+             WHERE email = ? %2$s
+             ORDER BY archived_at DESC
+            """;
+
+    // The shared schema, the schema JPA uses outside any tenant, and every tenant schema,
+    // as far as they have been migrated far enough to archive
+    private static final String ARCHIVABLE_SCHEMAS = """
+            SELECT n.nspname FROM pg_namespace n
+             WHERE (n.nspname = ? OR n.nspname IN (SELECT schema_name FROM %1$s.tenants))
+               AND to_regclass(quote_ident(n.nspname) || '.users_archive') IS NOT NULL
+             ORDER BY n.nspname
+            """;
+
+    private static final RowMapper<ArchivedUserResponse> ARCHIVED_USER_MAPPER = (rs, rowNum) -> {
+        Array roles = rs.getArray("roles");
+        Timestamp deletedAt = rs.getTimestamp("updated_at");
+        return ArchivedUserResponse.builder()
+                .id(rs.getLong("id"))
+                .email(rs.getString("email"))
+                .firstName(rs.getString("first_name"))
+                .lastName(rs.getString("last_name"))
+                .tenantId(rs.getLong("tenant_id"))
+                .roles(roles != null ? Arrays.asList((String[]) roles.getArray()) : List.of())
+                .deletedAt(deletedAt != null ? deletedAt.toLocalDateTime() : null)
+                .archivedAt(rs.getTimestamp("archived_at").toLocalDateTime())
+                .build();
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserVersionCache userVersionCache;
+    private final TenantArchivalService tenantArchivalService;
+    private final UserRepository userRepository;
+    private final OutboxPublisher outboxPublisher;
+
+    @Value("${tenancy.shared-schema:public}")
+    private String sharedSchema;
+
+    @Value("${archival.enabled:true}")
+    private boolean enabled;
+
+    @Value("${archival.retention:30d}")
+    private Duration retention;
+
+    @Value("${archival.batch-size:500}")
+    private int batchSize;
+
+    @Value("${archival.max-batches-per-run:200}")
+    private int maxBatchesPerRun;
+
+    @Scheduled(fixedDelayString = "${archival.interval:PT15M}", initialDelayString = "${archival.initial-delay:PT2M}")
+    public void archiveSoftDeletedRows() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        // The shared schema is also where JPA sessions without a tenant live
+        List<String> schemas = jdbcTemplate.queryForList(ARCHIVABLE_SCHEMAS.formatted(quote(sharedSchema)), String.class,
+                sharedSchema);
+        for (String schema : schemas) {
+            try {
+                archiveUsers(schema, cutoff);
+            } catch (RuntimeException e) {
+                log.error("User archival failed for schema {}", schema, e);
+            }
+        }
+        // After users, so tenants whose last users were just archived qualify in the same run
+        tenantArchivalService.archiveDeletedTenants(cutoff, batchSize, maxBatchesPerRun);
+    }
+
+    /**
+     * Archives users of {@code schema} deleted before {@code cutoff}. Returns the number moved.
+     */
+    public int archiveUsers(String schema, LocalDateTime cutoff) {
+        String sql = ARCHIVE_BATCH.formatted(quote(schema), USER_COLUMNS);
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            List<Long> moved = transactionTemplate.execute(status -> {
+                List<Long> ids = new ArrayList<>();
+                jdbcTemplate.query(sql, rs -> {
+                    ids.add(rs.getLong("id"));
+                    userVersionCache.evict(schema, rs.getLong("id"), rs.getString("email"));
+                }, Timestamp.valueOf(cutoff), batchSize);
+                return ids;
+            });
+            if (moved == null || moved.isEmpty()) {
+                break;
+            }
+            total += moved.size();
+            if (moved.size() < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Archived {} soft-deleted users in schema {}", total, schema);
+        }
+        return total;
+    }
+
+    /**
+     * Archived users with the given email in the current tenant schema; {@code tenantId}
+     * restricts the result to one tenant, {@code null} returns all of them.
+     */
+    public List<ArchivedUserResponse> findArchived(String email, Long tenantId) {
+        String sql = FIND_BY_EMAIL.formatted(quote(currentSchema()), tenantId != null ? "AND tenant_id = ?" : "");
+        return tenantId != null
+                ? jdbcTemplate.query(sql, ARCHIVED_USER_MAPPER, email, tenantId)
+                : jdbcTemplate.query(sql, ARCHIVED_USER_MAPPER, email);
+    }
+
+    /**
+     * Moves an archived user back into {@code users} as a live user with its roles.
+     * Returns the restored user's id.
+     */
+    public Long restore(Long id, Long tenantId) {
+        String sql = RESTORE.formatted(quote(currentSchema()), USER_COLUMNS, tenantId != null ? "AND tenant_id = ?" : "");
+        Object[] args = tenantId != null ? new Object[]{id, tenantId} : new Object[]{id};
+
+        List<Long> restored;
+        try {
+            restored = transactionTemplate.execute(status -> {
+                List<Long> ids = jdbcTemplate.query(sql, (rs, rowNum) -> {
+                    userVersionCache.evict(rs.getLong("id"), rs.getString("email"));
+                    return rs.getLong("id");
+                }, args);
+                ids.forEach(restoredId -> userRepository.findById(restoredId).ifPresent(user ->
+                        outboxPublisher.publish(OutboxPublisher.USER, user.getId(), "user.restored",
+                                user.getTenantId(), UserResponse.from(user))));
+                return ids;
+            });
+        } catch (DuplicateKeyException e) {
+            throw new ConflictException("Email is already used by another user");
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("The user's tenant no longer exists");
+        }
+
+        if (restored == null || restored.isEmpty()) {
+            throw new NotFoundException("Archived user not found");
+        }
+        log.info("Restored archived user {}", id);
+        return restored.get(0);
+    }
+
+    // Same schema the JPA session of this request uses
+    private static String currentSchema() {
+        return TenantContext.getSchemaName();
+    }
+
+    private static String quote(String schema) {
+        if (!SCHEMA_NAME.matcher(schema).matches()) {
+            throw new IllegalArgumentException("Invalid schema name: " + schema);
+        }
+        return "\"" + schema + "\"";
+    }
+}
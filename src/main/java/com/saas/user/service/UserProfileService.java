@@ -0,0 +1,150 @@
+package com.saas.user.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.saas.common.exception.BadRequestException;
+import com.saas.common.exception.NotFoundException;
+import com.saas.common.exception.PreconditionFailedException;
+import com.saas.outbox.service.OutboxPublisher;
+import com.saas.user.dto.UserResponse;
+import com.saas.user.entity.User;
+import com.saas.user.repository.RefreshTokenRepository;
+import com.saas.user.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Applies RFC 7396 JSON Merge Patches to a user's profile. Only the members present in
+ * the patch are touched: a string replaces the value and {@code null} clears it. Together
+ * with {@code @DynamicUpdate} on {@link User} the resulting UPDATE contains just the
+ * changed columns plus the version.
+ * <p>
+ * Also soft-deletes users; the archival job later moves them out of the hot table.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserProfileService {
+
+    private static final Map<String, PatchableField> PATCHABLE_FIELDS = Map.of(
+            "firstName", new PatchableField(50, false, User::setFirstName),
+            "lastName", new PatchableField(50, false, User::setLastName),
+            "phoneNumber", new PatchableField(20, true, User::setPhoneNumber),
+            "avatarUrl", new PatchableField(500, true, User::setAvatarUrl)
+    );
+
+    private final UserRepository userRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final OutboxPublisher outboxPublisher;
+
+    /**
+     * @param expectedVersion version from {@code If-Match}, or {@code null} to skip the precondition
+     */
+    @Transactional
+    public User applyMergePatch(String email, JsonNode patch, Long expectedVersion) {
+        if (patch == null || !patch.isObject()) {
+            throw new BadRequestException("Merge patch must be a JSON object");
+        }
+
+        User user = userRepository.findByEmailAndDeletedFalse(email)
+                .orElseThrow(() -> new NotFoundException("User not found"));
+
+        if (expectedVersion != null && !expectedVersion.equals(user.getVersion())) {
+            throw new PreconditionFailedException("User was modified; current version is " + user.getVersion());
+        }
+
+        Iterator<Map.Entry<String, JsonNode>> members = patch.fields();
+        while (members.hasNext()) {
+            Map.Entry<String, JsonNode> member = members.next();
+            PatchableField field = PATCHABLE_FIELDS.get(member.getKey());
+            if (field == null) {
+                throw new BadRequestException("Field cannot be patched: " + member.getKey());
+            }
+            field.apply(user, member.getKey(), member.getValue());
+        }
+
+        // Flush so the incremented version is visible to the caller
+        User saved = userRepository.saveAndFlush(user);
+        publish(saved, "user.updated");
+        return saved;
+    }
+    
+    /**
+     * Full profile update from a map of field values; fields not present are kept.
+     */
+    @Transactional
+    public User updateProfile(String email, Map<String, Object> updates) {
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new NotFoundException("User not found"));
+        
+        if (updates.containsKey("firstName")) {
+            user.setFirstName((String) updates.get("firstName"));
+        }
+        if (updates.containsKey("lastName")) {
+            user.setLastName((String) updates.get("lastName"));
+        }
+        if (updates.containsKey("phoneNumber")) {
+            user.setPhoneNumber((String) updates.get("phoneNumber"));
+        }
+        if (updates.containsKey("avatarUrl")) {
+            user.setAvatarUrl((String) updates.get("avatarUrl"));
+        }
+        
+        User saved = userRepository.saveAndFlush(user);
+        publish(saved, "user.updated");
+        return saved;
+    }
+
+    /**
+     * Marks a user as deleted and revokes its refresh tokens. Admins may only delete users
+     * of their own tenant, and nobody can delete themselves.
+     */
+    @Transactional
+    public void softDelete(Long id, User admin) {
+        User user = userRepository.findById(id)
+                .filter(candidate -> !Boolean.TRUE.equals(candidate.getDeleted()))
+                .filter(candidate -> admin.isSuperAdmin() || candidate.getTenantId().equals(admin.getTenantId()))
+                .orElseThrow(() -> new NotFoundException("User not found"));
+        if (user.getId().equals(admin.getId())) {
+            throw new BadRequestException("You cannot delete your own account");
+        }
+
+        user.setDeleted(true);
+        refreshTokenRepository.deleteByUserId(user.getId());
+        User saved = userRepository.saveAndFlush(user);
+        publish(saved, "user.deleted");
+        log.info("User {} soft-deleted by {}", user.getId(), admin.getEmail());
+    }
+    
+    private void publish(User user, String eventType) {
+        outboxPublisher.publish(OutboxPublisher.USER, user.getId(), eventType, user.getTenantId(), UserResponse.from(user));
+    }
+
+    private record PatchableField(int maxLength, boolean nullable, BiConsumer<User, String> setter) {
+
+        void apply(User user, String name, JsonNode value) {
+            if (value.isNull()) {
+                if (!nullable) {
+                    throw new BadRequestException(name + " cannot be removed");
+                }
+                setter.accept(user, null);
+                return;
+            }
+            if (!value.isTextual()) {
+                throw new BadRequestException(name + " must be a string");
+            }
+
+            String text = value.textValue().trim();
+            if ((!nullable && text.isEmpty()) || text.length() > maxLength) {
+                throw new BadRequestException(
+                        name + " must be between " + (nullable ? 0 : 1) + " and " + maxLength + " characters");
+            }
+            setter.accept(user, text);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.saas.user.service;
+
+import com.saas.user.dto.UserSearchResult;
+import com.saas.user.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Type-ahead search over the users of one tenant by email, first and last name.
+ * Queries shorter than a trigram only match prefixes; longer ones also match substrings.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserSearchService {
+
+    private static final int TRIGRAM_LENGTH = 3;
+    private static final int MAX_QUERY_LENGTH = 100;
+
+    private final UserRepository userRepository;
+
+    @Value("${user-search.max-limit:50}")
+    private int maxLimit;
+
+    @Value("${user-search.trigram-candidates:200}")
+    private int trigramCandidates;
+
+    @Transactional(readOnly = true)
+    public List<UserSearchResult> search(Long tenantId, String query, int limit) {
+        String lower = normalize(query);
+        if (lower.isEmpty()) {
+            return List.of();
+        }
+
+        int size = Math.max(1, Math.min(limit, maxLimit));
+        String upper = upperBound(lower);
+        if (lower.codePointCount(0, lower.length()) < TRIGRAM_LENGTH) {
+            return userRepository.searchByPrefix(tenantId, lower, upper, size);
+        }
+        return userRepository.searchByTrigram(tenantId, lower, upper,
+                "%" + escapeLike(lower) + "%", size, Math.max(size, trigramCandidates));
+    }
+
+    private static String normalize(String query) {
+        if (query == null) {
+            return "";
+        }
+        String lower = query.strip().toLowerCase(Locale.ROOT);
+        return lower.length() > MAX_QUERY_LENGTH ? lower.substring(0, MAX_QUERY_LENGTH) : lower;
+    }
+
+    // Smallest string greater than every string starting with the prefix, in code point order
+    static String upperBound(String prefix) {
+        int last = prefix.codePointBefore(prefix.length());
+        return prefix.substring(0, prefix.length() - Character.charCount(last)) + Character.toString(last + 1);
+    }
+
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,93 @@
+package com.saas.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.saas.common.transaction.TransactionHooks;
+import com.saas.tenant.config.TenantContext;
+import com.saas.user.dto.UserVersion;
+import com.saas.user.entity.User;
+import com.saas.user.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Current version of each user, used to answer conditional requests without loading the
+ * entity. Entries are evicted by {@link com.saas.user.entity.UserEntityListener} whenever
+ * a user is written through JPA; the TTL bounds staleness for writes that bypass it.
+ * <p>
+ * Ids and emails are only unique within a tenant schema, so every entry is keyed by the
+ * schema of the current {@link TenantContext} as well.
+ */
+@Component
+public class UserVersionCache {
+
+    private final UserRepository userRepository;
+    private final Cache<Key<String>, UserVersion> byEmail;
+    private final Cache<Key<Long>, UserVersion> byId;
+
+    public UserVersionCache(UserRepository userRepository,
+                            @Value("${etag.cache.max-size:100000}") long maxSize,
+                            @Value("${etag.cache.ttl:10m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.byEmail = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).build();
+        this.byId = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).build();
+    }
+
+    public Optional<UserVersion> byEmail(String email) {
+        String schema = TenantContext.getSchemaName();
+        UserVersion cached = byEmail.getIfPresent(new Key<>(schema, email));
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return userRepository.findVersionByEmail(email).map(version -> remember(schema, version));
+    }
+
+    public Optional<UserVersion> byId(Long id) {
+        String schema = TenantContext.getSchemaName();
+        UserVersion cached = byId.getIfPresent(new Key<>(schema, id));
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return userRepository.findVersionById(id).map(version -> remember(schema, version));
+    }
+
+    public void evict(User user) {
+        evict(user.getId(), user.getEmail());
+    }
+
+    public void evict(Long id, String email) {
+        evict(TenantContext.getSchemaName(), id, email);
+    }
+
+    /**
+     * Evicts a user of {@code schema}, for callers that work on a schema other than the
+     * one of the current tenant context.
+     */
+    public void evict(String schema, Long id, String email) {
+        TransactionHooks.nowAndAfterCompletion(() -> {
+            if (id != null) {
+                byId.invalidate(new Key<>(schema, id));
+            }
+            if (email != null) {
+                byEmail.invalidate(new Key<>(schema, email));
+            }
+        });
+    }
+
+    public void evictAll() {
+        byId.invalidateAll();
+        byEmail.invalidateAll();
+    }
+
+    private UserVersion remember(String schema, UserVersion version) {
+        byEmail.put(new Key<>(schema, version.email()), version);
+        byId.put(new Key<>(schema, version.id()), version);
+        return version;
+    }
+
+    private record Key<T>(String schema, T value) {
+    }
+}
@@ -0,0 +1,18 @@
+-- Metered API usage per tenant, metric and hour. quantity only grows; the part above
+-- reported_quantity has not been sent to Stripe yet. reporting_quantity pins the amount
+-- of an in-flight report so that a retry after a crash sends the same increment with the
+-- same idempotency key.
+CREATE TABLE IF NOT EXISTS public.usage_counters (
+    tenant_id BIGINT NOT NULL,
+    metric VARCHAR(50) NOT NULL,
+    period_start TIMESTAMP NOT NULL,
+    quantity BIGINT NOT NULL DEFAULT 0,
+    reported_quantity BIGINT NOT NULL DEFAULT 0,
+    reporting_quantity BIGINT,
+    locked_until TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (tenant_id, metric, period_start)
+);
+
+CREATE INDEX IF NOT EXISTS idx_usage_counters_unreported
+    ON public.usage_counters(updated_at) WHERE quantity > reported_quantity;
@@ -0,0 +1,16 @@
+-- Trigram candidates for type-ahead search are taken in order of distance to the query
+-- (ORDER BY ... <-> ... LIMIT). GIN cannot return rows in that order, GiST can, and it
+-- serves the LIKE filter as well, so the GIN indexes from V4 are replaced.
+-- btree_gist puts tenant_id into the GiST key so scoping happens inside the index.
+CREATE EXTENSION IF NOT EXISTS btree_gist WITH SCHEMA public;
+
+CREATE INDEX IF NOT EXISTS idx_users_search_email_gist
+    ON users USING gist (tenant_id, lower(email) public.gist_trgm_ops)
+    WHERE deleted = false;
+
+CREATE INDEX IF NOT EXISTS idx_users_search_name_gist
+    ON users USING gist (tenant_id, lower(coalesce(first_name, '') || ' ' || coalesce(last_name, '')) public.gist_trgm_ops)
+    WHERE deleted = false;
+
+DROP INDEX IF EXISTS idx_users_search_email_trgm;
+DROP INDEX IF EXISTS idx_users_search_name_trgm;
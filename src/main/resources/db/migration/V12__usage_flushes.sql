@@ -0,0 +1,9 @@
+-- Ids of usage flushes applied to usage_counters. A flush whose outcome is unknown is
+-- retried with the same id, and the id's insert gates the counter upsert, so a flush that
+-- committed before its error reached the node is not added twice.
+CREATE TABLE IF NOT EXISTS public.usage_flushes (
+    flush_id UUID PRIMARY KEY,
+    applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_usage_flushes_applied_at ON public.usage_flushes(applied_at);
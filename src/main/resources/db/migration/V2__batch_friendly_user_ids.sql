@@ -0,0 +1,3 @@
+-- Users are now assigned ids from a pooled sequence (allocationSize = 50) so that
+-- Hibernate can batch inserts. The increment must match the allocation size.
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
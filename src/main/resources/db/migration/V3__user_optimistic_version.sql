@@ -0,0 +1,2 @@
+-- Optimistic concurrency for user profile updates
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
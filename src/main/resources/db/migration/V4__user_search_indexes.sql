@@ -0,0 +1,29 @@
+-- Type-ahead search over users within a tenant.
+-- Extensions live in public: tenant schemas are migrated with their own search_path,
+-- so trigram objects are always referenced schema-qualified.
+CREATE EXTENSION IF NOT EXISTS pg_trgm WITH SCHEMA public;
+CREATE EXTENSION IF NOT EXISTS btree_gin WITH SCHEMA public;
+
+-- Trigram indexes serve infix matches (3+ characters); tenant_id is part of the
+-- GIN key (btree_gin) so scoping happens inside the index.
+CREATE INDEX IF NOT EXISTS idx_users_search_email_trgm
+    ON users USING gin (tenant_id, lower(email) public.gin_trgm_ops)
+    WHERE deleted = false;
+
+CREATE INDEX IF NOT EXISTS idx_users_search_name_trgm
+    ON users USING gin (tenant_id, lower(coalesce(first_name, '') || ' ' || coalesce(last_name, '')) public.gin_trgm_ops)
+    WHERE deleted = false;
+
+-- Trigrams cannot serve 1-2 character prefixes; those use ordered range scans on
+-- byte-ordered (C collation) b-trees, which also work with generic prepared plans.
+CREATE INDEX IF NOT EXISTS idx_users_search_email_prefix
+    ON users (tenant_id, lower(email) COLLATE "C")
+    WHERE deleted = false;
+
+CREATE INDEX IF NOT EXISTS idx_users_search_first_name_prefix
+    ON users (tenant_id, lower(first_name) COLLATE "C")
+    WHERE deleted = false;
+
+CREATE INDEX IF NOT EXISTS idx_users_search_last_name_prefix
+    ON users (tenant_id, lower(last_name) COLLATE "C")
+    WHERE deleted = false;
@@ -0,0 +1,50 @@
+-- Soft-deleted rows are moved into these tables by the archival job so that the hot
+-- tables and their indexes only hold live rows (plus deletions inside the retention window).
+CREATE TABLE IF NOT EXISTS users_archive (
+    id BIGINT PRIMARY KEY,
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255),
+    first_name VARCHAR(100),
+    last_name VARCHAR(100),
+    phone_number VARCHAR(20),
+    avatar_url VARCHAR(500),
+    oauth_provider VARCHAR(50),
+    oauth_id VARCHAR(255),
+    email_verified BOOLEAN,
+    active BOOLEAN,
+    tenant_id BIGINT NOT NULL,
+    roles VARCHAR(50)[] NOT NULL DEFAULT '{}',
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    version BIGINT NOT NULL DEFAULT 0,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_users_archive_email ON users_archive(email);
+
+CREATE TABLE IF NOT EXISTS tenants_archive (
+    id BIGINT PRIMARY KEY,
+    tenant_id VARCHAR(50) NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    domain VARCHAR(255),
+    schema_name VARCHAR(100),
+    active BOOLEAN,
+    subscription_plan VARCHAR(100),
+    subscription_status VARCHAR(50),
+    stripe_customer_id VARCHAR(255),
+    subscription_end_date TIMESTAMP,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_tenants_archive_tenant_id ON tenants_archive(tenant_id);
+
+-- Lookups filter on deleted = false, so index live rows only. idx_users_email duplicated
+-- the unique constraint's index and covered deleted rows as well.
+DROP INDEX IF EXISTS idx_users_email;
+CREATE INDEX IF NOT EXISTS idx_users_live_email ON users(email) WHERE deleted = false;
+
+-- Candidates for the archival job, oldest deletion first
+CREATE INDEX IF NOT EXISTS idx_users_soft_deleted ON users(updated_at) WHERE deleted = true;
+CREATE INDEX IF NOT EXISTS idx_tenants_soft_deleted ON tenants(updated_at) WHERE deleted = true;
@@ -0,0 +1,24 @@
+-- Authentication audit trail, written in batches by AuditLogWriter. Monthly range
+-- partitions are created ahead of time by AuditPartitionMaintainer; the default
+-- partition only catches rows outside them.
+CREATE TABLE IF NOT EXISTS auth_audit_log (
+    id BIGSERIAL,
+    occurred_at TIMESTAMPTZ NOT NULL,
+    event_type VARCHAR(32) NOT NULL,
+    success BOOLEAN NOT NULL,
+    user_id BIGINT,
+    tenant_id BIGINT,
+    email VARCHAR(255),
+    provider VARCHAR(50),
+    ip_address VARCHAR(64),
+    user_agent VARCHAR(512),
+    failure_reason VARCHAR(255)
+) PARTITION BY RANGE (occurred_at);
+
+CREATE TABLE IF NOT EXISTS auth_audit_log_default PARTITION OF auth_audit_log DEFAULT;
+
+-- Rows arrive in time order, so a BRIN index stays tiny and still prunes time ranges
+CREATE INDEX IF NOT EXISTS idx_auth_audit_log_occurred_at
+    ON auth_audit_log USING brin (occurred_at) WITH (pages_per_range = 32);
+
+CREATE INDEX IF NOT EXISTS idx_auth_audit_log_tenant ON auth_audit_log(tenant_id, occurred_at);
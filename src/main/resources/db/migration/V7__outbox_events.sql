@@ -0,0 +1,24 @@
+-- Transactional outbox. Always lives in public so that events written from any tenant
+-- schema share one table and keep their per-aggregate order.
+CREATE TABLE IF NOT EXISTS public.outbox_events (
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_type VARCHAR(50) NOT NULL,
+    aggregate_id VARCHAR(100) NOT NULL,
+    event_type VARCHAR(100) NOT NULL,
+    tenant_id BIGINT,
+    payload JSONB NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error VARCHAR(1000),
+    published_at TIMESTAMP
+);
+
+-- The relay only ever looks at pending rows; published ones are cleaned up in the background
+CREATE INDEX IF NOT EXISTS idx_outbox_events_pending
+    ON public.outbox_events(id) WHERE status = 'PENDING';
+CREATE INDEX IF NOT EXISTS idx_outbox_events_pending_aggregate
+    ON public.outbox_events(aggregate_type, aggregate_id, id) WHERE status = 'PENDING';
+CREATE INDEX IF NOT EXISTS idx_outbox_events_published
+    ON public.outbox_events(published_at) WHERE status = 'PUBLISHED';
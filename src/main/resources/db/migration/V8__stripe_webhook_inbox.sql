@@ -0,0 +1,26 @@
+-- Durable inbox for Stripe webhooks. The event id is the primary key, so redelivered
+-- events are dropped on insert; workers lease rows and process them asynchronously.
+CREATE TABLE IF NOT EXISTS public.stripe_webhook_inbox (
+    event_id VARCHAR(255) PRIMARY KEY,
+    event_type VARCHAR(100) NOT NULL,
+    customer_id VARCHAR(255),
+    stripe_created_at TIMESTAMP NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    locked_until TIMESTAMP,
+    locked_by VARCHAR(100),
+    last_error VARCHAR(1000),
+    received_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    processed_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_stripe_webhook_inbox_pending
+    ON public.stripe_webhook_inbox(stripe_created_at, event_id) WHERE status = 'PENDING';
+CREATE INDEX IF NOT EXISTS idx_stripe_webhook_inbox_pending_customer
+    ON public.stripe_webhook_inbox(customer_id, stripe_created_at, event_id) WHERE status = 'PENDING';
+CREATE INDEX IF NOT EXISTS idx_stripe_webhook_inbox_processed
+    ON public.stripe_webhook_inbox(processed_at) WHERE status = 'DONE';
+
+CREATE INDEX IF NOT EXISTS idx_tenants_stripe_customer_id ON tenants(stripe_customer_id);
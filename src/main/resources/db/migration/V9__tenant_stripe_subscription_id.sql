@@ -0,0 +1,2 @@
+-- Remember the Stripe subscription so cancelling does not need a round trip to look it up
+ALTER TABLE tenants ADD COLUMN IF NOT EXISTS stripe_subscription_id VARCHAR(255);
@@ -0,0 +1,59 @@
+package com.saas.audit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saas.audit.dto.AuthAuditEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuditSpillFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void spilledEventIsOnDiskBeforeTheFileIsClosed() throws IOException {
+        AuditSpillFile spillFile = new AuditSpillFile(new ObjectMapper().findAndRegisterModules(), directory.toString());
+
+        assertThat(spillFile.tryAppend(event("a@acme.test"))).isTrue();
+
+        assertThat(Files.readString(directory.resolve("auth-audit-spill.ndjson"))).contains("a@acme.test");
+    }
+
+    @Test
+    void failedReplayResumesAfterTheLastAcceptedBatch() throws IOException {
+        AuditSpillFile spillFile = new AuditSpillFile(new ObjectMapper().findAndRegisterModules(), directory.toString());
+        for (int i = 1; i <= 5; i++) {
+            spillFile.tryAppend(event("user" + i + "@acme.test"));
+        }
+
+        List<String> delivered = new ArrayList<>();
+        assertThatThrownBy(() -> spillFile.replay(2, batch -> {
+            if (!delivered.isEmpty()) {
+                throw new IllegalStateException("database down");
+            }
+            batch.forEach(event -> delivered.add(event.getEmail()));
+        })).isInstanceOf(IllegalStateException.class);
+
+        spillFile.replay(2, batch -> batch.forEach(event -> delivered.add(event.getEmail())));
+
+        assertThat(delivered).containsExactly("user1@acme.test", "user2@acme.test",
+                "user3@acme.test", "user4@acme.test", "user5@acme.test");
+        try (Stream<Path> left = Files.list(directory)) {
+            assertThat(left).isEmpty();
+        }
+    }
+
+    private static AuthAuditEvent event(String email) {
+        return AuthAuditEvent.builder().email(email).success(true).build();
+    }
+}
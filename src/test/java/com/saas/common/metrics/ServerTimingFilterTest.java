@@ -0,0 +1,51 @@
+package com.saas.common.metrics;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServerTimingFilterTest {
+
+    private final ServerTimingFilter filter = new ServerTimingFilter(0, Duration.ofHours(1));
+
+    @Test
+    void sendsNoTimingsToAnonymousCallers() throws Exception {
+        MockHttpServletResponse response = run("/saas/api/v1/auth/login", false);
+
+        assertThat(response.getHeader("Server-Timing")).isNull();
+    }
+
+    @Test
+    void sendsTimingsToAuthenticatedCallers() throws Exception {
+        MockHttpServletResponse response = run("/saas/api/v1/users/me", true);
+
+        assertThat(response.getHeader("Server-Timing")).startsWith("password;dur=2.0, ").contains("total;dur=");
+    }
+
+    @Test
+    void neverSendsThePasswordStageFromAuthEndpoints() throws Exception {
+        MockHttpServletResponse response = run("/saas/api/v1/auth/login", true);
+
+        assertThat(response.getHeader("Server-Timing")).doesNotContain("password").startsWith("total;dur=");
+    }
+
+    private MockHttpServletResponse run(String uri, boolean authenticated) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setContextPath("/saas");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> {
+            if (authenticated) {
+                RequestTimings.markAuthenticated();
+            }
+            RequestTimings.record(RequestTimings.Stage.PASSWORD, 2_000_000);
+            res.getWriter().write("{}");
+        };
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
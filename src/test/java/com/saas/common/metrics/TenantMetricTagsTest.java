@@ -0,0 +1,48 @@
+package com.saas.common.metrics;
+
+import com.saas.subscription.service.EntitlementStore;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TenantMetricTagsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TenantMetricTags tags = new TenantMetricTags(
+            new StaticListableBeanFactory().getBeanProvider(EntitlementStore.class), meterRegistry, 1);
+
+    @Test
+    void reusesTimersPerTagSet() {
+        Timer first = tags.timer("auth.jwt.verify", 1L, "outcome", "valid");
+
+        assertThat(tags.timer("auth.jwt.verify", 1L, "outcome", "valid")).isSameAs(first);
+        assertThat(tags.timer("auth.jwt.verify", 1L, "outcome", "expired")).isNotSameAs(first);
+    }
+
+    @Test
+    void removesTimersOfTenantsThatLeaveTheTopN() {
+        tags.timer("tenant.resolution", 1L, "outcome", "resolved");
+        tags.timer("tenant.resolution", 1L, "outcome", "resolved");
+        tags.refresh();
+        tags.timer("tenant.resolution", 1L, "outcome", "resolved");
+        assertThat(tenantsOf("tenant.resolution")).containsExactlyInAnyOrder(TenantMetricTags.OTHER, "1");
+
+        // Tenant 2 is busier in the next interval and takes the only slot
+        tags.timer("tenant.resolution", 2L, "outcome", "resolved");
+        tags.timer("tenant.resolution", 2L, "outcome", "resolved");
+        tags.refresh();
+
+        assertThat(tenantsOf("tenant.resolution")).containsExactly(TenantMetricTags.OTHER);
+        tags.timer("tenant.resolution", 2L, "outcome", "resolved");
+        assertThat(tenantsOf("tenant.resolution")).containsExactlyInAnyOrder(TenantMetricTags.OTHER, "2");
+    }
+
+    private List<String> tenantsOf(String name) {
+        return meterRegistry.find(name).timers().stream().map(timer -> timer.getId().getTag("tenant")).toList();
+    }
+}
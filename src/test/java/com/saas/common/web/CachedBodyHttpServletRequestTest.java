@@ -0,0 +1,55 @@
+package com.saas.common.web;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachedBodyHttpServletRequestTest {
+
+    @Test
+    void replaysTheBodyToEveryStream() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent("{\"query\":\"{ me { id } }\"}".getBytes(StandardCharsets.UTF_8));
+        CachedBodyHttpServletRequest cached = new CachedBodyHttpServletRequest(request);
+
+        assertThat(cached.getInputStream().readAllBytes()).isEqualTo(cached.getBody());
+        assertThat(cached.getReader().readLine()).isEqualTo("{\"query\":\"{ me { id } }\"}");
+        assertThat(cached.getContentLength()).isEqualTo(cached.getBody().length);
+    }
+
+    @Test
+    void notifiesReadListenersAtOnce() {
+        CachedBodyHttpServletRequest cached =
+                new CachedBodyHttpServletRequest(new MockHttpServletRequest(), "body".getBytes(StandardCharsets.UTF_8));
+        ServletInputStream in = cached.getInputStream();
+        List<String> calls = new ArrayList<>();
+
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                calls.add("data:" + new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public void onAllDataRead() {
+                calls.add("done");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                calls.add("error");
+            }
+        });
+
+        assertThat(calls).containsExactly("data:body", "done");
+        assertThat(in.isFinished()).isTrue();
+    }
+}
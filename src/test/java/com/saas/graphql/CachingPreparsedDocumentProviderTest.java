@@ -0,0 +1,46 @@
+package com.saas.graphql;
+
+import graphql.ExecutionInput;
+import graphql.GraphQLError;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.parser.Parser;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class CachingPreparsedDocumentProviderTest {
+
+    private final CachingPreparsedDocumentProvider provider = new CachingPreparsedDocumentProvider(100);
+    private final AtomicInteger parses = new AtomicInteger();
+    private final Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidate = input -> {
+        parses.incrementAndGet();
+        return new PreparsedDocumentEntry(Parser.parse(input.getQuery()));
+    };
+
+    @Test
+    void parsesEachQueryTextOnce() {
+        ExecutionInput input = ExecutionInput.newExecutionInput("{ me { email } }").build();
+
+        PreparsedDocumentEntry first = provider.getDocumentAsync(input, parseAndValidate).join();
+        PreparsedDocumentEntry second = provider.getDocumentAsync(input, parseAndValidate).join();
+
+        assertThat(second).isSameAs(first);
+        assertThat(parses).hasValue(1);
+    }
+
+    @Test
+    void sharesValidDocumentsOnly() {
+        assertThat(provider.cachedDocument("{ me { email } }")).isEmpty();
+
+        provider.getDocumentAsync(ExecutionInput.newExecutionInput("{ me { email } }").build(), parseAndValidate).join();
+        provider.getDocumentAsync(ExecutionInput.newExecutionInput("{ nope }").build(),
+                input -> new PreparsedDocumentEntry(mock(GraphQLError.class))).join();
+
+        assertThat(provider.cachedDocument("{ me { email } }")).isPresent();
+        assertThat(provider.cachedDocument("{ nope }")).isEmpty();
+    }
+}
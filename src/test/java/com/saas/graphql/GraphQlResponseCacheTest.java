@@ -0,0 +1,124 @@
+package com.saas.graphql;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saas.security.filter.JwtAuthenticationFilter;
+import com.saas.tenant.config.TenantContext;
+import com.saas.tenant.dto.TenantChangedEvent;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.graphql.support.DefaultExecutionGraphQlResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GraphQlResponseCacheTest {
+
+    private static final String QUERY = "{ tenant { users { email } } }";
+
+    private final GraphQlResponseCache cache =
+            new GraphQlResponseCache(new ObjectMapper(), new SimpleMeterRegistry(), true, 1 << 20, 2);
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest();
+        servletRequest.setAttribute(JwtAuthenticationFilter.TENANT_ID_ATTRIBUTE, 7L);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(servletRequest));
+        TenantContext.setCurrentTenant("acme", 7L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        TenantContext.clear();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void sharesTenantScopedResultsBetweenCallersWithTheSameRoles() {
+        assertThat(execute("alice@acme.test", "ROLE_USER")).isEqualTo("alice@acme.test");
+        assertThat(execute("bob@acme.test", "ROLE_USER")).isEqualTo("alice@acme.test");
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void neverServesAnAdminResultToACallerWithOtherRoles() {
+        assertThat(execute("admin@acme.test", "ROLE_ADMIN")).isEqualTo("admin@acme.test");
+        assertThat(execute("user@acme.test", "ROLE_USER")).isEqualTo("user@acme.test");
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    void dropsEntriesWhenTheTenantChanges() {
+        execute("alice@acme.test", "ROLE_USER");
+        cache.onTenantChanged(new TenantChangedEvent(7L));
+        execute("alice@acme.test", "ROLE_USER");
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    void doesNotCacheWhenTheHeaderTenantDiffersFromTheTokenTenant() {
+        TenantContext.setCurrentTenant("globex", 8L);
+
+        execute("alice@acme.test", "ROLE_USER");
+        execute("alice@acme.test", "ROLE_USER");
+
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    void keepsEntriesFromBeforeAChangeUnreachableWhenGenerationsAreEvicted() {
+        execute("alice@acme.test", "ROLE_USER");
+        cache.onTenantChanged(new TenantChangedEvent(7L));
+        // More changed tenants than graphql.response-cache.max-tenants
+        for (long tenantId = 100; tenantId < 110; tenantId++) {
+            cache.onTenantChanged(new TenantChangedEvent(tenantId));
+        }
+
+        execute("alice@acme.test", "ROLE_USER");
+
+        assertThat(executions).hasValue(2);
+    }
+
+    // Runs the query as the given caller and returns whose execution produced the result
+    private String execute(String user, String... authorities) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                user, null, AuthorityUtils.createAuthorityList(authorities)));
+
+        ExecutionInput input = ExecutionInput.newExecutionInput(QUERY).build();
+        WebGraphQlRequest request = mock(WebGraphQlRequest.class);
+        when(request.getDocument()).thenReturn(QUERY);
+        when(request.getVariables()).thenReturn(Map.of());
+        when(request.toExecutionInput()).thenReturn(input);
+
+        WebGraphQlInterceptor.Chain chain = next -> {
+            executions.incrementAndGet();
+            input.getGraphQLContext().put(CachePolicy.CONTEXT_KEY, new CachePolicy(30, CachePolicy.Scope.TENANT));
+            ExecutionResult result = ExecutionResultImpl.newExecutionResult().data(Map.of("by", user)).build();
+            return Mono.just(new WebGraphQlResponse(new DefaultExecutionGraphQlResponse(input, result)));
+        };
+
+        WebGraphQlResponse response = cache.intercept(request, chain).block();
+        Map<String, Object> data = response.getExecutionResult().getData();
+        return (String) data.get("by");
+    }
+}
@@ -0,0 +1,75 @@
+package com.saas.graphql;
+
+import com.saas.common.metrics.TenantMetricTags;
+import com.saas.security.jwt.JwtUtil;
+import com.saas.security.service.CustomUserDetailsService;
+import com.saas.subscription.service.EntitlementStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.graphql.server.WebSocketSessionInfo;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GraphQlTenantInterceptorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JwtUtil jwtUtil = new JwtUtil(meterRegistry, new TenantMetricTags(
+            new StaticListableBeanFactory().getBeanProvider(EntitlementStore.class), meterRegistry, 20));
+    private final CustomUserDetailsService userDetailsService = mock(CustomUserDetailsService.class);
+    private final GraphQlTenantInterceptor interceptor = new GraphQlTenantInterceptor(jwtUtil, userDetailsService);
+    private final Map<String, Object> attributes = new HashMap<>();
+    private final WebSocketSessionInfo sessionInfo = mock(WebSocketSessionInfo.class);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(jwtUtil, "secret", "test-secret-key-that-is-at-least-256-bits-long!!");
+        ReflectionTestUtils.setField(jwtUtil, "accessTokenValidity", 900L);
+        ReflectionTestUtils.setField(interceptor, "maxConnectionsPerTenant", 10);
+        when(sessionInfo.getAttributes()).thenReturn(attributes);
+    }
+
+    @Test
+    void acceptsAnAccessTokenOfAnActiveUser() {
+        String token = jwtUtil.generateAccessToken("jane@acme.test", 5L, 1L, Set.of("USER"));
+
+        interceptor.handleConnectionInitialization(sessionInfo, Map.of("Authorization", "Bearer " + token)).block();
+
+        assertThat(attributes).containsEntry(GraphQlTenantInterceptor.TENANT_ID_KEY, 1L);
+        assertThat((Instant) attributes.get(GraphQlTenantInterceptor.TOKEN_EXPIRES_AT_KEY))
+                .isBefore(Instant.now().plusSeconds(901));
+    }
+
+    @Test
+    void rejectsRefreshTokens() {
+        String token = jwtUtil.generateRefreshToken("jane@acme.test", 5L, 1L);
+
+        assertThatThrownBy(() -> interceptor.handleConnectionInitialization(
+                sessionInfo, Map.of("Authorization", "Bearer " + token)).block())
+                .hasMessageContaining("access token");
+        assertThat(attributes).isEmpty();
+    }
+
+    @Test
+    void rejectsDeletedOrInactiveUsers() {
+        String token = jwtUtil.generateAccessToken("gone@acme.test", 6L, 1L, Set.of("USER"));
+        when(userDetailsService.loadUserByUsername("gone@acme.test"))
+                .thenThrow(new UsernameNotFoundException("User is not active"));
+
+        assertThatThrownBy(() -> interceptor.handleConnectionInitialization(
+                sessionInfo, Map.of("Authorization", "Bearer " + token)).block())
+                .hasMessageContaining("not active");
+        assertThat(attributes).isEmpty();
+    }
+}
@@ -0,0 +1,71 @@
+package com.saas.graphql;
+
+import graphql.execution.RawVariables;
+import graphql.normalized.ExecutableNormalizedOperation;
+import graphql.normalized.ExecutableNormalizedOperationFactory;
+import graphql.parser.Parser;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryCostCalculatorTest {
+
+    private static final GraphQLSchema SCHEMA = new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse("""
+            directive @cost(weight: Int! = 1, multipliers: [String!] = []) on FIELD_DEFINITION
+            type Query { tenant: Tenant @cost(weight: 1) }
+            type Tenant { name: String users(first: Int = 50): [User!] @cost(weight: 2, multipliers: ["first"]) }
+            type User { email: String tenant: Tenant @cost(weight: 1) }
+            """), RuntimeWiring.newRuntimeWiring().build());
+
+    private static final long MAX_PAGE_SIZE = 100;
+
+    @Test
+    void multipliesTheFieldAndItsChildrenByThePageSize() {
+        QueryCostCalculator.QueryCost cost = calculate("{ tenant { name users(first: 10) { email } } }");
+
+        assertThat(cost.cost()).isEqualTo(1 + 2 * 10);
+        assertThat(cost.depth()).isEqualTo(3);
+    }
+
+    @Test
+    void multipliesNestedListsTogether() {
+        QueryCostCalculator.QueryCost cost = calculate(
+                "{ tenant { users(first: 10) { tenant { users(first: 5) { email } } } } }");
+
+        assertThat(cost.cost()).isEqualTo(1 + (2 + (1 + 2 * 5)) * 10);
+        assertThat(cost.depth()).isEqualTo(5);
+    }
+
+    @Test
+    void usesTheSchemaDefaultWhenTheArgumentIsMissingOrNull() {
+        assertThat(calculate("{ tenant { users { email } } }").cost()).isEqualTo(1 + 2 * 50);
+        assertThat(calculate("{ tenant { users(first: null) { email } } }").cost()).isEqualTo(1 + 2 * 50);
+    }
+
+    @Test
+    void chargesAtLeastOneRowForZeroOrNegativePageSizes() {
+        assertThat(calculate("{ tenant { users(first: 0) { email } } }").cost()).isEqualTo(1 + 2);
+        assertThat(calculate("{ tenant { users(first: -5) { email } } }").cost()).isEqualTo(1 + 2);
+    }
+
+    @Test
+    void capsThePageSizeLikeTheResolver() {
+        assertThat(calculate("{ tenant { users(first: 100000) { email } } }").cost()).isEqualTo(1 + 2 * MAX_PAGE_SIZE);
+    }
+
+    @Test
+    void introspectionIsFree() {
+        assertThat(calculate("{ __typename tenant { __typename } }").cost()).isEqualTo(1);
+    }
+
+    private static QueryCostCalculator.QueryCost calculate(String query) {
+        ExecutableNormalizedOperation operation = ExecutableNormalizedOperationFactory
+                .createExecutableNormalizedOperationWithRawVariables(
+                        SCHEMA, Parser.parse(query), null, RawVariables.emptyVariables());
+        return QueryCostCalculator.calculate(operation, SCHEMA, MAX_PAGE_SIZE);
+    }
+}
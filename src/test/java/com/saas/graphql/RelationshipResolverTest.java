@@ -0,0 +1,68 @@
+package com.saas.graphql;
+
+import com.saas.common.exception.ForbiddenException;
+import com.saas.graphql.RelationshipResolver.TenantUsersKey;
+import com.saas.tenant.entity.Tenant;
+import com.saas.tenant.repository.TenantRepository;
+import com.saas.user.entity.User;
+import com.saas.user.repository.UserRepository;
+import org.dataloader.DataLoader;
+import org.junit.jupiter.api.Test;
+import org.springframework.graphql.execution.DefaultBatchLoaderRegistry;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RelationshipResolverTest {
+
+    private final RelationshipResolver resolver = new RelationshipResolver(mock(UserRepository.class),
+            mock(TenantRepository.class), new DefaultBatchLoaderRegistry(), 100);
+    @SuppressWarnings("unchecked")
+    private final DataLoader<TenantUsersKey, List<User>> tenantUsers = mock(DataLoader.class);
+    private final Tenant tenantB = Tenant.builder().id(2L).tenantId("globex").build();
+
+    @Test
+    void adminCannotListUsersOfAnotherTenant() {
+        assertThatThrownBy(() -> resolver.users(tenantB, 10, 1L, caller("ADMIN"), tenantUsers))
+                .isInstanceOf(ForbiddenException.class);
+        verify(tenantUsers, never()).load(any());
+    }
+
+    @Test
+    void callerWithoutTokenTenantCannotListUsers() {
+        assertThatThrownBy(() -> resolver.users(tenantB, 10, null, caller("ADMIN"), tenantUsers))
+                .isInstanceOf(ForbiddenException.class);
+    }
+
+    @Test
+    void adminListsUsersOfOwnTenantWithClampedLimit() {
+        when(tenantUsers.load(new TenantUsersKey(2L, 100))).thenReturn(CompletableFuture.completedFuture(List.of()));
+
+        resolver.users(tenantB, 5_000, 2L, caller("ADMIN"), tenantUsers);
+
+        verify(tenantUsers).load(new TenantUsersKey(2L, 100));
+    }
+
+    @Test
+    void explicitNullUsesTheDefaultAndSuperAdminMayCrossTenants() {
+        when(tenantUsers.load(new TenantUsersKey(2L, 50))).thenReturn(CompletableFuture.completedFuture(List.of()));
+
+        resolver.users(tenantB, null, 1L, caller("SUPER_ADMIN"), tenantUsers);
+
+        verify(tenantUsers).load(new TenantUsersKey(2L, 50));
+    }
+
+    private static Authentication caller(String role) {
+        return new UsernamePasswordAuthenticationToken("admin@acme.test", null, AuthorityUtils.createAuthorityList(role));
+    }
+}
@@ -0,0 +1,118 @@
+package com.saas.outbox.service;
+
+import com.saas.outbox.dto.OutboxMessage;
+import com.saas.outbox.sink.OutboxSink;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final RecordingTransactionManager transactionManager = new RecordingTransactionManager();
+    private final List<String> delivered = new ArrayList<>();
+    private final List<String> updates = new ArrayList<>();
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        OutboxSink sink = new OutboxSink() {
+            @Override
+            public String name() {
+                return "test";
+            }
+
+            @Override
+            public void deliver(OutboxMessage message) {
+                delivered.add(message.getId() + (transactionManager.active ? " in transaction" : ""));
+                if (message.getType().equals("broken")) {
+                    throw new IllegalStateException("endpoint down");
+                }
+            }
+        };
+        relay = new OutboxRelay(jdbcTemplate, new TransactionTemplate(transactionManager), List.of(sink));
+        ReflectionTestUtils.setField(relay, "enabled", true);
+        ReflectionTestUtils.setField(relay, "batchSize", 10);
+        ReflectionTestUtils.setField(relay, "maxBatchesPerRun", 5);
+        ReflectionTestUtils.setField(relay, "maxAttempts", 3);
+        ReflectionTestUtils.setField(relay, "initialBackoff", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(relay, "maxBackoff", Duration.ofMinutes(15));
+        ReflectionTestUtils.setField(relay, "lease", Duration.ofMinutes(10));
+
+        doAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            List<Object[]> rows = invocation.getArgument(1);
+            updates.add((transactionManager.active ? "tx " : "") + statusOf(sql) + " " + rows.size());
+            return new int[rows.size()];
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void deliversOutsideTheTransactionAndRecordsOutcomesInOne() {
+        claimReturns(message(2L, "user.created", 1), message(1L, "tenant.created", 1),
+                message(3L, "broken", 1), message(4L, "broken", 3));
+
+        relay.relay();
+
+        assertThat(delivered).containsExactly("1", "2", "3", "4");
+        assertThat(updates).containsExactlyInAnyOrder("tx PUBLISHED 2", "tx RETRY 1", "tx FAILED 1");
+    }
+
+    @SuppressWarnings("unchecked")
+    private void claimReturns(OutboxMessage... messages) {
+        when(jdbcTemplate.query(contains("FOR UPDATE OF e SKIP LOCKED"), any(RowMapper.class), any(), any()))
+                .thenReturn(List.of(messages));
+    }
+
+    private static OutboxMessage message(Long id, String type, int attempt) {
+        return OutboxMessage.builder().id(id).type(type).aggregateType("tenant").aggregateId(id.toString())
+                .attempt(attempt).build();
+    }
+
+    private static String statusOf(String sql) {
+        if (sql.contains("'PUBLISHED'")) {
+            return "PUBLISHED";
+        }
+        return sql.contains("'FAILED'") ? "FAILED" : "RETRY";
+    }
+
+    private static class RecordingTransactionManager implements PlatformTransactionManager {
+        private boolean active;
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            active = true;
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            active = false;
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            active = false;
+        }
+    }
+}
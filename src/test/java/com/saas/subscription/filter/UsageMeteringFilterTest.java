@@ -0,0 +1,72 @@
+package com.saas.subscription.filter;
+
+import com.saas.security.filter.JwtAuthenticationFilter;
+import com.saas.subscription.service.UsageMeter;
+import com.saas.tenant.config.TenantContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class UsageMeteringFilterTest {
+
+    private final UsageMeter usageMeter = mock(UsageMeter.class);
+    private final UsageMeteringFilter filter = new UsageMeteringFilter(usageMeter);
+
+    UsageMeteringFilterTest() {
+        ReflectionTestUtils.setField(filter, "enabled", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void billsTheTenantOfTheToken() throws Exception {
+        MockHttpServletRequest request = apiRequest();
+        request.setAttribute(JwtAuthenticationFilter.TENANT_ID_ATTRIBUTE, 7L);
+
+        filter.doFilter(request, new MockHttpServletResponse(), respondWith(HttpServletResponse.SC_OK));
+
+        verify(usageMeter).increment(7L, UsageMeter.API_REQUESTS);
+    }
+
+    @Test
+    void neverBillsTheTenantNamedInTheHeader() throws Exception {
+        TenantContext.setCurrentTenant("victim", 9L);
+
+        filter.doFilter(apiRequest(), new MockHttpServletResponse(), respondWith(HttpServletResponse.SC_OK));
+
+        verify(usageMeter, never()).increment(any(), anyString());
+    }
+
+    @Test
+    void skipsRejectedRequests() throws Exception {
+        MockHttpServletRequest request = apiRequest();
+        request.setAttribute(JwtAuthenticationFilter.TENANT_ID_ATTRIBUTE, 7L);
+
+        filter.doFilter(request, new MockHttpServletResponse(), respondWith(HttpServletResponse.SC_FORBIDDEN));
+
+        verify(usageMeter, never()).increment(any(), anyString());
+    }
+
+    private static MockHttpServletRequest apiRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/saas/api/projects");
+        request.setContextPath("/saas");
+        return request;
+    }
+
+    private static FilterChain respondWith(int status) {
+        return (request, response) -> ((HttpServletResponse) response).setStatus(status);
+    }
+}
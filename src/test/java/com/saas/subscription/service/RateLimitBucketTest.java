@@ -0,0 +1,75 @@
+package com.saas.subscription.service;
+
+import com.saas.subscription.config.RateLimitProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitBucketTest {
+
+    private static final long START = TimeUnit.SECONDS.toNanos(1_000);
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void admitsTheBurstThenRejectsWithTheTimeUntilTheNextSlot() {
+        RateLimitBucket bucket = new RateLimitBucket(limit(10, 3), START);
+
+        assertThat(bucket.tryAcquire(START)).isEqualTo(new RateLimitDecision(true, 3, 2, INTERVAL, 0));
+        assertThat(bucket.tryAcquire(START)).isEqualTo(new RateLimitDecision(true, 3, 1, 2 * INTERVAL, 0));
+        assertThat(bucket.tryAcquire(START)).isEqualTo(new RateLimitDecision(true, 3, 0, 3 * INTERVAL, 0));
+
+        RateLimitDecision rejected = bucket.tryAcquire(START);
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.remaining()).isZero();
+        assertThat(rejected.resetNanos()).isEqualTo(3 * INTERVAL);
+        assertThat(rejected.retryAfterNanos()).isEqualTo(INTERVAL);
+    }
+
+    @Test
+    void rejectionsDoNotConsumeCapacity() {
+        RateLimitBucket bucket = new RateLimitBucket(limit(10, 1), START);
+        assertThat(bucket.tryAcquire(START).allowed()).isTrue();
+        for (int i = 0; i < 10; i++) {
+            assertThat(bucket.tryAcquire(START).allowed()).isFalse();
+        }
+
+        assertThat(bucket.tryAcquire(START + INTERVAL).allowed()).isTrue();
+    }
+
+    @Test
+    void refillsAtTheSustainedRate() {
+        RateLimitBucket bucket = new RateLimitBucket(limit(10, 2), START);
+        bucket.tryAcquire(START);
+        bucket.tryAcquire(START);
+
+        assertThat(bucket.tryAcquire(START + INTERVAL / 2).allowed()).isFalse();
+        assertThat(bucket.tryAcquire(START + INTERVAL).allowed()).isTrue();
+        assertThat(bucket.tryAcquire(START + INTERVAL).allowed()).isFalse();
+        // A long quiet period refills the bucket only up to the burst
+        long later = START + TimeUnit.MINUTES.toNanos(1);
+        assertThat(bucket.tryAcquire(later).remaining()).isEqualTo(1);
+        assertThat(bucket.tryAcquire(later).remaining()).isZero();
+        assertThat(bucket.tryAcquire(later).allowed()).isFalse();
+    }
+
+    @Test
+    void keepsUsageWhenTheLimitChanges() {
+        RateLimitBucket bucket = new RateLimitBucket(limit(10, 3), START);
+        bucket.tryAcquire(START);
+        bucket.tryAcquire(START);
+
+        RateLimitBucket upgraded = bucket.withLimit(limit(10, 5));
+
+        assertThat(upgraded.limit().getBurst()).isEqualTo(5);
+        assertThat(upgraded.tryAcquire(START)).isEqualTo(new RateLimitDecision(true, 5, 2, 3 * INTERVAL, 0));
+    }
+
+    private static RateLimitProperties.Limit limit(double requestsPerSecond, int burst) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setRequestsPerSecond(requestsPerSecond);
+        limit.setBurst(burst);
+        return limit;
+    }
+}
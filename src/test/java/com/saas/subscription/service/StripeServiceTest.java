@@ -0,0 +1,56 @@
+package com.saas.subscription.service;
+
+import com.stripe.model.Price;
+import com.stripe.model.Subscription;
+import com.stripe.model.SubscriptionItem;
+import com.stripe.model.SubscriptionItemCollection;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StripeServiceTest {
+
+    @Test
+    void takesThePlanFromTheLicensedItem() {
+        Subscription subscription = subscription(item("price_api_requests", "metered"), item("price_pro", "licensed"));
+
+        assertThat(StripeService.planPriceId(subscription)).contains("price_pro");
+    }
+
+    @Test
+    void hasNoPlanWithOnlyMeteredItems() {
+        assertThat(StripeService.planPriceId(subscription(item("price_api_requests", "metered")))).isEmpty();
+        assertThat(StripeService.planPriceId(new Subscription())).isEmpty();
+    }
+
+    @Test
+    void storesStripesCanceledStatusAsCancelled() {
+        Subscription subscription = new Subscription();
+        subscription.setStatus("canceled");
+        assertThat(StripeService.tenantStatus(subscription)).isEqualTo("cancelled");
+
+        subscription.setStatus("past_due");
+        assertThat(StripeService.tenantStatus(subscription)).isEqualTo("past_due");
+    }
+
+    private static Subscription subscription(SubscriptionItem... items) {
+        SubscriptionItemCollection collection = new SubscriptionItemCollection();
+        collection.setData(List.of(items));
+        Subscription subscription = new Subscription();
+        subscription.setItems(collection);
+        return subscription;
+    }
+
+    private static SubscriptionItem item(String priceId, String usageType) {
+        Price.Recurring recurring = new Price.Recurring();
+        recurring.setUsageType(usageType);
+        Price price = new Price();
+        price.setId(priceId);
+        price.setRecurring(recurring);
+        SubscriptionItem item = new SubscriptionItem();
+        item.setPrice(price);
+        return item;
+    }
+}
@@ -0,0 +1,99 @@
+package com.saas.subscription.service;
+
+import com.saas.subscription.dto.UsageDelta;
+import com.saas.subscription.repository.UsageCounterRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class UsageMeterTest {
+
+    private final UsageCounterRepository repository = mock(UsageCounterRepository.class);
+    private final UsageMeter meter = new UsageMeter(repository);
+    private final AtomicLong flushed = new AtomicLong();
+
+    @Test
+    void flushesEveryIncrementMadeWhileFlushing() throws Exception {
+        recordFlushes();
+        int threads = 8;
+        int incrementsPerThread = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            long tenantId = i % 2;
+            executor.execute(() -> {
+                for (int n = 0; n < incrementsPerThread; n++) {
+                    meter.increment(tenantId, UsageMeter.API_REQUESTS);
+                }
+                done.countDown();
+            });
+        }
+        while (!done.await(1, TimeUnit.MILLISECONDS)) {
+            meter.flush();
+        }
+        executor.shutdown();
+        meter.flush();
+        meter.flush();
+
+        assertThat(flushed).hasValue((long) threads * incrementsPerThread);
+    }
+
+    @Test
+    void keepsDeltasOfAFailedFlushForTheNextOne() {
+        meter.add(1L, UsageMeter.API_REQUESTS, 5);
+        doThrow(new DataAccessResourceFailureException("down")).when(repository).add(any(UUID.class), anyList());
+        meter.flush();
+
+        recordFlushes();
+        meter.add(1L, UsageMeter.API_REQUESTS, 2);
+        meter.flush();
+
+        assertThat(flushed).hasValue(7);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void retriesAFailedFlushWithTheSameIdAndDeltas() {
+        meter.add(1L, UsageMeter.API_REQUESTS, 5);
+        doThrow(new DataAccessResourceFailureException("connection lost during commit"))
+                .when(repository).add(any(UUID.class), anyList());
+        meter.flush();
+
+        recordFlushes();
+        meter.add(1L, UsageMeter.API_REQUESTS, 2);
+        meter.flush();
+
+        ArgumentCaptor<UUID> ids = ArgumentCaptor.forClass(UUID.class);
+        ArgumentCaptor<List<UsageDelta>> deltas = ArgumentCaptor.forClass(List.class);
+        verify(repository, times(3)).add(ids.capture(), deltas.capture());
+        assertThat(ids.getAllValues().get(1)).isEqualTo(ids.getAllValues().get(0));
+        assertThat(ids.getAllValues().get(2)).isNotEqualTo(ids.getAllValues().get(0));
+        assertThat(deltas.getAllValues().get(1)).isEqualTo(deltas.getAllValues().get(0));
+        assertThat(deltas.getAllValues().get(2)).extracting(UsageDelta::quantity).containsExactly(2L);
+    }
+
+    private void recordFlushes() {
+        doAnswer(invocation -> {
+            List<UsageDelta> deltas = invocation.getArgument(1);
+            deltas.forEach(delta -> flushed.addAndGet(delta.quantity()));
+            return null;
+        }).when(repository).add(any(UUID.class), anyList());
+    }
+}
@@ -0,0 +1,73 @@
+package com.saas.subscription.service;
+
+import com.saas.subscription.config.MeteringProperties;
+import com.saas.subscription.dto.UsageReport;
+import com.saas.subscription.repository.UsageCounterRepository;
+import com.saas.tenant.entity.Tenant;
+import com.saas.tenant.repository.TenantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UsageReporterTest {
+
+    private final UsageCounterRepository usageCounterRepository = mock(UsageCounterRepository.class);
+    private final TenantRepository tenantRepository = mock(TenantRepository.class);
+    private final StripeService stripeService = mock(StripeService.class);
+    private UsageReporter reporter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MeteringProperties properties = new MeteringProperties();
+        properties.getPrices().put(UsageMeter.API_REQUESTS, "price_api_requests");
+        reporter = new UsageReporter(usageCounterRepository, tenantRepository, stripeService, properties, Duration.ofHours(1));
+        ReflectionTestUtils.setField(reporter, "batchSize", 2);
+        ReflectionTestUtils.setField(reporter, "lease", Duration.ofMinutes(5));
+
+        when(usageCounterRepository.claim(anyInt(), any(Duration.class))).thenReturn(List.of(
+                new UsageReport(1L, UsageMeter.API_REQUESTS, LocalDateTime.of(2026, 1, 1, 10, 0), 0, 10),
+                new UsageReport(1L, UsageMeter.API_REQUESTS, LocalDateTime.of(2026, 1, 1, 11, 0), 0, 4)));
+        when(tenantRepository.findAllById(any())).thenReturn(List.of(
+                Tenant.builder().id(1L).tenantId("acme").name("Acme").stripeSubscriptionId("sub_1").build()));
+        when(stripeService.findSubscriptionItemId("sub_1", "price_api_requests")).thenReturn(Optional.of("si_1"));
+    }
+
+    @Test
+    void stopsAfterAFailedBatchAndKeepsTheLease() throws Exception {
+        when(stripeService.reportUsage(anyString(), anyLong(), anyString())).thenThrow(new IllegalStateException("circuit open"));
+
+        reporter.report();
+
+        verify(usageCounterRepository, times(1)).claim(2, Duration.ofMinutes(5));
+        verify(usageCounterRepository, never()).markReported(any());
+    }
+
+    @Test
+    void claimsFurtherBatchesWhileReportsSucceed() throws Exception {
+        when(usageCounterRepository.claim(anyInt(), any(Duration.class)))
+                .thenReturn(List.of(
+                        new UsageReport(1L, UsageMeter.API_REQUESTS, LocalDateTime.of(2026, 1, 1, 10, 0), 0, 10),
+                        new UsageReport(1L, UsageMeter.API_REQUESTS, LocalDateTime.of(2026, 1, 1, 11, 0), 0, 4)))
+                .thenReturn(List.of());
+
+        reporter.report();
+
+        verify(usageCounterRepository, times(2)).claim(2, Duration.ofMinutes(5));
+        verify(usageCounterRepository, times(2)).markReported(any());
+    }
+}
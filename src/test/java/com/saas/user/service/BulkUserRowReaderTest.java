@@ -0,0 +1,86 @@
+package com.saas.user.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saas.user.dto.BulkImportFormat;
+import com.saas.user.dto.BulkUserRow;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkUserRowReaderTest {
+
+    @Test
+    void keepsCommasInsideQuotedFields() {
+        assertThat(BulkUserRowReader.splitCsv("a@acme.test,\"Doe, Jane\",x"))
+                .containsExactly("a@acme.test", "Doe, Jane", "x");
+    }
+
+    @Test
+    void unescapesDoubledQuotes() {
+        assertThat(BulkUserRowReader.splitCsv("\"say \"\"hi\"\"\",\"\"\"\""))
+                .containsExactly("say \"hi\"", "\"");
+    }
+
+    @Test
+    void keepsTrailingEmptyFields() {
+        assertThat(BulkUserRowReader.splitCsv("a,b,")).containsExactly("a", "b", "");
+        assertThat(BulkUserRowReader.splitCsv(",,")).containsExactly("", "", "");
+        assertThat(BulkUserRowReader.splitCsv("")).containsExactly("");
+    }
+
+    @Test
+    void rejectsUnterminatedQuotes() {
+        assertThat(BulkUserRowReader.splitCsv("a,\"b,c")).isNull();
+    }
+
+    @Test
+    void readsCrlfFilesWithAByteOrderMark() throws IOException {
+        List<BulkUserRow> rows = read("\uFEFFemail,first_name,last_name,roles\r\n"
+                + "jane@acme.test,Jane,\"Doe, Jr.\",ADMIN;USER\r\n"
+                + "\r\n"
+                + "john@acme.test,John,Doe,\r\n");
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).getEmail()).isEqualTo("jane@acme.test");
+        assertThat(rows.get(0).getLastName()).isEqualTo("Doe, Jr.");
+        assertThat(rows.get(0).getRoles()).containsExactly("ADMIN", "USER");
+        assertThat(rows.get(0).getLineNumber()).isEqualTo(2);
+        assertThat(rows.get(1).getLastName()).isEqualTo("Doe");
+        assertThat(rows.get(1).getRoles()).isEmpty();
+        assertThat(rows.get(1).getLineNumber()).isEqualTo(4);
+    }
+
+    @Test
+    void reportsUnterminatedQuotesAsRowErrors() throws IOException {
+        List<BulkUserRow> rows = read("email,first_name,last_name\njane@acme.test,\"Jane,Doe\n");
+
+        assertThat(rows).singleElement()
+                .satisfies(row -> assertThat(row.getParseError()).contains("unterminated"));
+    }
+
+    @Test
+    void requiresAnEmailColumn() {
+        assertThatThrownBy(() -> read("first_name,last_name\nJane,Doe\n"))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("email");
+    }
+
+    private static List<BulkUserRow> read(String csv) throws IOException {
+        List<BulkUserRow> rows = new ArrayList<>();
+        try (BulkUserRowReader reader = new BulkUserRowReader(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), BulkImportFormat.CSV, new ObjectMapper())) {
+            BulkUserRow row;
+            while ((row = reader.next()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,70 @@
+package com.saas.user.service;
+
+import com.saas.tenant.config.TenantContext;
+import com.saas.user.dto.UserVersion;
+import com.saas.user.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserVersionCacheTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserVersionCache cache = new UserVersionCache(userRepository, 100, Duration.ofMinutes(10));
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void keepsUsersWithTheSameIdInDifferentTenantsApart() {
+        TenantContext.setCurrentTenant("acme", 1L);
+        when(userRepository.findVersionById(5L)).thenReturn(Optional.of(new UserVersion(5L, "a@acme.test", 3L)));
+        assertThat(cache.byId(5L)).contains(new UserVersion(5L, "a@acme.test", 3L));
+
+        TenantContext.setCurrentTenant("globex", 2L);
+        when(userRepository.findVersionById(5L)).thenReturn(Optional.of(new UserVersion(5L, "b@globex.test", 9L)));
+        assertThat(cache.byId(5L)).contains(new UserVersion(5L, "b@globex.test", 9L));
+
+        TenantContext.setCurrentTenant("acme", 1L);
+        assertThat(cache.byId(5L)).contains(new UserVersion(5L, "a@acme.test", 3L));
+        verify(userRepository, times(2)).findVersionById(5L);
+    }
+
+    @Test
+    void keepsUsersWithTheSameEmailInDifferentTenantsApart() {
+        TenantContext.setCurrentTenant("acme", 1L);
+        when(userRepository.findVersionByEmail("x@mail.test")).thenReturn(Optional.of(new UserVersion(1L, "x@mail.test", 1L)));
+        cache.byEmail("x@mail.test");
+
+        TenantContext.setCurrentTenant("globex", 2L);
+        when(userRepository.findVersionByEmail("x@mail.test")).thenReturn(Optional.of(new UserVersion(4L, "x@mail.test", 7L)));
+        assertThat(cache.byEmail("x@mail.test")).contains(new UserVersion(4L, "x@mail.test", 7L));
+    }
+
+    @Test
+    void evictsOnlyTheCurrentTenantsEntry() {
+        TenantContext.setCurrentTenant("acme", 1L);
+        when(userRepository.findVersionById(5L)).thenReturn(Optional.of(new UserVersion(5L, "a@acme.test", 3L)));
+        cache.byId(5L);
+        TenantContext.setCurrentTenant("globex", 2L);
+        cache.byId(5L);
+
+        cache.evict(5L, "a@acme.test");
+        cache.byId(5L);
+        TenantContext.setCurrentTenant("acme", 1L);
+        cache.byId(5L);
+
+        // Loaded once per tenant, then once more for globex after its eviction
+        verify(userRepository, times(3)).findVersionById(5L);
+    }
+}